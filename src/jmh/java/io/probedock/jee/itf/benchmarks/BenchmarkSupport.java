@@ -0,0 +1,140 @@
+package io.probedock.jee.itf.benchmarks;
+
+import io.probedock.jee.itf.AbstractTestController;
+import io.probedock.jee.itf.TestGroup;
+import io.probedock.jee.itf.listeners.Listener;
+import io.probedock.jee.itf.model.Description;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import javax.ejb.SessionContext;
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import javax.transaction.UserTransaction;
+
+/**
+ * Support to build the fixtures of the benchmarks: test groups of any size compiled on the fly
+ * and a session context that returns a user transaction doing nothing.
+ * 
+ * @author Laurent Prevost <laurent.prevost@probedock.io>
+ */
+public final class BenchmarkSupport {
+	private BenchmarkSupport() {}
+
+	/**
+	 * Compile and instantiate a test group with a setup method for each phase that applies to all the tests
+	 * and the number of test methods requested. The compilation requires to run the benchmarks with a JDK.
+	 * 
+	 * @param testMethods The number of test methods
+	 * @return The test group
+	 */
+	public static TestGroup createTestGroup(int testMethods) {
+		String className = "GeneratedTestGroup" + testMethods;
+
+		StringBuilder source = new StringBuilder();
+		source.append("package io.probedock.jee.itf.benchmarks.generated;\n");
+		source.append("import io.probedock.jee.itf.TestGroup;\n");
+		source.append("import io.probedock.jee.itf.annotations.Test;\n");
+		source.append("import io.probedock.jee.itf.annotations.TestSetup;\n");
+		source.append("import io.probedock.jee.itf.annotations.TestSetupType;\n");
+		source.append("import io.probedock.jee.itf.model.Description;\n");
+		source.append("public class ").append(className).append(" implements TestGroup {\n");
+		source.append("  @TestSetup(TestSetupType.BEFORE_ALL) public void beforeAll() {}\n");
+		source.append("  @TestSetup(TestSetupType.AFTER_ALL) public void afterAll() {}\n");
+		source.append("  @TestSetup(TestSetupType.BEFORE_EACH_IN_MAIN_TX) public void beforeEachInMainTx() {}\n");
+		source.append("  @TestSetup(TestSetupType.AFTER_EACH_IN_MAIN_TX) public void afterEachInMainTx() {}\n");
+		for (int i = 0; i < testMethods; i++) {
+			source.append("  @Test public Description test").append(i).append("(Description description) { return description.pass(); }\n");
+		}
+		source.append("  @Override public TestGroup getTestGroup() { return this; }\n");
+		source.append("}\n");
+
+		try {
+			File directory = Files.createTempDirectory("jee-itf-benchmarks").toFile();
+			File packageDirectory = new File(directory, "io/probedock/jee/itf/benchmarks/generated");
+			if (!packageDirectory.mkdirs()) {
+				throw new IOException("Unable to create " + packageDirectory);
+			}
+
+			File sourceFile = new File(packageDirectory, className + ".java");
+			try (Writer writer = Files.newBufferedWriter(sourceFile.toPath(), Charset.forName("UTF-8"))) {
+				writer.write(source.toString());
+			}
+
+			JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+			if (compiler == null) {
+				throw new IllegalStateException("The benchmarks must run with a JDK to compile the test groups");
+			}
+
+			int result = compiler.run(null, null, null, "-classpath", System.getProperty("java.class.path"), "-d", directory.getPath(), sourceFile.getPath());
+			if (result != 0) {
+				throw new IllegalStateException("Unable to compile the test group " + className);
+			}
+
+			ClassLoader classLoader = new URLClassLoader(new URL[] { directory.toURI().toURL() }, BenchmarkSupport.class.getClassLoader());
+			return (TestGroup) classLoader.loadClass("io.probedock.jee.itf.benchmarks.generated." + className).newInstance();
+		}
+		catch (IOException | ReflectiveOperationException e) {
+			throw new IllegalStateException("Unable to create the test group " + className, e);
+		}
+	}
+
+	/**
+	 * Inject a session context that returns a user transaction doing nothing
+	 * 
+	 * @param controller The controller
+	 */
+	public static void injectSessionContext(AbstractTestController controller) {
+		final UserTransaction userTransaction = new StubUserTransaction();
+
+		SessionContext sessionContext = (SessionContext) Proxy.newProxyInstance(
+			BenchmarkSupport.class.getClassLoader(), new Class<?>[] { SessionContext.class }, new InvocationHandler() {
+				@Override
+				public Object invoke(Object proxy, Method method, Object[] args) {
+					return "getUserTransaction".equals(method.getName()) ? userTransaction : null;
+				}
+			});
+
+		try {
+			Field field = AbstractTestController.class.getDeclaredField("sessionContext");
+			field.setAccessible(true);
+			field.set(controller, sessionContext);
+		}
+		catch (ReflectiveOperationException e) {
+			throw new IllegalStateException("Unable to inject the session context", e);
+		}
+	}
+
+	/**
+	 * User transaction doing nothing. The exceptions of the interface are not declared, the Java EE API of the
+	 * build has no code and its exception classes cannot be loaded.
+	 */
+	public static class StubUserTransaction implements UserTransaction {
+		@Override public void begin() {}
+		@Override public void commit() {}
+		@Override public void rollback() {}
+		@Override public void setRollbackOnly() {}
+		@Override public int getStatus() { return 0; }
+		@Override public void setTransactionTimeout(int seconds) {}
+	}
+
+	/**
+	 * Listener doing nothing, used to measure the cost of the notification itself
+	 */
+	public static class NoOpListener implements Listener {
+		@Override public void testRunStart() {}
+		@Override public void testRunEnd() {}
+		@Override public void testStart(Description description) {}
+		@Override public void testEnd(Description description) {}
+		@Override public void fail(Description description) {}
+		@Override public void success(Description description) {}
+	}
+}
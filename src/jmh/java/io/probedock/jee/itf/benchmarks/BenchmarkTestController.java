@@ -0,0 +1,23 @@
+package io.probedock.jee.itf.benchmarks;
+
+import io.probedock.jee.itf.AbstractTestController;
+import io.probedock.jee.itf.TestGroup;
+import javax.ejb.EJB;
+import javax.ejb.TransactionManagement;
+import javax.ejb.TransactionManagementType;
+
+/**
+ * Test controller of the benchmarks with a single test group
+ * 
+ * @author Laurent Prevost <laurent.prevost@probedock.io>
+ */
+@TransactionManagement(TransactionManagementType.BEAN)
+public class BenchmarkTestController extends AbstractTestController {
+	@EJB
+	public TestGroup testGroup;
+
+	public BenchmarkTestController(TestGroup testGroup) {
+		this.testGroup = testGroup;
+		BenchmarkSupport.injectSessionContext(this);
+	}
+}
@@ -0,0 +1,64 @@
+package io.probedock.jee.itf.benchmarks;
+
+import io.probedock.jee.itf.filters.DefaultFilter;
+import io.probedock.jee.itf.model.Description;
+import io.probedock.jee.itf.model.TestGroupDefinition;
+import io.probedock.jee.itf.rest.FilterDefinitionTO;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * {@link DefaultFilter#isRunnable(Description)} on a hundred tests with a growing number of filters
+ * of every type, none of them matching.
+ * 
+ * @author Laurent Prevost <laurent.prevost@probedock.io>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DefaultFilterBenchmark {
+	private static final String[] TYPES = { "name", "key", "tag", "ticket", "fingerprint" };
+
+	@Param({ "1", "10", "100", "1000" })
+	public int filters;
+
+	private DefaultFilter filter;
+	private List<Description> descriptions;
+
+	@Setup
+	public void setUp() {
+		Random random = new Random(42);
+
+		List<FilterDefinitionTO> definitions = new ArrayList<>();
+		for (int i = 0; i < filters; i++) {
+			definitions.add(new FilterDefinitionTO(TYPES[i % TYPES.length], "filter" + Long.toHexString(random.nextLong())));
+		}
+
+		filter = new DefaultFilter(definitions);
+		descriptions = new TestGroupDefinition(BenchmarkSupport.createTestGroup(100), new Random(42)).getTestMethods();
+	}
+
+	@Benchmark
+	public void isRunnable(Blackhole blackhole) {
+		for (Description description : descriptions) {
+			blackhole.consume(filter.isRunnable(description));
+		}
+	}
+}
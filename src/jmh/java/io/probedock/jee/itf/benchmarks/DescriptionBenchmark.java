@@ -0,0 +1,53 @@
+package io.probedock.jee.itf.benchmarks;
+
+import io.probedock.jee.itf.annotations.Test;
+import io.probedock.jee.itf.model.Description;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Allocation of a {@link Description} and of its result
+ * 
+ * @author Laurent Prevost <laurent.prevost@probedock.io>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DescriptionBenchmark {
+	private Method method;
+	private Test testAnnotation;
+
+	@Setup
+	public void setUp() throws NoSuchMethodException {
+		method = DescriptionBenchmark.class.getMethod("dummyTest", Description.class);
+		testAnnotation = method.getAnnotation(Test.class);
+	}
+
+	@Benchmark
+	public Description allocate() {
+		return new Description("benchmarkGroup", testAnnotation, DescriptionBenchmark.class, method);
+	}
+
+	@Benchmark
+	public Description allocateAndPass() {
+		return new Description("benchmarkGroup", testAnnotation, DescriptionBenchmark.class, method).pass("passed");
+	}
+
+	@Test
+	public Description dummyTest(Description description) {
+		return description.pass();
+	}
+}
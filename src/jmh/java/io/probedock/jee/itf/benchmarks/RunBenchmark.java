@@ -0,0 +1,64 @@
+package io.probedock.jee.itf.benchmarks;
+
+import io.probedock.jee.itf.TestRunOptions;
+import io.probedock.jee.itf.listeners.Listener;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Full run loop of the controller against a user transaction doing nothing, with trivial tests. The
+ * number of listeners and their notification mode measure the listener fan-out. The logs are disabled,
+ * they would hide the cost of the framework itself.
+ * 
+ * @author Laurent Prevost <laurent.prevost@probedock.io>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.apache.commons.logging.Log=org.apache.commons.logging.impl.NoOpLog")
+public class RunBenchmark {
+	@Param({ "10", "1000" })
+	public int testMethods;
+
+	@Param({ "1", "8" })
+	public int listeners;
+
+	@Param({ "false", "true" })
+	public boolean asyncListeners;
+
+	private BenchmarkTestController controller;
+	private Map<String, Listener> listenerMap;
+	private TestRunOptions options;
+
+	@Setup
+	public void setUp() {
+		controller = new BenchmarkTestController(BenchmarkSupport.createTestGroup(testMethods));
+
+		listenerMap = new HashMap<>();
+		for (int i = 0; i < listeners; i++) {
+			listenerMap.put("listener" + i, new BenchmarkSupport.NoOpListener());
+		}
+
+		options = new TestRunOptions();
+		options.setAsyncListeners(asyncListeners);
+	}
+
+	@Benchmark
+	public Long run() {
+		return controller.run(null, listenerMap, 42L, options);
+	}
+}
@@ -0,0 +1,51 @@
+package io.probedock.jee.itf.benchmarks;
+
+import io.probedock.jee.itf.TestGroup;
+import io.probedock.jee.itf.invokers.Invoker;
+import io.probedock.jee.itf.invokers.MethodHandleInvoker;
+import io.probedock.jee.itf.model.TestGroupDefinition;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Construction of a {@link TestGroupDefinition} for each run. The discovery of the class is cached,
+ * the benchmark measures the creation, the binding and the shuffle of the descriptions.
+ * 
+ * @author Laurent Prevost <laurent.prevost@probedock.io>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TestGroupDefinitionBenchmark {
+	@Param({ "10", "100", "1000", "10000" })
+	public int testMethods;
+
+	private TestGroup testGroup;
+	private Invoker invoker;
+	private long seed;
+
+	@Setup
+	public void setUp() {
+		testGroup = BenchmarkSupport.createTestGroup(testMethods);
+		invoker = new MethodHandleInvoker();
+	}
+
+	@Benchmark
+	public TestGroupDefinition construct() {
+		return new TestGroupDefinition(testGroup, new Random(seed++), invoker);
+	}
+}
@@ -1,26 +1,72 @@
 package io.probedock.jee.itf;
 
+import io.probedock.jee.itf.annotations.LoadTest;
+import io.probedock.jee.itf.annotations.PerfTest;
+import io.probedock.jee.itf.annotations.TestSetupType;
+import io.probedock.jee.itf.annotations.TransactionPolicy;
 import io.probedock.jee.itf.filters.Filter;
+import io.probedock.jee.itf.invokers.Invocation;
+import io.probedock.jee.itf.invokers.InvocationOverhead;
+import io.probedock.jee.itf.invokers.Invoker;
+import io.probedock.jee.itf.invokers.MethodHandleInvoker;
+import io.probedock.jee.itf.invokers.ReflectionInvoker;
+import io.probedock.jee.itf.jdbc.InstrumentedDataSource;
+import io.probedock.jee.itf.jdbc.SqlRecorder;
+import io.probedock.jee.itf.jdbc.SqlStatistics;
+import io.probedock.jee.itf.jdbc.TableSnapshot;
+import io.probedock.jee.itf.jmx.TestRunMetrics;
+import io.probedock.jee.itf.jmx.ThreadResources;
+import io.probedock.jee.itf.listeners.LatencyHistogram;
 import io.probedock.jee.itf.listeners.Listener;
+import io.probedock.jee.itf.listeners.ListenerEventBus;
+import io.probedock.jee.itf.listeners.PhaseListener;
 import io.probedock.jee.itf.model.Description;
+import io.probedock.jee.itf.model.LoadStatistics;
+import io.probedock.jee.itf.model.PerfStatistics;
+import io.probedock.jee.itf.model.TestPhase;
 import io.probedock.jee.itf.model.TestGroupDefinition;
 import io.probedock.jee.itf.model.TestGroupDefinition.SetupMethod;
+import io.probedock.jee.itf.scheduling.DurationHistory;
+import io.probedock.jee.itf.scheduling.LongestFirstScheduler;
+import io.probedock.jee.itf.scheduling.ShardPartitioner;
+import io.probedock.jee.itf.scheduling.ShardStrategy;
 
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.io.Writer;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
-import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Queue;
 import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import javax.annotation.Resource;
 import javax.ejb.EJB;
 import javax.ejb.SessionContext;
 import javax.ejb.TransactionManagement;
 import javax.ejb.TransactionManagementType;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
 import javax.transaction.UserTransaction;
 
 import org.apache.commons.logging.Log;
@@ -36,17 +82,67 @@ import org.apache.commons.logging.LogFactory;
  * tests in the groups are shuffled. Therefore, the order of test run are not the same between two different run. It
  * means that you cannot write tests that depends on one another test because you cannot be sure that the dependency
  * order is respected between runs.
+ * <p/>
+ * The test groups, and the tests inside a group, can be run in parallel when the {@link TestRunOptions} ask for it and
+ * an executor is provided by overriding {@link #getExecutorService()}. In that case, the listeners must be thread safe.
  *
  * @author Laurent Prevost <laurent.prevost@probedock.io>
  */
 public abstract class AbstractTestController implements TestController {
     private static final Log LOGGER = LogFactory.getLog(AbstractTestController.class);
 
+    /**
+     * Invoker used by default to run the test and setup methods
+     */
+    private static final Invoker DEFAULT_INVOKER = new MethodHandleInvoker();
+
+    /**
+     * Define if the calibration of the invokers was already reported
+     */
+    private static final AtomicBoolean INVOCATION_OVERHEAD_REPORTED = new AtomicBoolean();
+
+    /**
+     * Factory of the threads that notify the listeners asynchronously by default
+     */
+    private static final ThreadFactory DEFAULT_LISTENER_THREAD_FACTORY = new DaemonThreadFactory("jee-itf-listener-");
+
+    /**
+     * Factory of the threads that watch the timeouts of the tests by default
+     */
+    private static final ThreadFactory DEFAULT_WATCHDOG_THREAD_FACTORY = new DaemonThreadFactory("jee-itf-watchdog-");
+
+    /**
+     * Durations of the previous runs used by default, shared by the controller instances
+     */
+    private static final DurationHistory DEFAULT_DURATION_HISTORY = new DurationHistory();
+
+    /**
+     * The phases of a test that run in its main transaction
+     */
+    private static final TestPhase[] IN_MAIN_TX_PHASES = {
+        TestPhase.BEGIN, TestPhase.BEFORE_IN_MAIN_TX, TestPhase.TEST, TestPhase.AFTER_IN_MAIN_TX, TestPhase.COMPLETION
+    };
+
     @Resource
     private SessionContext sessionContext;
 
+    /**
+     * Live metrics of the run in progress, null when no run is in progress or the metrics are disabled
+     */
+    private volatile TestRunMetrics metrics;
+
+    /**
+     * Watchdog of the timeouts of the run in progress, null when no run is in progress
+     */
+    private volatile TestWatchdog watchdog;
+
     @Override
     public Long run(Map<String, Filter> filters, Map<String, Listener> listeners, Long seed) {
+        return run(filters, listeners, seed, null);
+    }
+
+    @Override
+    public Long run(Map<String, Filter> filters, Map<String, Listener> listeners, Long seed, TestRunOptions options) {
 
         // Ensure the random generator has a valid seed
         Long internalSeed;
@@ -57,27 +153,165 @@ public abstract class AbstractTestController implements TestController {
         }
 
         // Validate that the TestController is correctly annotated and configured
-        TestControllerConfiguration configuration = createConfiguration(filters, listeners, internalSeed);
+        TestControllerConfiguration configuration = createConfiguration(filters, listeners, internalSeed, options);
 
-        // Populate the test groups
-        popuplateTestGroups(configuration);
+        if (isThreadResourcesEnabled()) {
+            ThreadResources.enable();
+        }
 
-        testRunStart(configuration);
+        ObjectName metricsObjectName = getMetricsObjectName();
+        if (metricsObjectName != null) {
+            metrics = TestRunMetrics.acquire(metricsObjectName);
+        }
 
-		/*
-         * Run the test with the setup and teardown methods
-		 */
-        for (TestGroupDefinition testGroupDefinition : configuration.getTestGroupDefinitions()) {
-            runBeforeAll(testGroupDefinition);
-            runTests(configuration, testGroupDefinition);
-            runAfterAll(testGroupDefinition);
+        watchdog = new TestWatchdog(getWatchdogThreadFactory());
+
+        try {
+            // Populate the test groups
+            popuplateTestGroups(configuration);
+
+            testRunStart(configuration);
+
+            /*
+             * Run the test with the setup and teardown methods
+             */
+            if ((configuration.getOptions().getGroupParallelism() > 1 || configuration.getOptions().getTestParallelism() > 1) && getExecutorService() == null) {
+                LOGGER.warn("No executor service is provided by the test controller, the tests will run sequentially.");
+            }
+
+            if (configuration.getOptions().getGroupParallelism() > 1 && getExecutorService() != null) {
+                runTestGroupsInParallel(configuration);
+            } else {
+                for (TestGroupDefinition testGroupDefinition : configuration.getTestGroupDefinitions()) {
+                    runTestGroup(configuration, testGroupDefinition);
+                }
+            }
+
+            testRunEnd(configuration);
+        } finally {
+            // Never leave the consumer threads behind when the run is interrupted by an exception
+            if (configuration.getEventBus() != null) {
+                configuration.getEventBus().close();
+            }
+
+            if (metrics != null) {
+                metrics.release();
+                metrics = null;
+            }
+
+            watchdog.close();
+            watchdog = null;
         }
 
-        testRunEnd(configuration);
+        reportInvocationOverhead();
 
         return internalSeed;
     }
 
+    /**
+     * Retrieve the invoker used to run the test and setup methods. The methods are bound once by the invoker and
+     * reused for every invocation. The invoker should be a constant, a method is bound again each time a different
+     * invoker is used.
+     *
+     * @return The invoker, by default the methods are invoked through method handles
+     */
+    protected Invoker getInvoker() {
+        return DEFAULT_INVOKER;
+    }
+
+    /**
+     * Retrieve the executor service used to run the test groups in parallel. The executor should be managed by the
+     * container (for example a {@code ManagedExecutorService} injected with {@code @Resource}) to let the threads
+     * use the transactions and the session beans.
+     * <p/>
+     * The number of tasks submitted at the same time is bounded by the parallelism configured in the
+     * {@link TestRunOptions}.
+     *
+     * @return The executor service, null by default which means that everything runs sequentially
+     */
+    protected ExecutorService getExecutorService() {
+        return null;
+    }
+
+    /**
+     * Retrieve the factory of the threads that notify the listeners when they are notified asynchronously. Each
+     * listener has its own thread for the duration of the run. The factory should be managed by the container (for
+     * example a {@code ManagedThreadFactory} injected with {@code @Resource}).
+     *
+     * @return The thread factory, by default it creates daemon threads
+     */
+    protected ThreadFactory getListenerThreadFactory() {
+        return DEFAULT_LISTENER_THREAD_FACTORY;
+    }
+
+    /**
+     * Retrieve the factory of the thread that interrupts the tests that exceed their timeout. The thread runs for the
+     * duration of the run once a test with a timeout starts. The factory should be managed by the container (for
+     * example a {@code ManagedThreadFactory} injected with {@code @Resource}).
+     *
+     * @return The thread factory, by default it creates daemon threads
+     */
+    protected ThreadFactory getWatchdogThreadFactory() {
+        return DEFAULT_WATCHDOG_THREAD_FACTORY;
+    }
+
+    /**
+     * Define if the statements executed through the {@link InstrumentedDataSource} are recorded for each test. The
+     * statements of the main transaction of a test are recorded by the thread that runs it.
+     *
+     * @return True to record the statements, false by default
+     */
+    protected boolean isSqlRecorded() {
+        return false;
+    }
+
+    /**
+     * Define if the CPU time and the allocated memory measures are turned on in the JVM at the start of a run, see
+     * {@link ThreadResources}. This changes the settings of the whole JVM for the other applications of the server.
+     *
+     * @return True to turn on the measures, false by default to only take the measures already enabled in the JVM
+     */
+    protected boolean isThreadResourcesEnabled() {
+        return false;
+    }
+
+    /**
+     * Retrieve the durations of the previous runs. The durations of each run are recorded in it and used to start
+     * the longest work first when {@link TestRunOptions#isLongestFirst()} is enabled. The controllers are usually
+     * pooled by the container, the history must outlive them.
+     *
+     * @return The duration history, by default an in-memory history shared by all the controllers. Null to not
+     * record the durations.
+     */
+    protected DurationHistory getDurationHistory() {
+        return DEFAULT_DURATION_HISTORY;
+    }
+
+    /**
+     * Retrieve the name of the MBean that exposes the live metrics of the runs, see {@link TestRunMetrics}. The MBean
+     * is registered in the platform MBean server while a run is in progress.
+     *
+     * @return The object name, for example {@link #createMetricsObjectName()}. Null by default to not expose the
+     * metrics.
+     */
+    protected ObjectName getMetricsObjectName() {
+        return null;
+    }
+
+    /**
+     * Create the name of the MBean of the live metrics from the class of the controller
+     *
+     * @return The object name, null when it cannot be created
+     */
+    protected ObjectName createMetricsObjectName() {
+        try {
+            return new ObjectName("io.probedock.jee.itf:type=TestRunMetrics,controller=" + ObjectName.quote(getClass().getName()));
+        } catch (MalformedObjectNameException mone) {
+            LOGGER.warn("Unable to create the name of the test run metrics because: " + mone.getMessage());
+            return null;
+        }
+    }
+
     /**
      * Check that the current test controller is well configured and can run the integration test in correct conditions.
      * Try to fix missing elements.
@@ -85,8 +319,9 @@ public abstract class AbstractTestController implements TestController {
      * @param filters The filters to configure
      * @param listeners The listeners to configure
      * @param seed The random generator seed to use
+     * @param options The test run options
      */
-    private TestControllerConfiguration createConfiguration(Map<String, Filter> filters, Map<String, Listener> listeners, Long seed) {
+    private TestControllerConfiguration createConfiguration(Map<String, Filter> filters, Map<String, Listener> listeners, Long seed, TestRunOptions options) {
         Annotation beanAnnotation = this.getClass().getAnnotation(TransactionManagement.class);
         if (beanAnnotation == null) {
             throw new RuntimeException("The TransactionManagement annotation is missing. You should annotate your test controller with: " +
@@ -105,6 +340,15 @@ public abstract class AbstractTestController implements TestController {
         // Create the random generator and set it to the configuration
         configuration.setRand(new Random(seed));
 
+        if (options != null) {
+            if (options.getShardCount() < 1 || options.getShardIndex() < 0 || options.getShardIndex() >= options.getShardCount()) {
+                throw new IllegalArgumentException("The shard index must be between 0 and the number of shards excluded, got shard " +
+                    options.getShardIndex() + " of " + options.getShardCount() + ".");
+            }
+
+            configuration.setOptions(options);
+        }
+
         // Register filters
         if (filters != null && !filters.isEmpty()) {
             for (Entry<String, Filter> entry : filters.entrySet()) {
@@ -121,15 +365,36 @@ public abstract class AbstractTestController implements TestController {
 
         configuration.ensure();
 
+        configuration.setDurationHistory(getDurationHistory());
+
+        // Notify the listeners from dedicated threads
+        if (configuration.getOptions().isAsyncListeners()) {
+            configuration.setEventBus(new ListenerEventBus(
+                configuration.getListeners(),
+                configuration.getOptions().getListenerBufferSize(),
+                configuration.getOptions().getListenerBackpressure(),
+                getListenerThreadFactory()
+            ));
+        }
+
         return configuration;
     }
 
     /**
-     * Populate the test groups to get all the methods (setup + test)
+     * Populate the test groups to get all the methods (setup + test). The filters are applied once per test before
+     * the groups are added to the run, then the tests of the other shards are removed. The groups without selected
+     * tests are left out.
      *
      * @param configuration The configuration to handle the test of the tests
      */
-    private void popuplateTestGroups(TestControllerConfiguration configuration) {
+    private void popuplateTestGroups(final TestControllerConfiguration configuration) {
+        Filter selector = new Filter() {
+            @Override
+            public boolean isRunnable(Description description) {
+                return AbstractTestController.this.isRunnable(configuration, description);
+            }
+        };
+
 		/*
 		 * Retrieve the fields from the test controller and verify which
 		 * are session beans.
@@ -145,14 +410,101 @@ public abstract class AbstractTestController implements TestController {
 
                 TestGroup testGroup = getTestGroup(field);
                 if (testGroup != null) {
-                    configuration.addTestGroupDefinition(new TestGroupDefinition(testGroup, configuration.getRand()));
+                    // Each group has its own seeded generator to keep the order reproducible whatever the thread that runs it
+                    Random groupRand = new Random(configuration.getRand().nextLong());
+
+                    // The tests are selected once
+                    configuration.addTestGroupDefinition(new TestGroupDefinition(testGroup, groupRand, getInvoker(), selector));
                 }
             } else {
                 LOGGER.warn("An attribute in the TestController seems to not be a valid Session Bean [" + field.getName() + "]");
             }
         }
 
+        if (configuration.getOptions().getShardCount() > 1) {
+            selectShard(configuration);
+        }
+
+        // The groups without selected tests are not run at all
+        for (Iterator<TestGroupDefinition> iterator = configuration.getTestGroupDefinitions().iterator(); iterator.hasNext(); ) {
+            TestGroupDefinition testGroupDefinition = iterator.next();
+
+            if (testGroupDefinition.getTestMethods().isEmpty()) {
+                LOGGER.info("No test selected in the test group " + testGroupDefinition.getName() + ", its setup methods will not run.");
+                iterator.remove();
+            }
+        }
+
+        // The timeout of a test overrides the default one of the run
+        for (TestGroupDefinition testGroupDefinition : configuration.getTestGroupDefinitions()) {
+            for (Description description : testGroupDefinition.getTestMethods()) {
+                long timeout = description.getTestAnnotation().timeoutMs();
+                description.setTimeout(timeout > 0 ? timeout : Math.max(0, configuration.getOptions().getDefaultTimeoutMs()));
+            }
+        }
+
         configuration.shuffleTestGroupDefinitions();
+
+        // The shuffled order is kept between the work of the same magnitude
+        if (configuration.getOptions().isLongestFirst()) {
+            if (configuration.getDurationHistory() == null) {
+                LOGGER.warn("No duration history is provided by the test controller, the tests keep the shuffled order.");
+            } else {
+                LongestFirstScheduler scheduler = new LongestFirstScheduler(configuration.getDurationHistory());
+                scheduler.orderTestGroups(configuration.getTestGroupDefinitions());
+
+                for (TestGroupDefinition testGroupDefinition : configuration.getTestGroupDefinitions()) {
+                    scheduler.orderTests(testGroupDefinition.getTestMethods());
+                }
+            }
+        }
+    }
+
+    /**
+     * Remove the tests assigned to the other shards. The tests are assigned in the order of discovery of the groups,
+     * before the groups are shuffled, to get the same assignment on every shard whatever the seed.
+     *
+     * @param configuration The configuration with the test groups of the run
+     */
+    private void selectShard(TestControllerConfiguration configuration) {
+        TestRunOptions options = configuration.getOptions();
+
+        List<Description> descriptions = new ArrayList<>();
+        for (TestGroupDefinition testGroupDefinition : configuration.getTestGroupDefinitions()) {
+            descriptions.addAll(testGroupDefinition.getTestMethods());
+        }
+
+        // The shuffled order of the tests of a group must not change the assignment
+        Collections.sort(descriptions, new Comparator<Description>() {
+            @Override
+            public int compare(Description left, Description right) {
+                return left.getName().compareTo(right.getName());
+            }
+        });
+
+        // The durations of the run change the history of the node, the shards must rely on durations they share
+        ShardStrategy strategy = options.getShardStrategy();
+        if (strategy == ShardStrategy.DURATION && options.getShardDurations() == null) {
+            LOGGER.warn("No shard durations are provided for the " + ShardStrategy.DURATION + " strategy, the tests are assigned with the " +
+                ShardStrategy.HASH + " strategy to run each test on exactly one shard.");
+            strategy = ShardStrategy.HASH;
+        }
+
+        int[] shards = new ShardPartitioner(options.getShardCount(), strategy, options.getShardDurations()).assign(descriptions);
+
+        Set<Description> selected = Collections.newSetFromMap(new IdentityHashMap<Description, Boolean>());
+        for (int i = 0; i < shards.length; i++) {
+            if (shards[i] == options.getShardIndex()) {
+                selected.add(descriptions.get(i));
+            }
+        }
+
+        for (TestGroupDefinition testGroupDefinition : configuration.getTestGroupDefinitions()) {
+            testGroupDefinition.getTestMethods().retainAll(selected);
+        }
+
+        LOGGER.info("Shard " + options.getShardIndex() + " of " + options.getShardCount() + " (" + strategy + "): " +
+            selected.size() + " of " + descriptions.size() + " tests selected.");
     }
 
     /**
@@ -183,13 +535,274 @@ public abstract class AbstractTestController implements TestController {
         return null;
     }
 
+    /**
+     * Run the test groups in parallel. The groups annotated with {@link io.probedock.jee.itf.annotations.Sequential}
+     * are run one after the other once the parallel groups are done.
+     *
+     * @param configuration The test controller configuration
+     */
+    private void runTestGroupsInParallel(final TestControllerConfiguration configuration) {
+        Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+        List<TestGroupDefinition> sequentialGroups = new ArrayList<>();
+
+        for (final TestGroupDefinition testGroupDefinition : configuration.getTestGroupDefinitions()) {
+            if (testGroupDefinition.isSequential()) {
+                sequentialGroups.add(testGroupDefinition);
+            } else {
+                tasks.add(new Runnable() {
+                    @Override
+                    public void run() {
+                        runTestGroup(configuration, testGroupDefinition);
+                    }
+                });
+            }
+        }
+
+        LOGGER.info("Running " + tasks.size() + " test groups with a parallelism of " + configuration.getOptions().getGroupParallelism() +
+            " (" + sequentialGroups.size() + " sequential test groups)");
+
+        runConcurrently(tasks, configuration.getOptions().getGroupParallelism());
+
+        for (TestGroupDefinition testGroupDefinition : sequentialGroups) {
+            runTestGroup(configuration, testGroupDefinition);
+        }
+    }
+
+    /**
+     * Run the tasks with a bounded number of workers. The current thread is one of the workers, the others are
+     * submitted to the executor service. Each worker takes the next task from the queue until it is empty.
+     * <p/>
+     * Workers that did not start when the current thread has emptied the queue are discarded. This ensures that
+     * nested calls cannot dead lock when the executor is saturated.
+     *
+     * @param tasks The tasks to run
+     * @param parallelism The maximum number of tasks running at the same time
+     */
+    private void runConcurrently(Queue<Runnable> tasks, int parallelism) {
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        List<Worker> workers = new ArrayList<>();
+        List<Future<?>> futures = new ArrayList<>();
+        ExecutorService executorService = getExecutorService();
+        for (int i = 1; i < parallelism && i < tasks.size(); i++) {
+            Worker worker = new Worker(tasks, failure);
+            workers.add(worker);
+            futures.add(executorService.submit(worker));
+        }
+
+        new Worker(tasks, failure).run();
+
+        for (int i = 0; i < workers.size(); i++) {
+            // A worker that is claimed here never started, otherwise wait for the end of its last task
+            if (!workers.get(i).claim()) {
+                try {
+                    futures.get(i).get();
+                } catch (ExecutionException ee) {
+                    failure.compareAndSet(null, ee.getCause());
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    failure.compareAndSet(null, ie);
+                }
+            }
+        }
+
+        Throwable t = failure.get();
+        if (t instanceof RuntimeException) {
+            throw (RuntimeException) t;
+        } else if (t instanceof Error) {
+            throw (Error) t;
+        } else if (t != null) {
+            throw new RuntimeException("Unable to run the tests concurrently", t);
+        }
+    }
+
+    /**
+     * Run a test group with its setup and teardown methods
+     *
+     * @param configuration The test controller configuration
+     * @param testGroupDefinition The test group definition
+     */
+    private void runTestGroup(TestControllerConfiguration configuration, TestGroupDefinition testGroupDefinition) {
+        long startDate = System.currentTimeMillis();
+
+        if (metrics != null) {
+            metrics.testGroupStart(testGroupDefinition.getName());
+        }
+
+        TableSnapshot snapshot = captureTables(testGroupDefinition);
+
+        // The connection must be released, the teardown methods must run and the tables must be restored even when a
+        // test aborts the group
+        Connection savepointConnection = null;
+        try {
+            runBeforeAll(testGroupDefinition);
+
+            savepointConnection = getSavepointConnection(testGroupDefinition);
+            if (savepointConnection != null && !beginSavepointTransaction(testGroupDefinition, savepointConnection)) {
+                // Without the transaction of the group, the changes of the tests would be committed
+                savepointConnection = null;
+                failTests(configuration, testGroupDefinition, "The savepoint transaction of the test group could not be started");
+            } else {
+                runTests(configuration, testGroupDefinition);
+            }
+        } finally {
+            try {
+                if (savepointConnection != null) {
+                    endSavepointTransaction(testGroupDefinition, savepointConnection);
+                }
+            } finally {
+                try {
+                    runAfterAll(testGroupDefinition);
+                } finally {
+                    // A group that failed must not leave its committed rows to the next groups
+                    if (snapshot != null) {
+                        restoreTables(testGroupDefinition, snapshot);
+                    }
+                }
+            }
+        }
+
+        if (configuration.getDurationHistory() != null) {
+            configuration.getDurationHistory().record(testGroupDefinition, System.currentTimeMillis() - startDate);
+        }
+    }
+
+    /**
+     * Capture the tables of a test group that restores its tables
+     *
+     * @param testGroupDefinition The test group definition
+     * @return The snapshot of the tables, null when the group is not a {@link SnapshotTestGroup} or the tables cannot
+     * be read
+     */
+    private TableSnapshot captureTables(TestGroupDefinition testGroupDefinition) {
+        if (!(testGroupDefinition.getTestGroup() instanceof SnapshotTestGroup)) {
+            return null;
+        }
+
+        SnapshotTestGroup snapshotTestGroup = (SnapshotTestGroup) testGroupDefinition.getTestGroup();
+        try (Connection connection = snapshotTestGroup.getSnapshotDataSource().getConnection()) {
+            TableSnapshot snapshot = TableSnapshot.capture(connection, snapshotTestGroup.getSnapshotTables());
+
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("Captured " + snapshot.getRowCount() + " rows of " + snapshot.getTableCount() + " tables for test group [" + testGroupDefinition.getName() + "]");
+            }
+
+            return snapshot;
+        } catch (SQLException e) {
+            LOGGER.error("Unable to capture the tables of test group [" + testGroupDefinition.getName() + "], they will not be restored because: " + e.getMessage(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Restore the tables of a test group in the state they were before the group ran
+     *
+     * @param testGroupDefinition The test group definition
+     * @param snapshot The snapshot of the tables
+     */
+    private void restoreTables(TestGroupDefinition testGroupDefinition, TableSnapshot snapshot) {
+        long start = System.nanoTime();
+
+        try (Connection connection = ((SnapshotTestGroup) testGroupDefinition.getTestGroup()).getSnapshotDataSource().getConnection()) {
+            int rows = snapshot.restore(connection);
+
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("Restored " + rows + " rows of " + snapshot.getTableCount() + " tables for test group [" + testGroupDefinition.getName() +
+                    "] in " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + "ms");
+            }
+        } catch (SQLException e) {
+            LOGGER.error("Unable to restore the tables of test group [" + testGroupDefinition.getName() + "] because: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Retrieve the connection of a test group isolated by savepoints
+     *
+     * @param testGroupDefinition The test group definition
+     * @return The connection, null when the group is not a {@link SavepointTestGroup}
+     */
+    private static Connection getSavepointConnection(TestGroupDefinition testGroupDefinition) {
+        if (testGroupDefinition.getTestGroup() instanceof SavepointTestGroup) {
+            return ((SavepointTestGroup) testGroupDefinition.getTestGroup()).getSavepointConnection();
+        }
+
+        return null;
+    }
+
+    /**
+     * Start the transaction of the connection of a group isolated by savepoints and run the setup methods for each
+     * test in the main transaction once for all the tests. When the transaction cannot be started, the connection is
+     * closed right away and the setup methods are not run.
+     *
+     * @param testGroupDefinition The test group definition
+     * @param connection The connection of the group
+     * @return True if the transaction is started
+     */
+    private boolean beginSavepointTransaction(TestGroupDefinition testGroupDefinition, Connection connection) {
+        try {
+            connection.setAutoCommit(false);
+        } catch (SQLException e) {
+            LOGGER.error("Unable to start the savepoint transaction for test group [" + testGroupDefinition.getName() + "], its tests are not run because: " + e.getMessage(), e);
+            closeSavepointConnection(testGroupDefinition, connection);
+            return false;
+        }
+
+        testGroupDefinition.setSavepointConnection(connection);
+        runBeforeEachInMainTx(testGroupDefinition);
+        return true;
+    }
+
+    /**
+     * Run the teardown methods for each test in the main transaction once for all the tests, then rollback the
+     * transaction of the connection of a group isolated by savepoints, restore its auto-commit mode and close it. Each
+     * step runs even when the previous one failed so that the connection is never released with pending changes.
+     *
+     * @param testGroupDefinition The test group definition
+     * @param connection The connection of the group
+     */
+    private void endSavepointTransaction(TestGroupDefinition testGroupDefinition, Connection connection) {
+        try {
+            runAfterEachInMainTx(testGroupDefinition);
+        } finally {
+            testGroupDefinition.setSavepointConnection(null);
+
+            try {
+                connection.rollback();
+            } catch (SQLException e) {
+                LOGGER.error("Unable to rollback the savepoint transaction for test group [" + testGroupDefinition.getName() + "] because: " + e.getMessage(), e);
+            }
+
+            try {
+                connection.setAutoCommit(true);
+            } catch (SQLException e) {
+                LOGGER.error("Unable to restore the auto-commit of the connection of test group [" + testGroupDefinition.getName() + "] because: " + e.getMessage(), e);
+            }
+
+            closeSavepointConnection(testGroupDefinition, connection);
+        }
+    }
+
+    /**
+     * Close the connection of a group isolated by savepoints
+     *
+     * @param testGroupDefinition The test group definition
+     * @param connection The connection of the group
+     */
+    private static void closeSavepointConnection(TestGroupDefinition testGroupDefinition, Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            LOGGER.error("Unable to close the connection of test group [" + testGroupDefinition.getName() + "] because: " + e.getMessage(), e);
+        }
+    }
+
     /**
      * Run the setup methods for all the test in a test group
      *
      * @param testGroupDefinition The test group definition
      */
     private void runBeforeAll(TestGroupDefinition testGroupDefinition) {
-        runMethodsInTx(testGroupDefinition.getBeforeAll(), testGroupDefinition.getTestGroup(), testGroupDefinition.getName(), "beforeAll");
+        runMethodsInTx(testGroupDefinition.getExecutionPlan().getMethods(TestSetupType.BEFORE_ALL), testGroupDefinition, "beforeAll", null);
     }
 
     /**
@@ -199,7 +812,7 @@ public abstract class AbstractTestController implements TestController {
      * @param testGroupDefinition The test group definition
      */
     private void runBeforeEachOutOfMainTx(TestGroupDefinition testGroupDefinition) {
-        runMethodsInTx(testGroupDefinition.getBeforeEachOutMainTx(), testGroupDefinition.getTestGroup(), testGroupDefinition.getName(), "beforeEachOutOfMainTx");
+        runMethodsInTx(testGroupDefinition.getExecutionPlan().getMethods(TestSetupType.BEFORE_EACH_OUT_MAIN_TX), testGroupDefinition, "beforeEachOutOfMainTx", null);
     }
 
     /**
@@ -210,8 +823,7 @@ public abstract class AbstractTestController implements TestController {
      * @param description The description that contains the test
      */
     private void runBeforeOutOfMainTx(TestGroupDefinition testGroupDefinition, Description description) {
-        runMethodsInTx(testGroupDefinition.getBeforeOutMainTx(description), testGroupDefinition.getTestGroup(),
-            testGroupDefinition.getName(), "beforeOutOfMainTx:" + description.getSimpleName());
+        runMethodsInTx(testGroupDefinition.getExecutionPlan(description).getMethods(TestSetupType.BEFORE_OUT_MAIN_TX), testGroupDefinition, "beforeOutOfMainTx", description);
     }
 
     /**
@@ -221,7 +833,7 @@ public abstract class AbstractTestController implements TestController {
      * @param testGroupDefinition The test group definition
      */
     private void runBeforeEachInMainTx(TestGroupDefinition testGroupDefinition) {
-        runMethodsOutOfTx(testGroupDefinition.getBeforeEachInMainTx(), testGroupDefinition.getTestGroup(), testGroupDefinition.getName(), "beforeEachInMainTx");
+        runMethodsOutOfTx(testGroupDefinition.getExecutionPlan().getMethods(TestSetupType.BEFORE_EACH_IN_MAIN_TX), testGroupDefinition, "beforeEachInMainTx", null);
     }
 
     /**
@@ -232,8 +844,7 @@ public abstract class AbstractTestController implements TestController {
      * @param description The description that contains the test
      */
     private void runBeforeInMainTx(TestGroupDefinition testGroupDefinition, Description description) {
-        runMethodsOutOfTx(testGroupDefinition.getBeforeInMainTx(description), testGroupDefinition.getTestGroup(),
-            testGroupDefinition.getName(), "beforeEachInMainTx:" + description.getSimpleName());
+        runMethodsOutOfTx(testGroupDefinition.getExecutionPlan(description).getMethods(TestSetupType.BEFORE_IN_MAIN_TX), testGroupDefinition, "beforeEachInMainTx", description);
     }
 
     /**
@@ -242,34 +853,111 @@ public abstract class AbstractTestController implements TestController {
      * @param configuration The test controller configuration
      * @param testGroupDefinition The test group definition
      */
-    private void runTests(TestControllerConfiguration configuration, TestGroupDefinition testGroupDefinition) {
+    private void runTests(final TestControllerConfiguration configuration, final TestGroupDefinition testGroupDefinition) {
+        int testParallelism = configuration.getOptions().getTestParallelism();
+        boolean parallel = testParallelism > 1 && !testGroupDefinition.isSequential() && getExecutorService() != null &&
+            !(testGroupDefinition.getTestGroup() instanceof SavepointTestGroup);
+
+        Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+
         // Run each test
+        // Only the selected tests are part of the definition
+        for (final Description description : testGroupDefinition.getTestMethods()) {
+            if (parallel) {
+                // The whole setup chain of the test runs in the same worker than the test
+                tasks.add(new Runnable() {
+                    @Override
+                    public void run() {
+                        runTestWithSetup(configuration, testGroupDefinition, description);
+                    }
+                });
+            } else {
+                runTestWithSetup(configuration, testGroupDefinition, description);
+            }
+        }
+
+        if (!tasks.isEmpty()) {
+            runConcurrently(tasks, testParallelism);
+        }
+    }
+
+    /**
+     * Report the tests of a test group that cannot run as failed, without running their setup methods
+     *
+     * @param configuration The test controller configuration
+     * @param testGroupDefinition The test group definition
+     * @param message The reason of the failure
+     */
+    private void failTests(TestControllerConfiguration configuration, TestGroupDefinition testGroupDefinition, String message) {
         for (Description description : testGroupDefinition.getTestMethods()) {
-            if (isRunnable(configuration, description)) {
-                // Setup methods to apply for each test method
-                runBeforeEachOutOfMainTx(testGroupDefinition);
-                runBeforeOutOfMainTx(testGroupDefinition, description);
+            testStart(configuration, description);
+
+            description.fail(message);
+            description.setEndDate(System.currentTimeMillis());
+            description.setDuration(description.getEndDate() - description.getStartDate());
+
+            fail(configuration, description);
+            testEnd(configuration, description);
+        }
+    }
+
+    /**
+     * Run a test method with all the setup and teardown methods that wrap it
+     *
+     * @param configuration The test controller configuration
+     * @param testGroupDefinition The test group definition
+     * @param description The test description
+     */
+    private void runTestWithSetup(TestControllerConfiguration configuration, TestGroupDefinition testGroupDefinition, Description description) {
+        // Setup methods to apply for each test method
+        boolean mergeSetupTransactions = configuration.getOptions().isMergeSetupTransactions();
+
+        PhaseMeter meter = new PhaseMeter();
+        if (mergeSetupTransactions) {
+            runMethodsInTx(testGroupDefinition.getExecutionPlan(description).getMergedBeforeOutOfMainTx(), testGroupDefinition, "beforeOutOfMainTx", description);
+        } else {
+            runBeforeEachOutOfMainTx(testGroupDefinition);
+            runBeforeOutOfMainTx(testGroupDefinition, description);
+        }
+        meter.end(description, TestPhase.BEFORE_OUT_MAIN_TX);
 
-                testStart(configuration, description);
+        testStart(configuration, description);
 
-                // Run the test
-                runTest(testGroupDefinition, description);
+        // Run the test
+        PerfTest perfTest = description.getPerfTestAnnotation();
+        if (description.getLoadTestAnnotation() != null) {
+            meter.restart();
+            runLoadTest(testGroupDefinition, description, description.getLoadTestAnnotation());
+            meter.end(description, TestPhase.TEST);
+        } else if (perfTest != null && perfTest.transactionPerIteration()) {
+            runPerfTest(testGroupDefinition, description, perfTest);
+        } else {
+            runTest(testGroupDefinition, description);
+        }
 
-                if (description.isPassed()) {
-                    success(configuration, description);
-                } else {
-                    fail(configuration, description);
-                }
+        // Stamped before the result is notified so that the listeners of the result get the duration of the test
+        description.setEndDate(System.currentTimeMillis());
+        description.setDuration(description.getEndDate() - description.getStartDate());
+
+        if (description.isPassed()) {
+            success(configuration, description);
+        } else {
+            fail(configuration, description);
+        }
 
-                testEnd(configuration, description);
+        testEnd(configuration, description);
 
-                // Teardown methods to apply for each test method
-                runAfterOutOfMainTx(testGroupDefinition, description);
-                runAfterEachOutOfMainTx(testGroupDefinition);
-            } else {
-                LOGGER.info("Test " + description.getName() + " will not run");
-            }
+        // Teardown methods to apply for each test method
+        meter.restart();
+        if (mergeSetupTransactions) {
+            runMethodsInTx(testGroupDefinition.getExecutionPlan(description).getMergedAfterOutOfMainTx(), testGroupDefinition, "afterOutMainTx", description);
+        } else {
+            runAfterOutOfMainTx(testGroupDefinition, description);
+            runAfterEachOutOfMainTx(testGroupDefinition);
         }
+        meter.end(description, TestPhase.AFTER_OUT_MAIN_TX);
+
+        testPhases(configuration, description);
     }
 
     /**
@@ -280,8 +968,7 @@ public abstract class AbstractTestController implements TestController {
      * @param description The method configuration
      */
     private void runAfterInMainTx(TestGroupDefinition testGroupDefinition, Description description) {
-        runMethodsOutOfTx(testGroupDefinition.getAfterInMainTx(description), testGroupDefinition.getTestGroup(),
-            testGroupDefinition.getName(), "afterInMainTx:" + description.getSimpleName());
+        runMethodsOutOfTx(testGroupDefinition.getExecutionPlan(description).getMethods(TestSetupType.AFTER_IN_MAIN_TX), testGroupDefinition, "afterInMainTx", description);
     }
 
     /**
@@ -291,7 +978,7 @@ public abstract class AbstractTestController implements TestController {
      * @param testGroupDefinition The test group definition
      */
     private void runAfterEachInMainTx(TestGroupDefinition testGroupDefinition) {
-        runMethodsOutOfTx(testGroupDefinition.getAfterEachInMainTx(), testGroupDefinition.getTestGroup(), testGroupDefinition.getName(), "afterEachInMainTx");
+        runMethodsOutOfTx(testGroupDefinition.getExecutionPlan().getMethods(TestSetupType.AFTER_EACH_IN_MAIN_TX), testGroupDefinition, "afterEachInMainTx", null);
     }
 
     /**
@@ -302,8 +989,7 @@ public abstract class AbstractTestController implements TestController {
      * @param description The method configuration
      */
     private void runAfterOutOfMainTx(TestGroupDefinition testGroupDefinition, Description description) {
-        runMethodsInTx(testGroupDefinition.getAfterOutMainTx(description), testGroupDefinition.getTestGroup(),
-            testGroupDefinition.getName(), "afterOutMainTx:" + description.getSimpleName());
+        runMethodsInTx(testGroupDefinition.getExecutionPlan(description).getMethods(TestSetupType.AFTER_OUT_MAIN_TX), testGroupDefinition, "afterOutMainTx", description);
     }
 
     /**
@@ -313,7 +999,7 @@ public abstract class AbstractTestController implements TestController {
      * @param testGroupDefinition The test group definition
      */
     private void runAfterEachOutOfMainTx(TestGroupDefinition testGroupDefinition) {
-        runMethodsInTx(testGroupDefinition.getAfterEachOutMainTx(), testGroupDefinition.getTestGroup(), testGroupDefinition.getName(), "afterOutMainTx");
+        runMethodsInTx(testGroupDefinition.getExecutionPlan().getMethods(TestSetupType.AFTER_EACH_OUT_MAIN_TX), testGroupDefinition, "afterOutMainTx", null);
     }
 
     /**
@@ -322,35 +1008,38 @@ public abstract class AbstractTestController implements TestController {
      * @param testGroupDefinition The test group definition
      */
     private void runAfterAll(TestGroupDefinition testGroupDefinition) {
-        runMethodsInTx(testGroupDefinition.getAfterAll(), testGroupDefinition.getTestGroup(), testGroupDefinition.getName(), "afterAll");
+        runMethodsInTx(testGroupDefinition.getExecutionPlan().getMethods(TestSetupType.AFTER_ALL), testGroupDefinition, "afterAll", null);
     }
 
     /**
      * Run methods into a dedicated transaction
      *
      * @param methods The methods to run into the same transaction
-     * @param testGroup The integration test group where the method are defined
-     * @param name The name of the test group
+     * @param testGroupDefinition The test group definition where the methods are defined
      * @param type The type of methods to run (kind of setup)
+     * @param description The test description when the methods are specific to a test, null otherwise
      */
-    private void runMethodsInTx(List<SetupMethod> methods, TestGroup testGroup, String name, String type) {
-        UserTransaction utx = sessionContext.getUserTransaction();
+    private void runMethodsInTx(SetupMethod[] methods, TestGroupDefinition testGroupDefinition, String type, Description description) {
+        String name = testGroupDefinition.getName();
+
+        if (methods != null && methods.length > 0) {
+            // The user transaction is only looked up when there is something to run
+            UserTransaction utx = sessionContext.getUserTransaction();
 
-        if (methods != null && !methods.isEmpty()) {
             try {
                 // Start a new transaction
                 utx.begin();
+                transactionBegin();
             } catch (Exception e) {
-                LOGGER.error("Unable to start TX for test group [" + name + "]{setup:" + type + "} because: " + e.getMessage(), e);
+                LOGGER.error("Unable to start TX for test group [" + name + "]{setup:" + setupName(type, description) + "} because: " + e.getMessage(), e);
             }
 
             // Run the setup method
             for (SetupMethod setupMethod : methods) {
-                Method method = setupMethod.getMethod();
                 try {
-                    method.invoke(testGroup);
+                    setupMethod.getInvocation(testGroupDefinition.getInvoker()).invoke(testGroupDefinition.getTestGroup(), null);
                 } catch (Exception e) {
-                    LOGGER.error("Unable to run [" + name + "." + method.getName() + "]{setup:" + type + "} because: " + e.getMessage(), e);
+                    LOGGER.error("Unable to run [" + name + "." + setupMethod.getMethod().getName() + "]{setup:" + setupName(type, description) + "} because: " + e.getMessage(), e);
                 }
             }
 
@@ -358,11 +1047,13 @@ public abstract class AbstractTestController implements TestController {
             try {
                 utx.commit();
             } catch (Exception e) {
-                LOGGER.error("Unable to commit TX for test group [" + name + "]{setup:" + type + "} because: " + e.getMessage(), e);
+                LOGGER.error("Unable to commit TX for test group [" + name + "]{setup:" + setupName(type, description) + "} because: " + e.getMessage(), e);
+            } finally {
+                transactionEnd();
             }
         } else {
             if (LOGGER.isDebugEnabled()) {
-                LOGGER.debug("No setup methods to run for test group [{" + name + "}]'{'setup:{" + type + "}'}'");
+                LOGGER.debug("No setup methods to run for test group [{" + name + "}]'{'setup:{" + setupName(type, description) + "}'}'");
             }
         }
     }
@@ -371,28 +1062,39 @@ public abstract class AbstractTestController implements TestController {
      * Run methods without any transaction (let the caller to handle the transaction)
      *
      * @param methods The methods to run into the same transaction
-     * @param testGroup The integration test group where the method are defined
-     * @param name The name of the test group
+     * @param testGroupDefinition The test group definition where the methods are defined
      * @param type The type of methods to run (kind of setup)
+     * @param description The test description when the methods are specific to a test, null otherwise
      */
-    private void runMethodsOutOfTx(List<SetupMethod> methods, TestGroup testGroup, String name, String type) {
+    private void runMethodsOutOfTx(SetupMethod[] methods, TestGroupDefinition testGroupDefinition, String type, Description description) {
+        String name = testGroupDefinition.getName();
         // Run the setup method
         if (methods != null) {
             for (SetupMethod setupMethod : methods) {
-                Method method = setupMethod.getMethod();
                 try {
-                    method.invoke(testGroup);
+                    setupMethod.getInvocation(testGroupDefinition.getInvoker()).invoke(testGroupDefinition.getTestGroup(), null);
                 } catch (Exception e) {
-                    LOGGER.error("Unable to run [" + name + "." + method.getName() + "]{setup:" + type + "} because: " + e.getMessage(), e);
+                    LOGGER.error("Unable to run [" + name + "." + setupMethod.getMethod().getName() + "]{setup:" + setupName(type, description) + "} because: " + e.getMessage(), e);
                 }
             }
         } else {
             if (LOGGER.isDebugEnabled()) {
-                LOGGER.debug("No setup methods to run for test group [{" + name + "}]'{'setup:{" + type + "}'}'");
+                LOGGER.debug("No setup methods to run for test group [{" + name + "}]'{'setup:{" + setupName(type, description) + "}'}'");
             }
         }
     }
 
+    /**
+     * Build the name of a kind of setup for the logs, only when something is logged
+     *
+     * @param type The type of methods (kind of setup)
+     * @param description The test description when the methods are specific to a test, null otherwise
+     * @return The name of the setup
+     */
+    private static String setupName(String type, Description description) {
+        return description != null ? type + ":" + description.getSimpleName() : type;
+    }
+
     /**
      * Run a test method
      *
@@ -401,50 +1103,466 @@ public abstract class AbstractTestController implements TestController {
      */
     private void runTest(TestGroupDefinition testGroupDefinition, Description description) {
         // Run the test, when an exception is thrown in the test, consider test as failed
-        UserTransaction utx = sessionContext.getUserTransaction();
+        TransactionPolicy transactionPolicy = description.getTransactionPolicy();
 
-        try {
-            // Start a new transaction
-            utx.begin();
-        } catch (Exception e) {
-            throw new RuntimeException("Unable to start the transaction for test " + description.getName());
+        // The tests of the groups isolated by savepoints run in the transaction of the group
+        Connection savepointConnection = testGroupDefinition.getSavepointConnection();
+
+        // The tests without transaction never touch the user transaction
+        UserTransaction utx = transactionPolicy != TransactionPolicy.NONE && savepointConnection == null ? sessionContext.getUserTransaction() : null;
+        Savepoint savepoint = null;
+
+        long timeout = description.getTimeout();
+
+        PhaseMeter meter = new PhaseMeter();
+        if (utx != null) {
+            try {
+                // The container rolls back the transaction when the test exceeds its timeout
+                if (timeout > 0) {
+                    utx.setTransactionTimeout((int) Math.min(Integer.MAX_VALUE, (timeout + 999) / 1000));
+                }
+
+                // Start a new transaction
+                utx.begin();
+                transactionBegin();
+            } catch (Exception e) {
+                throw new RuntimeException("Unable to start the transaction for test " + description.getName(), e);
+            } finally {
+                // The transactions of the setup methods keep the default timeout
+                if (timeout > 0) {
+                    resetTransactionTimeout(utx);
+                }
+            }
+        } else if (savepointConnection != null && transactionPolicy != TransactionPolicy.NONE) {
+            try {
+                savepoint = savepointConnection.setSavepoint();
+            } catch (SQLException e) {
+                throw new RuntimeException("Unable to set the savepoint for test " + description.getName(), e);
+            }
         }
+        meter.end(description, TestPhase.BEGIN);
 
-        // Setup methods for the test in the same transaction
-        runBeforeEachInMainTx(testGroupDefinition);
+        // The statements are flushed until the completion of the transaction
+        SqlStatistics sqlStatistics = isSqlRecorded() ? SqlRecorder.start() : null;
+
+        TestWatchdog.Watch watch = timeout > 0 && watchdog != null ? watchdog.watch(timeout) : null;
+
+        // Setup methods for the test in the same transaction, the ones for each test already ran with savepoints
+        if (savepointConnection == null) {
+            runBeforeEachInMainTx(testGroupDefinition);
+        }
         runBeforeInMainTx(testGroupDefinition, description);
+        meter.end(description, TestPhase.BEFORE_IN_MAIN_TX);
 
         // Run the test
+        PerfTest perfTest = description.getPerfTestAnnotation();
+        if (perfTest != null && !perfTest.transactionPerIteration()) {
+            runPerfTest(testGroupDefinition, description, perfTest);
+        } else {
+            description = invokeTest(testGroupDefinition, description);
+        }
+        meter.end(description, TestPhase.TEST);
+
+        // Teardown methods for the test in the same transaction
+        runAfterInMainTx(testGroupDefinition, description);
+        if (savepointConnection == null) {
+            runAfterEachInMainTx(testGroupDefinition);
+        }
+        meter.end(description, TestPhase.AFTER_IN_MAIN_TX);
+
+        boolean timedOut = watch != null && watch.stop();
+        if (timedOut) {
+            timeout(description);
+        }
+
+        // Rollback the transaction, commit it if the annotation to avoid rollback is present
+        boolean commit = description.isRollbackable() && !timedOut && transactionPolicy != TransactionPolicy.READ_ONLY;
+        if (utx != null) {
+            try {
+                if (commit) {
+                    utx.commit();
+                } else {
+                    utx.rollback();
+                }
+
+                if (LOGGER.isDebugEnabled()) {
+                    LOGGER.debug("Test transaction is: " + (commit ? "commit" : "rollback"));
+                }
+            } catch (Exception e) {
+                LOGGER.error("Unable to " + (commit ? "commit" : "rollback") +
+                    " the transaction for test " + description.getName() + " because: " + e.getMessage(), e);
+            } finally {
+                transactionEnd();
+            }
+        } else if (savepoint != null) {
+            // The changes of the tests that must not be rolled back stay until the end of the group
+            try {
+                if (commit) {
+                    savepointConnection.releaseSavepoint(savepoint);
+                } else {
+                    savepointConnection.rollback(savepoint);
+                }
+
+                if (LOGGER.isDebugEnabled()) {
+                    LOGGER.debug("Test savepoint is: " + (commit ? "release" : "rollback"));
+                }
+            } catch (SQLException e) {
+                LOGGER.error("Unable to " + (commit ? "release" : "rollback to") +
+                    " the savepoint for test " + description.getName() + " because: " + e.getMessage(), e);
+            }
+        }
+        meter.end(description, TestPhase.COMPLETION);
+
+        if (sqlStatistics != null) {
+            SqlRecorder.stop();
+            checkSqlStatistics(description, sqlStatistics);
+        } else if (description.getTestAnnotation().maxQueries() >= 0) {
+            LOGGER.warn("The statements are not recorded, the maximum number of queries of the test " + description.getName() + " is not checked.");
+        }
+    }
+
+    /**
+     * Add the statements executed in the main transaction of a test to its description and fail the test when it
+     * exceeds its maximum number of queries. The repeated statements are reported as N+1 queries.
+     *
+     * @param description The test description
+     * @param sqlStatistics The statements recorded
+     */
+    private void checkSqlStatistics(Description description, SqlStatistics sqlStatistics) {
+        description.setSqlStatistics(sqlStatistics);
+        description.addData("sql.statements", String.valueOf(sqlStatistics.getStatements()));
+        description.addData("sql.rows", String.valueOf(sqlStatistics.getRows()));
+        description.addData("sql.time", String.valueOf(TimeUnit.NANOSECONDS.toMillis(sqlStatistics.getTime())));
+
+        Map<String, Integer> repeated = sqlStatistics.getRepeatedStatements();
+        if (!repeated.isEmpty()) {
+            description.addData("sql.repeated", String.valueOf(repeated.size()));
+
+            for (Entry<String, Integer> entry : repeated.entrySet()) {
+                LOGGER.warn("Possible N+1 queries in the test " + description.getName() + ", statement executed " + entry.getValue() + " times: " + entry.getKey());
+            }
+        }
+
+        int maxQueries = description.getTestAnnotation().maxQueries();
+        if (maxQueries >= 0 && sqlStatistics.getStatements() > maxQueries && description.isPassed()) {
+            description.fail("The test executed " + sqlStatistics.getStatements() + " statements, more than its maximum of " + maxQueries + ".");
+        }
+    }
+
+    /**
+     * Invoke a test method
+     *
+     * @param testGroupDefinition The test group definition
+     * @param description The test description
+     * @return The test description returned by the test method, the given one when the test method fails
+     */
+    private Description invokeTest(TestGroupDefinition testGroupDefinition, Description description) {
         try {
-            description = (Description) description.getMethod().invoke(testGroupDefinition.getTestGroup(), description);
+            Invocation invocation = description.getInvocation();
+            if (invocation == null) {
+                invocation = testGroupDefinition.getInvoker().bind(description.getMethod());
+            }
+
+            return (Description) invocation.invoke(testGroupDefinition.getTestGroup(), description);
         } catch (Exception e) {
+            // The invokers only wrap the exceptions thrown by the test method
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+
             // Build the message
             Writer writer = new StringWriter();
-            e.getCause().printStackTrace(new PrintWriter(writer));
+            cause.printStackTrace(new PrintWriter(writer));
 
-            description.fail("Invocation Target Exception: Message[" + e.getCause().getMessage() + "]\n" + writer.toString());
+            description.fail("Invocation Target Exception: Message[" + cause.getMessage() + "]\n" + writer.toString());
 
-            LOGGER.error("Unable to run the test " + description.getName(), e.getCause());
+            LOGGER.error("Unable to run the test " + description.getName(), cause);
+
+            return description;
+        }
+    }
+
+    /**
+     * Run a performance test. The test method is invoked in the current main transaction or each invocation runs
+     * in its own main transaction, depending on the configuration of the test. The invocations stop at the first
+     * failure.
+     *
+     * @param testGroupDefinition The test group definition
+     * @param description The test description
+     * @param perfTest The configuration of the performance test
+     */
+    private void runPerfTest(TestGroupDefinition testGroupDefinition, Description description, PerfTest perfTest) {
+        int warmup = Math.max(0, perfTest.warmup());
+        long[] latencies = new long[Math.max(1, perfTest.iterations())];
+
+        // The phases of the main transactions are the sum of all the invocations
+        long[] inMainTxDurations = new long[IN_MAIN_TX_PHASES.length];
+        long[] inMainTxCpuTimes = new long[IN_MAIN_TX_PHASES.length];
+        long[] inMainTxAllocatedBytes = new long[IN_MAIN_TX_PHASES.length];
+
+        for (int iteration = -warmup; iteration < latencies.length; iteration++) {
+            long latency;
+
+            if (perfTest.transactionPerIteration()) {
+                runTest(testGroupDefinition, description);
+
+                for (int i = 0; i < IN_MAIN_TX_PHASES.length; i++) {
+                    inMainTxDurations[i] += description.getPhaseDuration(IN_MAIN_TX_PHASES[i]);
+                    inMainTxCpuTimes[i] += description.getPhaseCpuTime(IN_MAIN_TX_PHASES[i]);
+                    inMainTxAllocatedBytes[i] += description.getPhaseAllocatedBytes(IN_MAIN_TX_PHASES[i]);
+                }
+
+                latency = description.getPhaseDuration(TestPhase.TEST);
+            } else {
+                long start = System.nanoTime();
+                description = invokeTest(testGroupDefinition, description);
+                latency = System.nanoTime() - start;
+            }
+
+            if (!description.isPassed()) {
+                description.addData(PerfStatistics.DATA_PREFIX + "failedIteration", String.valueOf(iteration + warmup + 1));
+                break;
+            }
+
+            if (iteration >= 0) {
+                latencies[iteration] = latency;
+            }
+        }
+
+        if (perfTest.transactionPerIteration()) {
+            for (int i = 0; i < IN_MAIN_TX_PHASES.length; i++) {
+                description.setPhaseDuration(IN_MAIN_TX_PHASES[i], inMainTxDurations[i]);
+                description.setPhaseCpuTime(IN_MAIN_TX_PHASES[i], ThreadResources.isCpuTimeEnabled() ? inMainTxCpuTimes[i] : ThreadResources.UNSUPPORTED);
+                description.setPhaseAllocatedBytes(IN_MAIN_TX_PHASES[i], ThreadResources.isAllocationEnabled() ? inMainTxAllocatedBytes[i] : ThreadResources.UNSUPPORTED);
+            }
+        }
+
+        if (description.isPassed()) {
+            PerfStatistics statistics = new PerfStatistics(latencies);
+            statistics.addTo(description);
+            description.addData(PerfStatistics.DATA_PREFIX + "warmup", String.valueOf(warmup));
+
+            double p99 = statistics.getPercentile(99) / 1e6;
+            if (perfTest.maxP99() > 0 && p99 > perfTest.maxP99()) {
+                description.fail("The 99th percentile latency of " + String.format("%.3f", p99) + "ms exceeds the maximum of " + perfTest.maxP99() + "ms.");
+            }
+        }
+    }
+
+    /**
+     * Run a load test. The test method is invoked in loop by concurrent callers until the end of the load, each
+     * invocation in its own main transaction with its setup methods and its own description. The callers run through
+     * the executor service, the load runs with a single caller when there is no executor service. The load tests of
+     * the groups isolated by savepoints fail without running, their transactions would wait for the locks of the
+     * connection of the group.
+     *
+     * @param testGroupDefinition The test group definition
+     * @param description The test description that receives the results of the load
+     * @param loadTest The configuration of the load test
+     */
+    private void runLoadTest(final TestGroupDefinition testGroupDefinition, final Description description, LoadTest loadTest) {
+        if (testGroupDefinition.getSavepointConnection() != null) {
+            description.fail("The load tests cannot run in a test group isolated by savepoints.");
+            return;
+        }
+
+        int threads = Math.max(1, loadTest.threads());
+        if (threads > 1 && getExecutorService() == null) {
+            LOGGER.warn("No executor service to run the load test " + description.getName() + " with " + threads + " callers, it runs with a single caller.");
+            threads = 1;
+        }
+
+        Invocation bound = description.getInvocation();
+        final Invocation invocation = bound != null ? bound : testGroupDefinition.getInvoker().bind(description.getMethod());
+
+        final LatencyHistogram latencies = new LatencyHistogram();
+        final AtomicLong errors = new AtomicLong();
+        final AtomicReference<String> firstError = new AtomicReference<>();
+
+        long rampUp = TimeUnit.MILLISECONDS.toNanos(Math.max(0, loadTest.rampUpMs()));
+        long loadStart = System.nanoTime();
+        final long loadEnd = loadStart + TimeUnit.MILLISECONDS.toNanos(Math.max(0, loadTest.durationMs()));
+
+        // The callers that the executor starts late only run until the end of the load
+        Queue<Runnable> callers = new ConcurrentLinkedQueue<>();
+        for (int i = 0; i < threads; i++) {
+            final long callerStart = loadStart + rampUp * i / threads;
+
+            callers.add(new Runnable() {
+                @Override
+                public void run() {
+                    long delay = callerStart - System.nanoTime();
+                    if (delay > 0) {
+                        try {
+                            TimeUnit.NANOSECONDS.sleep(delay);
+                        } catch (InterruptedException ie) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        }
+                    }
+
+                    while (System.nanoTime() < loadEnd) {
+                        long invocationStart = System.nanoTime();
+                        String error = invokeInOwnTx(testGroupDefinition, description, invocation);
+                        latencies.record(System.nanoTime() - invocationStart);
+
+                        if (error != null) {
+                            errors.incrementAndGet();
+                            firstError.compareAndSet(null, error);
+                        }
+                    }
+                }
+            });
+        }
+
+        runConcurrently(callers, threads);
+
+        LoadStatistics statistics = new LoadStatistics(threads, System.nanoTime() - loadStart, latencies, errors.get());
+        statistics.addTo(description);
+
+        if (statistics.getInvocations() == 0) {
+            description.fail("No invocation of the load test completed.");
+            return;
+        }
+
+        StringBuilder failures = new StringBuilder();
+
+        if (statistics.getErrorRate() > loadTest.maxErrorRate()) {
+            failures.append(String.format("The error rate of %.2f%% exceeds the maximum of %.2f%%, first error: %s. ",
+                statistics.getErrorRate() * 100, loadTest.maxErrorRate() * 100, firstError.get()));
+        }
+
+        double p99 = statistics.getPercentile(99) / 1e6;
+        if (loadTest.maxP99() > 0 && p99 > loadTest.maxP99()) {
+            failures.append(String.format("The 99th percentile latency of %.3fms exceeds the maximum of %sms. ", p99, loadTest.maxP99()));
+        }
+
+        if (statistics.getThroughput() < loadTest.minThroughput()) {
+            failures.append(String.format("The throughput of %.1f/s is under the minimum of %s/s. ", statistics.getThroughput(), loadTest.minThroughput()));
+        }
+
+        if (failures.length() > 0) {
+            description.fail(failures.toString().trim());
+        } else if (description.getMessage() == null) {
+            // A failure already recorded on the description must not be hidden
+            description.pass();
+        }
+    }
+
+    /**
+     * Invoke a test method of a load test in its own main transaction with the setup methods of the main transaction
+     *
+     * @param testGroupDefinition The test group definition
+     * @param description The test description, copied for the invocation
+     * @param invocation The test method bound by the invoker
+     * @return The message of the failure, null when the invocation passed
+     */
+    private String invokeInOwnTx(TestGroupDefinition testGroupDefinition, Description description, Invocation invocation) {
+        UserTransaction utx = description.getTransactionPolicy() != TransactionPolicy.NONE ? sessionContext.getUserTransaction() : null;
+
+        if (utx != null) {
+            try {
+                utx.begin();
+                transactionBegin();
+            } catch (Exception e) {
+                return "Unable to start the transaction because: " + e.getMessage();
+            }
+        }
+
+        runBeforeEachInMainTx(testGroupDefinition);
+        runBeforeInMainTx(testGroupDefinition, description);
+
+        Description invocationDescription = description.copy();
+        try {
+            invocationDescription = (Description) invocation.invoke(testGroupDefinition.getTestGroup(), invocationDescription);
+        } catch (Exception e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            invocationDescription.fail(cause.getClass().getName() + ": " + cause.getMessage());
         }
 
-        // Teardown methods for the test in the same transaction
         runAfterInMainTx(testGroupDefinition, description);
         runAfterEachInMainTx(testGroupDefinition);
 
         // Rollback the transaction, commit it if the annotation to avoid rollback is present
-        try {
-            if (description.isRollbackable()) {
-                utx.commit();
-            } else {
-                utx.rollback();
+        if (utx != null) {
+            try {
+                if (invocationDescription.isRollbackable() && description.getTransactionPolicy() != TransactionPolicy.READ_ONLY) {
+                    utx.commit();
+                } else {
+                    utx.rollback();
+                }
+            } catch (Exception e) {
+                if (invocationDescription.isPassed()) {
+                    invocationDescription.fail("Unable to complete the transaction because: " + e.getMessage());
+                }
+            } finally {
+                transactionEnd();
             }
+        }
 
-            if (LOGGER.isDebugEnabled()) {
-                LOGGER.debug("Test transaction is: " + (description.isRollbackable() ? "commit" : "rollback"));
-            }
+        if (invocationDescription.isPassed()) {
+            return null;
+        }
+
+        return invocationDescription.getMessage() != null ? invocationDescription.getMessage() : "The test did not pass";
+    }
+
+    /**
+     * Fail a test that exceeded its timeout and report it as a performance regression
+     *
+     * @param description The test description
+     */
+    private void timeout(Description description) {
+        description.fail("The test exceeded its timeout of " + description.getTimeout() + "ms, it was interrupted" +
+            (description.getTransactionPolicy() != TransactionPolicy.NONE ? " and its transaction rolled back." : "."));
+        description.addData("timeout", String.valueOf(description.getTimeout()));
+        description.addData("timedOut", "true");
+
+        LOGGER.warn("Performance regression: the test " + description.getName() + " exceeded its timeout of " + description.getTimeout() + "ms.");
+
+        if (metrics != null) {
+            metrics.timeout();
+        }
+    }
+
+    /**
+     * Reset the timeout of the next transactions to the default one of the container
+     *
+     * @param utx The user transaction
+     */
+    private void resetTransactionTimeout(UserTransaction utx) {
+        try {
+            utx.setTransactionTimeout(0);
         } catch (Exception e) {
-            LOGGER.error("Unable to " + (description.isRollbackable() ? "commit" : "rollback") +
-                " the transaction for test " + description.getName() + " because: " + e.getMessage(), e);
+            LOGGER.warn("Unable to reset the transaction timeout because: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Count a transaction that starts in the metrics
+     */
+    private void transactionBegin() {
+        if (metrics != null) {
+            metrics.transactionBegin();
+        }
+    }
+
+    /**
+     * Count a transaction that is completed in the metrics
+     */
+    private void transactionEnd() {
+        if (metrics != null) {
+            metrics.transactionEnd();
+        }
+    }
+
+    /**
+     * Report the calibration of the invoker compared to the reflection, measured on empty methods. The calibration
+     * runs and is reported once for the lifetime of the application, only when the debug logs are enabled.
+     */
+    private void reportInvocationOverhead() {
+        if (LOGGER.isDebugEnabled() && INVOCATION_OVERHEAD_REPORTED.compareAndSet(false, true)) {
+            Invoker invoker = getInvoker();
+            LOGGER.debug("Invoker calibration on empty methods: " + InvocationOverhead.of(invoker) + "ns per call with " +
+                invoker.getClass().getSimpleName() + ", " + InvocationOverhead.of(new ReflectionInvoker()) + "ns per call with reflection.");
         }
     }
 
@@ -494,6 +1612,13 @@ public abstract class AbstractTestController implements TestController {
      * @param description Test description
      */
     private void testStart(TestControllerConfiguration configuration, Description description) {
+        // Stamped by the test thread to stay accurate when the listeners are notified asynchronously
+        description.setStartDate(System.currentTimeMillis());
+
+        if (metrics != null) {
+            metrics.testStart(description);
+        }
+
         for (Listener listener : configuration.getListeners()) {
             listener.testStart(description);
         }
@@ -506,11 +1631,33 @@ public abstract class AbstractTestController implements TestController {
      * @param description Test description
      */
     private void testEnd(TestControllerConfiguration configuration, Description description) {
+        if (configuration.getDurationHistory() != null) {
+            configuration.getDurationHistory().record(description);
+        }
+
+        if (metrics != null) {
+            metrics.testEnd(description);
+        }
+
         for (Listener listener : configuration.getListeners()) {
             listener.testEnd(description);
         }
     }
 
+    /**
+     * Notify that the phases of the test are done
+     *
+     * @param configuration The configuration to get the filters
+     * @param description Test description
+     */
+    private void testPhases(TestControllerConfiguration configuration, Description description) {
+        for (Listener listener : configuration.getListeners()) {
+            if (listener instanceof PhaseListener) {
+                ((PhaseListener) listener).testPhases(description);
+            }
+        }
+    }
+
     /**
      * Notify that the test failed
      *
@@ -518,6 +1665,10 @@ public abstract class AbstractTestController implements TestController {
      * @param description Test description
      */
     private void fail(TestControllerConfiguration configuration, Description description) {
+        if (metrics != null) {
+            metrics.fail();
+        }
+
         for (Listener listener : configuration.getListeners()) {
             listener.fail(description);
         }
@@ -530,8 +1681,115 @@ public abstract class AbstractTestController implements TestController {
      * @param description Test description
      */
     private void success(TestControllerConfiguration configuration, Description description) {
+        if (metrics != null) {
+            metrics.success();
+        }
+
         for (Listener listener : configuration.getListeners()) {
             listener.success(description);
         }
     }
+
+    /**
+     * Factory of named daemon threads
+     */
+    private static class DaemonThreadFactory implements ThreadFactory {
+        private final String prefix;
+        private final AtomicInteger counter = new AtomicInteger();
+
+        DaemonThreadFactory(String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+    /**
+     * Measure of the consecutive phases of a test in the thread that runs them: the elapsed time, the CPU time and the
+     * allocated memory
+     */
+    private static class PhaseMeter {
+        private long start;
+        private long cpuStart;
+        private long allocationStart;
+
+        PhaseMeter() {
+            restart();
+        }
+
+        /**
+         * Start a new phase
+         */
+        void restart() {
+            cpuStart = ThreadResources.getCpuTime();
+            allocationStart = ThreadResources.getAllocatedBytes();
+            start = System.nanoTime();
+        }
+
+        /**
+         * Record the measures of the phase that ends, the next phase starts
+         *
+         * @param description The test description
+         * @param phase The phase that ends
+         */
+        void end(Description description, TestPhase phase) {
+            long end = System.nanoTime();
+            long cpu = ThreadResources.getCpuTime();
+            long allocation = ThreadResources.getAllocatedBytes();
+
+            description.setPhaseDuration(phase, end - start);
+            description.setPhaseCpuTime(phase, cpu == ThreadResources.UNSUPPORTED ? ThreadResources.UNSUPPORTED : cpu - cpuStart);
+            description.setPhaseAllocatedBytes(phase, allocation == ThreadResources.UNSUPPORTED ? ThreadResources.UNSUPPORTED : allocation - allocationStart);
+
+            start = end;
+            cpuStart = cpu;
+            allocationStart = allocation;
+        }
+    }
+
+    /**
+     * Worker that runs the tasks of a queue until it is empty
+     */
+    private static class Worker implements Runnable {
+        private final Queue<Runnable> tasks;
+        private final AtomicReference<Throwable> failure;
+        private final AtomicBoolean claimed = new AtomicBoolean();
+
+        Worker(Queue<Runnable> tasks, AtomicReference<Throwable> failure) {
+            this.tasks = tasks;
+            this.failure = failure;
+        }
+
+        /**
+         * Claim the worker to run it, a worker can be claimed only once
+         *
+         * @return True if the worker was not claimed before
+         */
+        boolean claim() {
+            return claimed.compareAndSet(false, true);
+        }
+
+        @Override
+        public void run() {
+            if (!claim()) {
+                return;
+            }
+
+            Runnable task;
+            while ((task = tasks.poll()) != null) {
+                try {
+                    task.run();
+                } catch (Throwable t) {
+                    // Stop the other workers as soon as possible, as the sequential run would do
+                    failure.compareAndSet(null, t);
+                    tasks.clear();
+                }
+            }
+        }
+    }
 }
@@ -0,0 +1,27 @@
+package io.probedock.jee.itf;
+
+import java.sql.Connection;
+
+/**
+ * A test group whose tests are isolated by JDBC savepoints instead of a main transaction
+ * per test. The group provides the connection used by its fixtures and by the code under
+ * test, the transaction of the connection lasts as long as the tests of the group run.
+ * <p/>
+ * The setup methods for each test in the main transaction (BEFORE_EACH_IN_MAIN_TX and
+ * AFTER_EACH_IN_MAIN_TX) run only once for the whole group. Each test runs between a
+ * savepoint and a rollback to this savepoint, the whole transaction is rolled back once
+ * all the tests ran. The tests of the group never run in parallel as they share the
+ * connection.
+ * 
+ * @author Laurent Prevost <laurent.prevost@probedock.io>
+ */
+public interface SavepointTestGroup extends TestGroup {
+	/**
+	 * The connection is retrieved once each time the group runs, its auto-commit mode is
+	 * disabled while the tests run. Once the tests ran, even when they failed, the connection
+	 * is rolled back, its auto-commit mode is restored and it is closed.
+	 * 
+	 * @return The connection used by the fixtures and the tests of the group
+	 */
+	Connection getSavepointConnection();
+}
@@ -0,0 +1,27 @@
+package io.probedock.jee.itf;
+
+import javax.sql.DataSource;
+
+/**
+ * A test group whose tables are restored once all its tests ran. The rows of the declared
+ * tables are captured before the setup methods for all the tests and restored after the
+ * teardown methods for all the tests, which removes the data committed by the setup methods
+ * out of the main transaction and by the tests annotated with
+ * {@link io.probedock.jee.itf.annotations.NoRollback}.
+ * <p/>
+ * The group runs like a group annotated with {@link io.probedock.jee.itf.annotations.Sequential},
+ * never at the same time than another group.
+ * 
+ * @author Laurent Prevost <laurent.prevost@probedock.io>
+ */
+public interface SnapshotTestGroup extends TestGroup {
+	/**
+	 * @return The data source to read and restore the tables, used out of any transaction
+	 */
+	DataSource getSnapshotDataSource();
+
+	/**
+	 * @return The names of the tables to restore, the referenced tables first
+	 */
+	String[] getSnapshotTables();
+}
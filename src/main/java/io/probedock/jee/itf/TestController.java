@@ -20,4 +20,15 @@ public interface TestController {
 	 * @return The seed used for the test run
    */
 	Long run(Map<String, Filter> filters, Map<String, Listener> listeners, Long seed);
+
+	/**
+	 * Launch the master controller to run every integration test with specific run options
+	 * 
+	 * @param filters Map of wanted filters, if null or empty, default filter is used
+	 * @param listeners Map of wanted listeners, if null or empty, default listener is used
+	 * @param seed The seed to create the random generator, if null or negative, a seed == to System.currentTime() is used
+	 * @param options The options to tune the test run, if null the default options are used
+	 * @return The seed used for the test run
+	 */
+	Long run(Map<String, Filter> filters, Map<String, Listener> listeners, Long seed, TestRunOptions options);
 }
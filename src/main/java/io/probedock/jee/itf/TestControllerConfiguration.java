@@ -4,8 +4,10 @@ import io.probedock.jee.itf.filters.DefaultFilter;
 import io.probedock.jee.itf.filters.Filter;
 import io.probedock.jee.itf.listeners.DefaultListener;
 import io.probedock.jee.itf.listeners.Listener;
+import io.probedock.jee.itf.listeners.ListenerEventBus;
 import io.probedock.jee.itf.model.TestGroupDefinition;
 import io.probedock.jee.itf.rest.FilterDefinitionTO;
+import io.probedock.jee.itf.scheduling.DurationHistory;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -32,11 +34,26 @@ public final class TestControllerConfiguration {
 	 */
 	private Map<String, Listener> listeners = new HashMap<>();
 	private Map<String, Filter> filters = new HashMap<>();
+
+	/**
+	 * Event bus that notifies the listeners asynchronously, null when they are notified by the test threads
+	 */
+	private ListenerEventBus eventBus;
+
+	/**
+	 * Durations of the previous runs, null when the durations are not recorded
+	 */
+	private DurationHistory durationHistory;
 	
 	/**
 	 * Random generator
 	 */
 	private Random rand;
+
+	/**
+	 * Options of the test run
+	 */
+	private TestRunOptions options = new TestRunOptions();
 	
 	/**
 	 * Enforce the creation of the object from the test controller
@@ -54,6 +71,18 @@ public final class TestControllerConfiguration {
 		
 		this.rand = rand;
 	}
+
+	public TestRunOptions getOptions() {
+		return options;
+	}
+
+	public void setOptions(TestRunOptions options) {
+		if (options == null) {
+			throw new IllegalArgumentException("You must provide valid test run options");
+		}
+
+		this.options = options;
+	}
 	
 	/**
 	 * Register a listener to manage the result of the tests
@@ -117,12 +146,37 @@ public final class TestControllerConfiguration {
 	}
 	
 	/**
-	 * @return The list of listeners
+	 * @return The list of listeners, only the event bus when the listeners are notified asynchronously
 	 */
 	protected Collection<Listener> getListeners() {
+		if (eventBus != null) {
+			return Collections.<Listener>singletonList(eventBus);
+		}
+
 		return listeners.values();
 	}
+
+	protected ListenerEventBus getEventBus() {
+		return eventBus;
+	}
+
+	/**
+	 * Notify the registered listeners through an event bus
+	 *
+	 * @param eventBus The event bus created from the registered listeners
+	 */
+	protected void setEventBus(ListenerEventBus eventBus) {
+		this.eventBus = eventBus;
+	}
 	
+	protected DurationHistory getDurationHistory() {
+		return durationHistory;
+	}
+
+	protected void setDurationHistory(DurationHistory durationHistory) {
+		this.durationHistory = durationHistory;
+	}
+
 	/**
 	 * @return The list of filters
 	 */
@@ -0,0 +1,179 @@
+package io.probedock.jee.itf;
+
+import io.probedock.jee.itf.listeners.BackpressurePolicy;
+import io.probedock.jee.itf.listeners.ListenerEventBus;
+import io.probedock.jee.itf.scheduling.DurationHistory;
+import io.probedock.jee.itf.scheduling.ShardStrategy;
+
+/**
+ * Options to tune the way a test run is executed by the {@link TestController}.
+ * <p/>
+ * The default values reproduce the historical behavior: everything runs sequentially
+ * in the thread that called the controller.
+ *
+ * @author Laurent Prevost <laurent.prevost@probedock.io>
+ */
+public class TestRunOptions {
+	/**
+	 * Maximum number of test groups that can run at the same time. A value lower or
+	 * equal to one runs the groups one after the other.
+	 */
+	private int groupParallelism = 1;
+
+	/**
+	 * Maximum number of tests of the same group that can run at the same time. A value
+	 * lower or equal to one runs the tests of a group one after the other.
+	 */
+	private int testParallelism = 1;
+
+	/**
+	 * Notify the listeners asynchronously through a {@link ListenerEventBus}
+	 */
+	private boolean asyncListeners = false;
+
+	/**
+	 * Number of events that each listener can have in its buffer when notified asynchronously
+	 */
+	private int listenerBufferSize = ListenerEventBus.DEFAULT_BUFFER_SIZE;
+
+	/**
+	 * Behavior when the buffer of a listener is full
+	 */
+	private BackpressurePolicy listenerBackpressure = BackpressurePolicy.BLOCK;
+
+	/**
+	 * Start the longest test groups and tests first based on the durations of the previous
+	 * runs, instead of keeping the shuffled order only. Useful when the tests run in parallel.
+	 */
+	private boolean longestFirst = false;
+
+	/**
+	 * Index of the shard to run, from zero to the number of shards excluded
+	 */
+	private int shardIndex = 0;
+
+	/**
+	 * Number of shards the tests are split into. Each shard runs its own part of the tests.
+	 */
+	private int shardCount = 1;
+
+	/**
+	 * Strategy to assign the tests to the shards
+	 */
+	private ShardStrategy shardStrategy = ShardStrategy.HASH;
+
+	/**
+	 * Durations used to assign the tests with {@link ShardStrategy#DURATION}, they must be the
+	 * same for every shard. When null, the tests are assigned with {@link ShardStrategy#HASH}
+	 * as the history of each node only records its own runs.
+	 */
+	private DurationHistory shardDurations;
+
+	/**
+	 * Maximum duration in milliseconds of the main transaction of the tests that do not define
+	 * their own timeout. Zero for no maximum.
+	 */
+	private long defaultTimeoutMs = 0;
+
+	/**
+	 * Run the setup methods before and after each test out of its main transaction in one
+	 * transaction each, instead of one transaction per setup phase.
+	 */
+	private boolean mergeSetupTransactions = false;
+
+	public int getGroupParallelism() {
+		return groupParallelism;
+	}
+
+	public void setGroupParallelism(int groupParallelism) {
+		this.groupParallelism = groupParallelism;
+	}
+
+	public int getTestParallelism() {
+		return testParallelism;
+	}
+
+	public void setTestParallelism(int testParallelism) {
+		this.testParallelism = testParallelism;
+	}
+
+	public boolean isAsyncListeners() {
+		return asyncListeners;
+	}
+
+	public void setAsyncListeners(boolean asyncListeners) {
+		this.asyncListeners = asyncListeners;
+	}
+
+	public int getListenerBufferSize() {
+		return listenerBufferSize;
+	}
+
+	public void setListenerBufferSize(int listenerBufferSize) {
+		this.listenerBufferSize = listenerBufferSize;
+	}
+
+	public BackpressurePolicy getListenerBackpressure() {
+		return listenerBackpressure;
+	}
+
+	public void setListenerBackpressure(BackpressurePolicy listenerBackpressure) {
+		this.listenerBackpressure = listenerBackpressure;
+	}
+
+	public boolean isLongestFirst() {
+		return longestFirst;
+	}
+
+	public void setLongestFirst(boolean longestFirst) {
+		this.longestFirst = longestFirst;
+	}
+
+	public int getShardIndex() {
+		return shardIndex;
+	}
+
+	public void setShardIndex(int shardIndex) {
+		this.shardIndex = shardIndex;
+	}
+
+	public int getShardCount() {
+		return shardCount;
+	}
+
+	public void setShardCount(int shardCount) {
+		this.shardCount = shardCount;
+	}
+
+	public ShardStrategy getShardStrategy() {
+		return shardStrategy;
+	}
+
+	public void setShardStrategy(ShardStrategy shardStrategy) {
+		this.shardStrategy = shardStrategy;
+	}
+
+	public DurationHistory getShardDurations() {
+		return shardDurations;
+	}
+
+	public void setShardDurations(DurationHistory shardDurations) {
+		this.shardDurations = shardDurations;
+	}
+
+	public long getDefaultTimeoutMs() {
+		return defaultTimeoutMs;
+	}
+
+	public void setDefaultTimeoutMs(long defaultTimeoutMs) {
+		this.defaultTimeoutMs = defaultTimeoutMs;
+	}
+
+	public boolean isMergeSetupTransactions() {
+		return mergeSetupTransactions;
+	}
+
+	public void setMergeSetupTransactions(boolean mergeSetupTransactions) {
+		this.mergeSetupTransactions = mergeSetupTransactions;
+	}
+}
@@ -0,0 +1,87 @@
+package io.probedock.jee.itf;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Interrupt the tests that run longer than their timeout. A single thread watches all the
+ * tests of a run, it is started when the first test is watched.
+ * <p/>
+ * The interruption aborts the tests that wait on a lock, a sleep or an interruptible I/O. The
+ * other tests are only detected once they are done.
+ *
+ * @author Laurent Prevost <laurent.prevost@probedock.io>
+ */
+class TestWatchdog {
+	private final ScheduledThreadPoolExecutor executor;
+
+	/**
+	 * Constructor
+	 *
+	 * @param threadFactory The factory of the thread that watches the tests
+	 */
+	TestWatchdog(ThreadFactory threadFactory) {
+		executor = new ScheduledThreadPoolExecutor(1, threadFactory);
+		executor.setRemoveOnCancelPolicy(true);
+	}
+
+	/**
+	 * Start to watch the current thread
+	 *
+	 * @param timeout The time after which the thread is interrupted in milliseconds
+	 * @return The watch to stop once the watched work is done
+	 */
+	Watch watch(long timeout) {
+		Watch watch = new Watch(Thread.currentThread());
+		watch.future = executor.schedule(watch, timeout, TimeUnit.MILLISECONDS);
+		return watch;
+	}
+
+	/**
+	 * Stop the thread that watches the tests
+	 */
+	void close() {
+		executor.shutdownNow();
+	}
+
+	/**
+	 * Watch of a thread, interrupts the thread when it expires
+	 */
+	static class Watch implements Runnable {
+		private final Thread thread;
+		private ScheduledFuture<?> future;
+		private boolean stopped;
+		private boolean expired;
+
+		private Watch(Thread thread) {
+			this.thread = thread;
+		}
+
+		@Override
+		public synchronized void run() {
+			if (!stopped) {
+				expired = true;
+				thread.interrupt();
+			}
+		}
+
+		/**
+		 * Stop to watch the thread, must be called by the watched thread. The interruption of the
+		 * watchdog is cleared.
+		 *
+		 * @return True if the watch expired before it is stopped
+		 */
+		synchronized boolean stop() {
+			stopped = true;
+			future.cancel(false);
+
+			if (expired) {
+				Thread.interrupted();
+			}
+
+			return expired;
+		}
+	}
+}
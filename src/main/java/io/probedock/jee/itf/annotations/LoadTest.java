@@ -0,0 +1,52 @@
+package io.probedock.jee.itf.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Annotation to run a test as a load test. The annotated method must also be annotated
+ * with {@link Test}.
+ * <p/>
+ * The test method is invoked in loop by concurrent callers for a duration, each invocation
+ * in its own main transaction with the setup methods of the main transaction. The callers run from the executor service of the test controller
+ * and start one after the other during the ramp up. The throughput, the error rate and the
+ * latencies are added to the data of the test, the test fails when one of its objectives
+ * is not met.
+ *
+ * @author Laurent Prevost <laurent.prevost@probedock.io>
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface LoadTest {
+	/**
+	 * @return The number of concurrent callers
+	 */
+	int threads() default 4;
+
+	/**
+	 * @return The duration of the load in milliseconds, ramp up included
+	 */
+	long durationMs() default 10000;
+
+	/**
+	 * @return The time to start all the callers in milliseconds
+	 */
+	long rampUpMs() default 0;
+
+	/**
+	 * @return The maximum 99th percentile latency in milliseconds, zero for no maximum
+	 */
+	double maxP99() default 0;
+
+	/**
+	 * @return The maximum ratio of failed invocations, between 0 and 1
+	 */
+	double maxErrorRate() default 0;
+
+	/**
+	 * @return The minimum number of invocations per second, zero for no minimum
+	 */
+	double minThroughput() default 0;
+}
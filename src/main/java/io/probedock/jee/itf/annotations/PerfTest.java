@@ -0,0 +1,43 @@
+package io.probedock.jee.itf.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Annotation to run a test as a performance test. The annotated method must also be
+ * annotated with {@link Test}.
+ * <p/>
+ * The test method is invoked a number of warmup times then a number of measured times.
+ * The min, mean, percentiles and max latencies of the measured invocations are added to
+ * the data of the test in milliseconds. The test fails as soon as an invocation fails or
+ * when the 99th percentile exceeds the threshold.
+ *
+ * @author Laurent Prevost <laurent.prevost@probedock.io>
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface PerfTest {
+	/**
+	 * @return The number of measured invocations
+	 */
+	int iterations() default 100;
+
+	/**
+	 * @return The number of invocations before the measured ones
+	 */
+	int warmup() default 10;
+
+	/**
+	 * @return True to run each invocation in its own main transaction with the setup methods of
+	 * the main transaction, false to run all the invocations in the same main transaction. In both
+	 * cases only the test method is measured.
+	 */
+	boolean transactionPerIteration() default false;
+
+	/**
+	 * @return The maximum 99th percentile latency in milliseconds, zero for no maximum
+	 */
+	double maxP99() default 0;
+}
@@ -0,0 +1,22 @@
+package io.probedock.jee.itf.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Annotation to mark a test group that must never run concurrently with
+ * another test group, typically because it shares mutable fixtures with
+ * other groups or between its own tests.
+ * <p/>
+ * When a test run is configured to run groups in parallel, the annotated
+ * groups are run one after the other once the parallel groups are done.
+ * The tests of the annotated groups are never run in parallel.
+ *
+ * @author Laurent Prevost <laurent.prevost@probedock.io>
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface Sequential {
+}
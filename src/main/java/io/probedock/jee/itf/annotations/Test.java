@@ -18,4 +18,16 @@ public @interface Test {
 	 * not change when a method name is refactored
 	 */
 	String setupKey() default "";
+
+	/**
+	 * @return The maximum duration of the main transaction of the test in milliseconds. Zero to use
+	 * the default timeout of the test run.
+	 */
+	long timeoutMs() default 0;
+
+	/**
+	 * @return The maximum number of statements executed in the main transaction of the test
+	 * through an instrumented data source. Negative for no maximum.
+	 */
+	int maxQueries() default -1;
 }
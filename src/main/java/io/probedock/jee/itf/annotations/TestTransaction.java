@@ -0,0 +1,25 @@
+package io.probedock.jee.itf.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Annotation to define the transaction policy of the main transaction of the tests. On a test
+ * group, it applies to all the tests of the group. On a test method, it overrides the policy of
+ * the group. The tests without policy use {@link TransactionPolicy#REQUIRED}.
+ * <p/>
+ * The setup methods out of the main transaction and the ones for all the tests keep their own
+ * transactions whatever the policy.
+ *
+ * @author Laurent Prevost <laurent.prevost@probedock.io>
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface TestTransaction {
+	/**
+	 * @return The transaction policy
+	 */
+	TransactionPolicy value();
+}
@@ -0,0 +1,26 @@
+package io.probedock.jee.itf.annotations;
+
+/**
+ * Define how the main transaction of a test is handled, see {@link TestTransaction}
+ * 
+ * @author Laurent Prevost <laurent.prevost@probedock.io>
+ */
+public enum TransactionPolicy {
+	/**
+	 * The test and the setup methods of its main transaction run in a transaction that is
+	 * rolled back, or committed when the test is annotated with {@link NoRollback}
+	 */
+	REQUIRED,
+
+	/**
+	 * The test and the setup methods of its main transaction run without transaction, the
+	 * user transaction is never used
+	 */
+	NONE,
+
+	/**
+	 * The test and the setup methods of its main transaction run in a transaction that is
+	 * always rolled back, even when the test is annotated with {@link NoRollback}
+	 */
+	READ_ONLY
+}
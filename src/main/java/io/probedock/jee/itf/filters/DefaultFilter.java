@@ -6,18 +6,32 @@ import io.probedock.jee.itf.rest.FilterDefinitionTO;
 import java.util.List;
 
 /**
- * A default implementation of {@link Filter}
+ * A default implementation of {@link Filter}. The filter definitions are compiled once
+ * in a {@link FilterIndex}, a test is runnable when at least one filter matches it.
  * 
  * @author Laurent Prevost <laurent.prevost@probedock.io>
  */
 public class DefaultFilter implements Filter {
 	/**
-	 * Define the filters to apply
+	 * Define the filters to apply, compiled in the index
 	 */
-	protected List<FilterDefinitionTO> filters;
+	private final List<FilterDefinitionTO> filters;
+
+	/**
+	 * The compiled filters
+	 */
+	private final FilterIndex index;
 	
 	public DefaultFilter(List<FilterDefinitionTO> filters) {
 		this.filters = filters;
+		this.index = new FilterIndex(filters);
+	}
+
+	/**
+	 * @return The filters to apply, changing them has no effect once the filter is created
+	 */
+	public List<FilterDefinitionTO> getFilters() {
+		return filters;
 	}
 	
 	@Override
@@ -27,20 +41,9 @@ public class DefaultFilter implements Filter {
 			return false;
 		}
 		
-		// No filters defined
-		else if (filters == null || filters.size() == 0) {
-			return true;
-		}
-
-		// Check filters
+		// Check filters, no filters defined means that every test matches
 		else {
-			for (FilterDefinitionTO filter : filters) {
-				if (description.getSimpleName().contains(filter.getText())) {
-					return true;
-				}
-			}
-
-			return false;
+			return index.matches(description);
 		}
 	}
 }
@@ -0,0 +1,149 @@
+package io.probedock.jee.itf.filters;
+
+import io.probedock.jee.itf.model.Description;
+import io.probedock.jee.itf.model.ProbeTestMetadata;
+import io.probedock.jee.itf.rest.FilterDefinitionTO;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Filter definitions compiled once per run in indexes by filter type. A test matches when
+ * at least one filter matches it.
+ * <p/>
+ * The key, tag, ticket and fingerprint filters are looked up in hash sets. The name filters
+ * are searched in the test method name in a single scan whatever the number of filters. The
+ * {@code *} type matches any of the other types. A filter without type or with an unknown
+ * type is a name filter.
+ * 
+ * @author Laurent Prevost <laurent.prevost@probedock.io>
+ */
+public class FilterIndex {
+	private static final Log LOGGER = LogFactory.getLog(FilterIndex.class);
+
+	public static final String TYPE_ANY = "*";
+	public static final String TYPE_KEY = "key";
+	public static final String TYPE_NAME = "name";
+	public static final String TYPE_FINGERPRINT = "fingerprint";
+	public static final String TYPE_TAG = "tag";
+	public static final String TYPE_TICKET = "ticket";
+
+	private final Set<String> keys = new HashSet<>();
+	private final Set<String> tags = new HashSet<>();
+	private final Set<String> tickets = new HashSet<>();
+	private final Set<String> fingerprints = new HashSet<>();
+	private final SubstringMatcher names;
+
+	/**
+	 * True when no filter is defined
+	 */
+	private final boolean empty;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param filters The filter definitions to compile, can be null
+	 */
+	public FilterIndex(List<FilterDefinitionTO> filters) {
+		List<String> namePatterns = new ArrayList<>();
+
+		if (filters != null) {
+			for (FilterDefinitionTO filter : filters) {
+				String text = filter.getText() == null ? "" : filter.getText();
+				String type = filter.getType() == null ? "" : filter.getType().toLowerCase();
+
+				switch (type) {
+					case TYPE_ANY:
+						keys.add(text);
+						tags.add(text);
+						tickets.add(text);
+						fingerprints.add(text);
+						namePatterns.add(text);
+						break;
+					case TYPE_KEY:
+						keys.add(text);
+						break;
+					case TYPE_TAG:
+						tags.add(text);
+						break;
+					case TYPE_TICKET:
+						tickets.add(text);
+						break;
+					case TYPE_FINGERPRINT:
+						fingerprints.add(text);
+						break;
+					case TYPE_NAME:
+					case "":
+						namePatterns.add(text);
+						break;
+					default:
+						LOGGER.warn("Unknown filter type [" + filter.getType() + "], the filter [" + text + "] is applied to the test name.");
+						namePatterns.add(text);
+				}
+			}
+		}
+
+		names = new SubstringMatcher(namePatterns);
+		empty = filters == null || filters.isEmpty();
+	}
+
+	/**
+	 * @return True when no filter is defined, every test matches
+	 */
+	public boolean isEmpty() {
+		return empty;
+	}
+
+	/**
+	 * @param description The description of the test
+	 * @return True if at least one filter matches the test
+	 */
+	public boolean matches(Description description) {
+		if (empty) {
+			return true;
+		}
+
+		if (names.matches(description.getSimpleName())) {
+			return true;
+		}
+
+		if (keys.isEmpty() && tags.isEmpty() && tickets.isEmpty() && fingerprints.isEmpty()) {
+			return false;
+		}
+
+		ProbeTestMetadata metadata = description.getProbeMetadata();
+
+		if (metadata.getKey() != null && keys.contains(metadata.getKey())) {
+			return true;
+		}
+
+		if (!tags.isEmpty() && intersects(tags, metadata.getTags())) {
+			return true;
+		}
+
+		if (!tickets.isEmpty() && intersects(tickets, metadata.getTickets())) {
+			return true;
+		}
+
+		return !fingerprints.isEmpty() && fingerprints.contains(metadata.getFingerprint());
+	}
+
+	/**
+	 * @param index The index
+	 * @param values The values of the test, usually a few
+	 * @return True if one of the values is in the index
+	 */
+	private static boolean intersects(Set<String> index, Set<String> values) {
+		for (String value : values) {
+			if (index.contains(value)) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+}
@@ -0,0 +1,109 @@
+package io.probedock.jee.itf.filters;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+
+/**
+ * Aho-Corasick automaton that checks if a text contains at least one of the patterns.
+ * The text is scanned once whatever the number of patterns.
+ * 
+ * @author Laurent Prevost <laurent.prevost@probedock.io>
+ */
+class SubstringMatcher {
+	private final Node root = new Node();
+
+	/**
+	 * An empty pattern is contained in every text
+	 */
+	private boolean matchesEverything;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param patterns The patterns to search
+	 */
+	SubstringMatcher(Collection<String> patterns) {
+		for (String pattern : patterns) {
+			if (pattern.isEmpty()) {
+				matchesEverything = true;
+			}
+
+			Node node = root;
+			for (int i = 0; i < pattern.length(); i++) {
+				Node child = node.children.get(pattern.charAt(i));
+				if (child == null) {
+					child = new Node();
+					node.children.put(pattern.charAt(i), child);
+				}
+				node = child;
+			}
+			node.terminal = true;
+		}
+
+		// Build the failure links breadth first
+		Queue<Node> queue = new ArrayDeque<>();
+		for (Node child : root.children.values()) {
+			child.failure = root;
+			queue.add(child);
+		}
+
+		while (!queue.isEmpty()) {
+			Node node = queue.poll();
+
+			for (Map.Entry<Character, Node> entry : node.children.entrySet()) {
+				Node child = entry.getValue();
+				Node failure = node.failure;
+
+				while (failure != null && !failure.children.containsKey(entry.getKey())) {
+					failure = failure.failure;
+				}
+
+				child.failure = failure == null ? root : failure.children.get(entry.getKey());
+				child.terminal |= child.failure.terminal;
+				queue.add(child);
+			}
+		}
+	}
+
+	/**
+	 * @param text The text to scan
+	 * @return True if the text contains at least one pattern
+	 */
+	boolean matches(String text) {
+		if (matchesEverything) {
+			return true;
+		}
+
+		Node node = root;
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+
+			while (node != root && !node.children.containsKey(c)) {
+				node = node.failure;
+			}
+
+			Node next = node.children.get(c);
+			if (next != null) {
+				node = next;
+
+				if (node.terminal) {
+					return true;
+				}
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Node of the automaton
+	 */
+	private static class Node {
+		private final Map<Character, Node> children = new HashMap<>();
+		private Node failure;
+		private boolean terminal;
+	}
+}
@@ -0,0 +1,23 @@
+package io.probedock.jee.itf.invokers;
+
+import io.probedock.jee.itf.model.Description;
+
+import java.lang.reflect.InvocationTargetException;
+
+/**
+ * A method bound by an {@link Invoker}
+ *
+ * @author Laurent Prevost <laurent.prevost@probedock.io>
+ */
+public interface Invocation {
+	/**
+	 * Invoke the bound method
+	 *
+	 * @param target The object on which the method is invoked
+	 * @param description The description given to a test method, ignored for a setup method
+	 * @return The value returned by the method, null for a setup method
+	 * @throws InvocationTargetException When the method throws an exception, the exception is the cause
+	 * @throws IllegalAccessException When the method cannot be accessed
+	 */
+	Object invoke(Object target, Description description) throws InvocationTargetException, IllegalAccessException;
+}
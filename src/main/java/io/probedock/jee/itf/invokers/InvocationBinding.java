@@ -0,0 +1,57 @@
+package io.probedock.jee.itf.invokers;
+
+import java.lang.reflect.Method;
+
+/**
+ * Keep the invocation of a method bound by the last invoker used. The method is bound
+ * again only when a different invoker is requested.
+ *
+ * @author Laurent Prevost <laurent.prevost@probedock.io>
+ */
+public final class InvocationBinding {
+	private final Method method;
+
+	/**
+	 * Last binding, replaced as a whole to stay consistent between threads
+	 */
+	private volatile Bound bound;
+
+	/**
+	 * Constructor
+	 *
+	 * @param method The method to bind
+	 */
+	public InvocationBinding(Method method) {
+		this.method = method;
+	}
+
+	/**
+	 * Retrieve the invocation bound with the invoker
+	 *
+	 * @param invoker The invoker
+	 * @return The invocation
+	 */
+	public Invocation get(Invoker invoker) {
+		Bound current = bound;
+
+		if (current == null || !current.invoker.equals(invoker)) {
+			current = new Bound(invoker, invoker.bind(method));
+			bound = current;
+		}
+
+		return current.invocation;
+	}
+
+	/**
+	 * An invocation with the invoker that created it
+	 */
+	private static class Bound {
+		private final Invoker invoker;
+		private final Invocation invocation;
+
+		Bound(Invoker invoker, Invocation invocation) {
+			this.invoker = invoker;
+			this.invocation = invocation;
+		}
+	}
+}
@@ -0,0 +1,91 @@
+package io.probedock.jee.itf.invokers;
+
+import io.probedock.jee.itf.model.Description;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Measure the overhead of an invoker by invoking empty setup and test methods. The
+ * measure is done once per invoker and kept for the lifetime of the application.
+ *
+ * @author Laurent Prevost <laurent.prevost@probedock.io>
+ */
+public final class InvocationOverhead {
+	private static final int WARMUP_ITERATIONS = 20000;
+	private static final int ITERATIONS = 20000;
+
+	/**
+	 * Measured overheads in nanoseconds by invoker
+	 */
+	private static final ConcurrentMap<Invoker, Long> OVERHEADS = new ConcurrentHashMap<>();
+
+	private InvocationOverhead() {}
+
+	/**
+	 * Retrieve the mean overhead of an invoker, it is measured the first time.
+	 *
+	 * @param invoker The invoker
+	 * @return The mean overhead of one invocation in nanoseconds
+	 */
+	public static long of(Invoker invoker) {
+		Long overhead = OVERHEADS.get(invoker);
+
+		if (overhead == null) {
+			overhead = measure(invoker);
+			OVERHEADS.putIfAbsent(invoker, overhead);
+		}
+
+		return overhead;
+	}
+
+	/**
+	 * Measure the mean overhead of an invoker
+	 *
+	 * @param invoker The invoker
+	 * @return The mean overhead of one invocation in nanoseconds
+	 */
+	private static long measure(Invoker invoker) {
+		Invocation setup;
+		Invocation test;
+
+		try {
+			setup = invoker.bind(Calibration.class.getMethod("setup"));
+			test = invoker.bind(Calibration.class.getMethod("test", Description.class));
+		}
+		catch (NoSuchMethodException nsme) {
+			throw new IllegalStateException("The calibration methods are missing", nsme);
+		}
+
+		Calibration target = new Calibration();
+
+		try {
+			for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+				setup.invoke(target, null);
+				test.invoke(target, null);
+			}
+
+			long start = System.nanoTime();
+			for (int i = 0; i < ITERATIONS; i++) {
+				setup.invoke(target, null);
+				test.invoke(target, null);
+			}
+
+			return (System.nanoTime() - start) / (2 * ITERATIONS);
+		}
+		catch (Exception e) {
+			throw new IllegalStateException("Unable to measure the overhead of the invoker " + invoker.getClass().getName(), e);
+		}
+	}
+
+	/**
+	 * Empty methods used to measure the overhead
+	 */
+	public static class Calibration {
+		public void setup() {}
+
+		public Description test(Description description) {
+			return description;
+		}
+	}
+}
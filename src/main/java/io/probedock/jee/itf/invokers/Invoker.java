@@ -0,0 +1,24 @@
+package io.probedock.jee.itf.invokers;
+
+import java.lang.reflect.Method;
+
+/**
+ * An invoker binds the test and setup methods once to invoke them many times
+ * with the lowest possible overhead.
+ * <p/>
+ * Invokers are compared with {@link Object#equals(Object)} to know if a method
+ * bound with one invoker can be reused with another one. Stateless invokers
+ * should therefore be equal when they are of the same class.
+ *
+ * @author Laurent Prevost <laurent.prevost@probedock.io>
+ */
+public interface Invoker {
+	/**
+	 * Bind a method to invoke it later. The method is either a setup method
+	 * without parameter or a test method with a description as parameter.
+	 *
+	 * @param method The method to bind
+	 * @return The invocation ready to be run
+	 */
+	Invocation bind(Method method);
+}
@@ -0,0 +1,85 @@
+package io.probedock.jee.itf.invokers;
+
+import io.probedock.jee.itf.model.Description;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Invoker that resolves a {@link MethodHandle} once per method. The handle is adapted
+ * to a single exact type for the setup and test methods, this avoids the arguments
+ * array, the access checks and the boxing done by the reflection on each call.
+ * <p/>
+ * When a method cannot be bound to a method handle, the invoker falls back to the
+ * reflection.
+ *
+ * @author Laurent Prevost <laurent.prevost@probedock.io>
+ */
+public class MethodHandleInvoker implements Invoker {
+	private static final Log LOGGER = LogFactory.getLog(MethodHandleInvoker.class);
+
+	/**
+	 * The type every handle is adapted to: (target, description) -> result
+	 */
+	private static final MethodType INVOCATION_TYPE = MethodType.methodType(Object.class, Object.class, Description.class);
+
+	private final ReflectionInvoker fallback = new ReflectionInvoker();
+
+	@Override
+	public Invocation bind(Method method) {
+		MethodHandle handle;
+
+		try {
+			method.setAccessible(true);
+			handle = MethodHandles.lookup().unreflect(method);
+		}
+		catch (IllegalAccessException | SecurityException e) {
+			LOGGER.warn("Unable to bind the method " + method.getName() + " to a method handle, reflection will be used.", e);
+			return fallback.bind(method);
+		}
+
+		// Setup methods do not take the description
+		if (method.getParameterTypes().length == 0) {
+			handle = MethodHandles.dropArguments(handle, 1, Description.class);
+		}
+
+		return new MethodHandleInvocation(handle.asType(INVOCATION_TYPE));
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		return obj != null && obj.getClass() == getClass();
+	}
+
+	@Override
+	public int hashCode() {
+		return getClass().hashCode();
+	}
+
+	/**
+	 * Invocation through an exact method handle
+	 */
+	private static class MethodHandleInvocation implements Invocation {
+		private final MethodHandle handle;
+
+		MethodHandleInvocation(MethodHandle handle) {
+			this.handle = handle;
+		}
+
+		@Override
+		public Object invoke(Object target, Description description) throws InvocationTargetException {
+			try {
+				return (Object) handle.invokeExact(target, description);
+			}
+			catch (Throwable t) {
+				throw new InvocationTargetException(t);
+			}
+		}
+	}
+}
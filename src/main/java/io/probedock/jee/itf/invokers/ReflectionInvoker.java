@@ -0,0 +1,45 @@
+package io.probedock.jee.itf.invokers;
+
+import io.probedock.jee.itf.model.Description;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * Invoker that relies on {@link Method#invoke(Object, Object...)}
+ *
+ * @author Laurent Prevost <laurent.prevost@probedock.io>
+ */
+public class ReflectionInvoker implements Invoker {
+	private static final Object[] NO_ARGUMENTS = new Object[0];
+
+	@Override
+	public Invocation bind(final Method method) {
+		if (method.getParameterTypes().length == 0) {
+			return new Invocation() {
+				@Override
+				public Object invoke(Object target, Description description) throws InvocationTargetException, IllegalAccessException {
+					return method.invoke(target, NO_ARGUMENTS);
+				}
+			};
+		}
+		else {
+			return new Invocation() {
+				@Override
+				public Object invoke(Object target, Description description) throws InvocationTargetException, IllegalAccessException {
+					return method.invoke(target, description);
+				}
+			};
+		}
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		return obj != null && obj.getClass() == getClass();
+	}
+
+	@Override
+	public int hashCode() {
+		return getClass().hashCode();
+	}
+}
@@ -0,0 +1,179 @@
+package io.probedock.jee.itf.jdbc;
+
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.logging.Logger;
+import javax.sql.DataSource;
+
+/**
+ * Data source that records the statements executed through it in the {@link SqlStatistics}
+ * of the test in progress. The connections, statements and result sets of the wrapped data
+ * source are wrapped as well to count the statements, the rows fetched and the time spent
+ * in the JDBC driver.
+ * <p/>
+ * The data source must be the one used by the code under test, for example by producing it
+ * instead of the data source of the container. The statements are recorded only by the
+ * threads that run a test of a controller that records them, see
+ * {@code AbstractTestController#isSqlRecorded()}, the other ones only pay for a thread local lookup.
+ *
+ * @author Laurent Prevost <laurent.prevost@probedock.io>
+ */
+public class InstrumentedDataSource implements DataSource {
+	private final DataSource dataSource;
+
+	/**
+	 * Constructor
+	 *
+	 * @param dataSource The data source to instrument
+	 */
+	public InstrumentedDataSource(DataSource dataSource) {
+		if (dataSource == null) {
+			throw new IllegalArgumentException("You must provide a valid data source to instrument");
+		}
+
+		this.dataSource = dataSource;
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		return wrap(Connection.class, dataSource.getConnection(), null);
+	}
+
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		return wrap(Connection.class, dataSource.getConnection(username, password), null);
+	}
+
+	@Override
+	public PrintWriter getLogWriter() throws SQLException {
+		return dataSource.getLogWriter();
+	}
+
+	@Override
+	public void setLogWriter(PrintWriter out) throws SQLException {
+		dataSource.setLogWriter(out);
+	}
+
+	@Override
+	public void setLoginTimeout(int seconds) throws SQLException {
+		dataSource.setLoginTimeout(seconds);
+	}
+
+	@Override
+	public int getLoginTimeout() throws SQLException {
+		return dataSource.getLoginTimeout();
+	}
+
+	@Override
+	public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+		return dataSource.getParentLogger();
+	}
+
+	@Override
+	public <T> T unwrap(Class<T> iface) throws SQLException {
+		return iface.isInstance(this) ? iface.cast(this) : dataSource.unwrap(iface);
+	}
+
+	@Override
+	public boolean isWrapperFor(Class<?> iface) throws SQLException {
+		return iface.isInstance(this) || dataSource.isWrapperFor(iface);
+	}
+
+	/**
+	 * Wrap a JDBC object to record its use
+	 *
+	 * @param type The JDBC interface of the object
+	 * @param target The object to wrap
+	 * @param sql The SQL of a prepared statement, null otherwise
+	 * @param <T> The JDBC interface
+	 * @return The wrapped object, null when the object is null
+	 */
+	private static <T> T wrap(Class<T> type, T target, String sql) {
+		if (target == null) {
+			return null;
+		}
+
+		return type.cast(Proxy.newProxyInstance(InstrumentedDataSource.class.getClassLoader(), new Class<?>[] { type }, new Handler(target, sql)));
+	}
+
+	/**
+	 * Record the use of a connection, a statement or a result set and wrap the statements and the
+	 * result sets it creates
+	 */
+	private static class Handler implements InvocationHandler {
+		private final Object target;
+
+		/**
+		 * The SQL of the prepared statements, null for the other objects
+		 */
+		private final String sql;
+
+		Handler(Object target, String sql) {
+			this.target = target;
+			this.sql = sql;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			SqlStatistics statistics = SqlRecorder.current();
+			long start = statistics != null ? System.nanoTime() : 0;
+
+			Object result;
+			try {
+				result = method.invoke(target, args);
+			} catch (InvocationTargetException ite) {
+				throw ite.getCause();
+			}
+
+			if (statistics != null) {
+				record(statistics, method, args, result, System.nanoTime() - start);
+			}
+
+			return wrapResult(method, args, result);
+		}
+
+		/**
+		 * Record the executions of the statements and the rows fetched
+		 */
+		private void record(SqlStatistics statistics, Method method, Object[] args, Object result, long duration) {
+			String name = method.getName();
+
+			if (target instanceof Statement && name.startsWith("execute")) {
+				statistics.statement(args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : sql, duration);
+			} else if (target instanceof ResultSet && "next".equals(name)) {
+				if (Boolean.TRUE.equals(result)) {
+					statistics.row(duration);
+				} else {
+					statistics.time(duration);
+				}
+			}
+		}
+
+		/**
+		 * Wrap the statements and the result sets returned by the wrapped object
+		 */
+		private Object wrapResult(Method method, Object[] args, Object result) {
+			if (result instanceof CallableStatement && method.getReturnType() == CallableStatement.class) {
+				return wrap(CallableStatement.class, (CallableStatement) result, (String) args[0]);
+			} else if (result instanceof PreparedStatement && method.getReturnType() == PreparedStatement.class) {
+				return wrap(PreparedStatement.class, (PreparedStatement) result, (String) args[0]);
+			} else if (result instanceof Statement && method.getReturnType() == Statement.class) {
+				return wrap(Statement.class, (Statement) result, null);
+			} else if (result instanceof ResultSet && method.getReturnType() == ResultSet.class) {
+				return wrap(ResultSet.class, (ResultSet) result, null);
+			}
+
+			return result;
+		}
+	}
+}
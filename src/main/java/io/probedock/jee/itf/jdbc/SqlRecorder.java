@@ -0,0 +1,43 @@
+package io.probedock.jee.itf.jdbc;
+
+/**
+ * Associate the {@link SqlStatistics} of the test in progress to the thread that runs it.
+ * The {@link InstrumentedDataSource} records the statements in the statistics of the
+ * current thread, the statements of the threads that do not record are not counted.
+ *
+ * @author Laurent Prevost <laurent.prevost@probedock.io>
+ */
+public final class SqlRecorder {
+	private static final ThreadLocal<SqlStatistics> CURRENT = new ThreadLocal<>();
+
+	private SqlRecorder() {}
+
+	/**
+	 * Start to record the statements of the current thread
+	 *
+	 * @return The statistics that are recorded
+	 */
+	public static SqlStatistics start() {
+		SqlStatistics statistics = new SqlStatistics();
+		CURRENT.set(statistics);
+		return statistics;
+	}
+
+	/**
+	 * Stop to record the statements of the current thread
+	 *
+	 * @return The statistics recorded, null when the thread did not record
+	 */
+	public static SqlStatistics stop() {
+		SqlStatistics statistics = CURRENT.get();
+		CURRENT.remove();
+		return statistics;
+	}
+
+	/**
+	 * @return The statistics recorded by the current thread, null when the thread does not record
+	 */
+	public static SqlStatistics current() {
+		return CURRENT.get();
+	}
+}
@@ -0,0 +1,130 @@
+package io.probedock.jee.itf.jdbc;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Statements executed through an {@link InstrumentedDataSource} while a test runs. The
+ * statistics are recorded by the thread that runs the test, see {@link SqlRecorder}.
+ * <p/>
+ * The same statement executed again and again in a test, typically the lazy loading of
+ * the elements of a collection one by one, is reported as a repeated statement (N+1
+ * queries pattern).
+ *
+ * @author Laurent Prevost <laurent.prevost@probedock.io>
+ */
+public class SqlStatistics {
+	/**
+	 * Number of executions from which the same statement is reported as repeated
+	 */
+	public static final int REPEATED_STATEMENT_THRESHOLD = 5;
+
+	private int statements;
+
+	private long rows;
+
+	private long time;
+
+	/**
+	 * Number of executions by SQL text
+	 */
+	private final Map<String, Integer> executions = new HashMap<>();
+
+	/**
+	 * Record the execution of a statement
+	 *
+	 * @param sql The SQL of the statement, null when unknown
+	 * @param duration The duration of the execution in nanoseconds
+	 */
+	public void statement(String sql, long duration) {
+		statements++;
+		time += duration;
+
+		if (sql != null) {
+			Integer count = executions.get(sql);
+			executions.put(sql, count == null ? 1 : count + 1);
+		}
+	}
+
+	/**
+	 * Record the fetch of a row of a result set
+	 *
+	 * @param duration The duration of the fetch in nanoseconds
+	 */
+	public void row(long duration) {
+		rows++;
+		time += duration;
+	}
+
+	/**
+	 * Record the time spent in the JDBC driver out of the executions and the fetches, like a
+	 * result set fetch that has no more row
+	 *
+	 * @param duration The duration in nanoseconds
+	 */
+	public void time(long duration) {
+		time += duration;
+	}
+
+	/**
+	 * @return The number of statements executed, a batch counts as one statement
+	 */
+	public int getStatements() {
+		return statements;
+	}
+
+	/**
+	 * @return The number of rows fetched from the result sets
+	 */
+	public long getRows() {
+		return rows;
+	}
+
+	/**
+	 * @return The time spent in the JDBC driver in nanoseconds
+	 */
+	public long getTime() {
+		return time;
+	}
+
+	/**
+	 * @param sql The SQL of a statement
+	 * @return The number of executions of the statement
+	 */
+	public int getExecutions(String sql) {
+		Integer count = executions.get(sql);
+		return count == null ? 0 : count;
+	}
+
+	/**
+	 * @return The statements executed at least {@link #REPEATED_STATEMENT_THRESHOLD} times with their number of
+	 * executions, the most executed first
+	 */
+	public Map<String, Integer> getRepeatedStatements() {
+		List<Map.Entry<String, Integer>> repeated = new ArrayList<>();
+		for (Map.Entry<String, Integer> entry : executions.entrySet()) {
+			if (entry.getValue() >= REPEATED_STATEMENT_THRESHOLD) {
+				repeated.add(entry);
+			}
+		}
+
+		Collections.sort(repeated, new Comparator<Map.Entry<String, Integer>>() {
+			@Override
+			public int compare(Map.Entry<String, Integer> left, Map.Entry<String, Integer> right) {
+				return right.getValue().compareTo(left.getValue());
+			}
+		});
+
+		Map<String, Integer> result = new LinkedHashMap<>();
+		for (Map.Entry<String, Integer> entry : repeated) {
+			result.put(entry.getKey(), entry.getValue());
+		}
+
+		return result;
+	}
+}
@@ -0,0 +1,203 @@
+package io.probedock.jee.itf.jdbc;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Snapshot of the rows of a set of tables, to restore the tables in the state they were
+ * before a test group ran. The rows are held in memory, the snapshot is meant for the
+ * tables of reference and fixture data rather than for large tables.
+ * <p/>
+ * The tables must be declared with the referenced tables first. They are emptied in the
+ * reverse order then filled in the declared order, with one statement to empty a table
+ * and one batch of inserts to fill it.
+ *
+ * @author Laurent Prevost <laurent.prevost@probedock.io>
+ */
+public class TableSnapshot {
+	private final List<TableRows> tables;
+
+	/**
+	 * Constructor
+	 *
+	 * @param tables The rows of the tables in the declared order
+	 */
+	private TableSnapshot(List<TableRows> tables) {
+		this.tables = tables;
+	}
+
+	/**
+	 * Capture the rows of the tables
+	 *
+	 * @param connection The connection to read the tables
+	 * @param tableNames The names of the tables, the referenced tables first
+	 * @return The snapshot
+	 * @throws SQLException When a table cannot be read
+	 */
+	public static TableSnapshot capture(Connection connection, String... tableNames) throws SQLException {
+		List<TableRows> tables = new ArrayList<>(tableNames.length);
+
+		try (Statement statement = connection.createStatement()) {
+			for (String tableName : tableNames) {
+				try (ResultSet resultSet = statement.executeQuery("SELECT * FROM " + tableName)) {
+					tables.add(TableRows.read(tableName, resultSet));
+				}
+			}
+		}
+
+		return new TableSnapshot(tables);
+	}
+
+	/**
+	 * Restore the tables in the captured state and commit. The auto-commit mode of the
+	 * connection is restored once done.
+	 *
+	 * @param connection The connection to write the tables
+	 * @return The number of rows restored
+	 * @throws SQLException When a table cannot be restored, the changes are rolled back
+	 */
+	public int restore(Connection connection) throws SQLException {
+		boolean autoCommit = connection.getAutoCommit();
+		connection.setAutoCommit(false);
+
+		try {
+			try (Statement statement = connection.createStatement()) {
+				for (int i = tables.size() - 1; i >= 0; i--) {
+					statement.executeUpdate("DELETE FROM " + tables.get(i).name);
+				}
+			}
+
+			int rows = 0;
+			for (TableRows table : tables) {
+				rows += table.insert(connection);
+			}
+
+			connection.commit();
+			return rows;
+		} catch (SQLException e) {
+			try {
+				connection.rollback();
+			} catch (SQLException rollbackException) {
+				e.addSuppressed(rollbackException);
+			}
+			throw e;
+		} finally {
+			connection.setAutoCommit(autoCommit);
+		}
+	}
+
+	/**
+	 * @return The number of tables of the snapshot
+	 */
+	public int getTableCount() {
+		return tables.size();
+	}
+
+	/**
+	 * @return The number of rows of the snapshot
+	 */
+	public int getRowCount() {
+		int rows = 0;
+		for (TableRows table : tables) {
+			rows += table.rows.size();
+		}
+		return rows;
+	}
+
+	/**
+	 * Rows of a table with the names and the types of its columns
+	 */
+	private static class TableRows {
+		private final String name;
+		private final String[] columns;
+		private final int[] types;
+		private final List<Object[]> rows = new ArrayList<>();
+
+		private TableRows(String name, String[] columns, int[] types) {
+			this.name = name;
+			this.columns = columns;
+			this.types = types;
+		}
+
+		/**
+		 * Read the rows of a table. The large objects are read as arrays and strings as they
+		 * are not valid once the result set is closed.
+		 */
+		private static TableRows read(String name, ResultSet resultSet) throws SQLException {
+			ResultSetMetaData metaData = resultSet.getMetaData();
+			String[] columns = new String[metaData.getColumnCount()];
+			int[] types = new int[columns.length];
+
+			for (int i = 0; i < columns.length; i++) {
+				columns[i] = metaData.getColumnName(i + 1);
+				types[i] = metaData.getColumnType(i + 1);
+			}
+
+			TableRows table = new TableRows(name, columns, types);
+
+			while (resultSet.next()) {
+				Object[] row = new Object[columns.length];
+
+				for (int i = 0; i < columns.length; i++) {
+					switch (types[i]) {
+						case Types.BLOB:
+							row[i] = resultSet.getBytes(i + 1);
+							break;
+						case Types.CLOB:
+						case Types.NCLOB:
+							row[i] = resultSet.getString(i + 1);
+							break;
+						default:
+							row[i] = resultSet.getObject(i + 1);
+					}
+				}
+
+				table.rows.add(row);
+			}
+
+			return table;
+		}
+
+		/**
+		 * Insert the rows in one batch
+		 *
+		 * @return The number of rows inserted
+		 */
+		private int insert(Connection connection) throws SQLException {
+			if (rows.isEmpty()) {
+				return 0;
+			}
+
+			StringBuilder sql = new StringBuilder("INSERT INTO ").append(name).append(" (");
+			StringBuilder values = new StringBuilder(") VALUES (");
+			for (int i = 0; i < columns.length; i++) {
+				sql.append(i > 0 ? ", " : "").append(columns[i]);
+				values.append(i > 0 ? ", ?" : "?");
+			}
+
+			try (PreparedStatement statement = connection.prepareStatement(sql.append(values).append(")").toString())) {
+				for (Object[] row : rows) {
+					for (int i = 0; i < columns.length; i++) {
+						if (row[i] == null) {
+							statement.setNull(i + 1, types[i]);
+						} else {
+							statement.setObject(i + 1, row[i]);
+						}
+					}
+					statement.addBatch();
+				}
+
+				statement.executeBatch();
+			}
+
+			return rows.size();
+		}
+	}
+}
@@ -0,0 +1,287 @@
+package io.probedock.jee.itf.jmx;
+
+import io.probedock.jee.itf.model.Description;
+import io.probedock.jee.itf.model.TestPhase;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Live metrics of the test runs registered as an MBean while the runs are in progress.
+ * <p/>
+ * The metrics are updated by the test threads without locks: atomic counters and a ring
+ * of the latencies of the recent tests. The percentiles are computed when they are read.
+ * The runs of the controllers that share the same object name share the same metrics, the
+ * counters are reset when a run starts and no other run is in progress.
+ *
+ * @author Laurent Prevost <laurent.prevost@probedock.io>
+ */
+public class TestRunMetrics implements TestRunMetricsMBean {
+	private static final Log LOGGER = LogFactory.getLog(TestRunMetrics.class);
+
+	/**
+	 * Number of recent tests used to compute the latency percentiles
+	 */
+	public static final int LATENCY_WINDOW = 1024;
+
+	/**
+	 * Metrics by object name, the metrics stay registered while at least one run uses them
+	 */
+	private static final Map<ObjectName, TestRunMetrics> INSTANCES = new HashMap<>();
+
+	private final ObjectName objectName;
+
+	/**
+	 * Number of runs in progress, guarded by the instances
+	 */
+	private int activeRuns;
+
+	private volatile long startTime;
+
+	private final AtomicLong started = new AtomicLong();
+	private final AtomicLong passed = new AtomicLong();
+	private final AtomicLong failed = new AtomicLong();
+	private final AtomicLong timedOut = new AtomicLong();
+	private final AtomicInteger openTransactions = new AtomicInteger();
+
+	private volatile String currentTestGroup;
+	private volatile String currentTest;
+
+	/**
+	 * Latencies of the recent tests in nanoseconds and the number of latencies recorded
+	 */
+	private final AtomicLongArray latencies = new AtomicLongArray(LATENCY_WINDOW);
+	private final AtomicLong recorded = new AtomicLong();
+
+	/**
+	 * Constructor
+	 *
+	 * @param objectName The object name of the MBean
+	 */
+	TestRunMetrics(ObjectName objectName) {
+		this.objectName = objectName;
+	}
+
+	/**
+	 * Retrieve the metrics for a run that starts, the MBean is registered when no other run
+	 * uses it
+	 *
+	 * @param objectName The object name of the MBean
+	 * @return The metrics, to release at the end of the run
+	 */
+	public static TestRunMetrics acquire(ObjectName objectName) {
+		synchronized (INSTANCES) {
+			TestRunMetrics metrics = INSTANCES.get(objectName);
+
+			if (metrics == null) {
+				metrics = new TestRunMetrics(objectName);
+				INSTANCES.put(objectName, metrics);
+			}
+
+			if (metrics.activeRuns++ == 0) {
+				metrics.reset();
+				metrics.register();
+			}
+
+			return metrics;
+		}
+	}
+
+	/**
+	 * Release the metrics at the end of a run, the MBean is unregistered when no other run
+	 * uses it
+	 */
+	public void release() {
+		synchronized (INSTANCES) {
+			if (--activeRuns == 0) {
+				unregister();
+				INSTANCES.remove(objectName);
+			}
+		}
+	}
+
+	/**
+	 * @param testGroupName The name of the test group that starts
+	 */
+	public void testGroupStart(String testGroupName) {
+		currentTestGroup = testGroupName;
+	}
+
+	/**
+	 * @param description The description of the test that starts
+	 */
+	public void testStart(Description description) {
+		started.incrementAndGet();
+		currentTest = description.getName();
+	}
+
+	/**
+	 * Record the latency of a test from the start of its main transaction to its completion
+	 *
+	 * @param description The description of the test that ends
+	 */
+	public void testEnd(Description description) {
+		long latency = description.getPhaseDuration(TestPhase.BEGIN)
+			+ description.getPhaseDuration(TestPhase.BEFORE_IN_MAIN_TX)
+			+ description.getPhaseDuration(TestPhase.TEST)
+			+ description.getPhaseDuration(TestPhase.AFTER_IN_MAIN_TX)
+			+ description.getPhaseDuration(TestPhase.COMPLETION);
+
+		latencies.set((int) (recorded.getAndIncrement() % LATENCY_WINDOW), latency);
+	}
+
+	public void success() {
+		passed.incrementAndGet();
+	}
+
+	public void fail() {
+		failed.incrementAndGet();
+	}
+
+	public void timeout() {
+		timedOut.incrementAndGet();
+	}
+
+	public void transactionBegin() {
+		openTransactions.incrementAndGet();
+	}
+
+	public void transactionEnd() {
+		openTransactions.decrementAndGet();
+	}
+
+	@Override
+	public boolean isRunning() {
+		synchronized (INSTANCES) {
+			return activeRuns > 0;
+		}
+	}
+
+	@Override
+	public long getTestsStarted() {
+		return started.get();
+	}
+
+	@Override
+	public long getTestsPassed() {
+		return passed.get();
+	}
+
+	@Override
+	public long getTestsFailed() {
+		return failed.get();
+	}
+
+	@Override
+	public long getTestsTimedOut() {
+		return timedOut.get();
+	}
+
+	@Override
+	public String getCurrentTestGroup() {
+		return currentTestGroup;
+	}
+
+	@Override
+	public String getCurrentTest() {
+		return currentTest;
+	}
+
+	@Override
+	public double getThroughput() {
+		long elapsed = System.nanoTime() - startTime;
+		return elapsed <= 0 ? 0 : (passed.get() + failed.get()) * 1e9 / elapsed;
+	}
+
+	@Override
+	public double getLatencyP50() {
+		return getLatencyPercentile(50);
+	}
+
+	@Override
+	public double getLatencyP95() {
+		return getLatencyPercentile(95);
+	}
+
+	@Override
+	public double getLatencyP99() {
+		return getLatencyPercentile(99);
+	}
+
+	@Override
+	public int getOpenTransactions() {
+		return openTransactions.get();
+	}
+
+	/**
+	 * Compute a percentile of the latency of the recent tests with the nearest rank method
+	 *
+	 * @param percentile The percentile, between 0 and 100
+	 * @return The latency in milliseconds, zero when no test is done
+	 */
+	public double getLatencyPercentile(double percentile) {
+		int count = (int) Math.min(recorded.get(), LATENCY_WINDOW);
+		if (count == 0) {
+			return 0;
+		}
+
+		long[] values = new long[count];
+		for (int i = 0; i < count; i++) {
+			values[i] = latencies.get(i);
+		}
+		Arrays.sort(values);
+
+		int rank = (int) Math.ceil(percentile / 100 * count);
+		return values[Math.max(0, Math.min(count, rank) - 1)] / 1e6;
+	}
+
+	public ObjectName getObjectName() {
+		return objectName;
+	}
+
+	/**
+	 * Reset the metrics for a new run
+	 */
+	private void reset() {
+		startTime = System.nanoTime();
+		started.set(0);
+		passed.set(0);
+		failed.set(0);
+		timedOut.set(0);
+		openTransactions.set(0);
+		currentTestGroup = null;
+		currentTest = null;
+		recorded.set(0);
+	}
+
+	private void register() {
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+		try {
+			if (server.isRegistered(objectName)) {
+				server.unregisterMBean(objectName);
+			}
+
+			server.registerMBean(this, objectName);
+		} catch (JMException jme) {
+			LOGGER.warn("Unable to register the test run metrics " + objectName + " because: " + jme.getMessage());
+		}
+	}
+
+	private void unregister() {
+		try {
+			ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+		} catch (JMException jme) {
+			LOGGER.warn("Unable to unregister the test run metrics " + objectName + " because: " + jme.getMessage());
+		}
+	}
+}
@@ -0,0 +1,68 @@
+package io.probedock.jee.itf.jmx;
+
+/**
+ * Live metrics of the test runs of a test controller exposed through JMX
+ *
+ * @author Laurent Prevost <laurent.prevost@probedock.io>
+ */
+public interface TestRunMetricsMBean {
+	/**
+	 * @return True while a test run is in progress
+	 */
+	boolean isRunning();
+
+	/**
+	 * @return Number of tests started by the runs in progress
+	 */
+	long getTestsStarted();
+
+	/**
+	 * @return Number of tests that passed in the runs in progress
+	 */
+	long getTestsPassed();
+
+	/**
+	 * @return Number of tests that failed in the runs in progress
+	 */
+	long getTestsFailed();
+
+	/**
+	 * @return Number of tests that exceeded their timeout in the runs in progress
+	 */
+	long getTestsTimedOut();
+
+	/**
+	 * @return The name of the last test group started
+	 */
+	String getCurrentTestGroup();
+
+	/**
+	 * @return The name of the last test started
+	 */
+	String getCurrentTest();
+
+	/**
+	 * @return Number of tests done per second since the start of the run
+	 */
+	double getThroughput();
+
+	/**
+	 * @return Median latency of the recent tests in milliseconds
+	 */
+	double getLatencyP50();
+
+	/**
+	 * @return 95th percentile of the latency of the recent tests in milliseconds
+	 */
+	double getLatencyP95();
+
+	/**
+	 * @return 99th percentile of the latency of the recent tests in milliseconds
+	 */
+	double getLatencyP99();
+
+	/**
+	 * @return Number of transactions started by the controller and not completed yet
+	 */
+	int getOpenTransactions();
+}
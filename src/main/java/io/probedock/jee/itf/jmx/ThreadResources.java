@@ -0,0 +1,153 @@
+package io.probedock.jee.itf.jmx;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * CPU time and allocated memory of the current thread, read from the {@link ThreadMXBean}.
+ * <p/>
+ * The measures are only taken when they are enabled in the JVM, this class reads the flags
+ * of the JVM and turns them on only when {@link #enable()} is called. The CPU time is part of
+ * the standard management API, the allocated memory is specific to the HotSpot based JVMs. When
+ * a JVM does not support a measure or the measure is disabled, {@link #UNSUPPORTED} is returned
+ * instead.
+ *
+ * @author Laurent Prevost <laurent.prevost@probedock.io>
+ */
+public final class ThreadResources {
+	private static final Log LOGGER = LogFactory.getLog(ThreadResources.class);
+
+	/**
+	 * Value returned when the JVM does not support a measure
+	 */
+	public static final long UNSUPPORTED = -1;
+
+	private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+
+	private static final boolean CPU_TIME_SUPPORTED = isCpuTimeSupportedByJvm();
+
+	private static final boolean ALLOCATION_SUPPORTED = isAllocationSupportedByJvm();
+
+	private static volatile boolean cpuTimeEnabled = CPU_TIME_SUPPORTED && THREAD_MX_BEAN.isThreadCpuTimeEnabled();
+
+	private static volatile boolean allocationEnabled = ALLOCATION_SUPPORTED && HotSpot.isAllocationEnabled(THREAD_MX_BEAN);
+
+	private ThreadResources() {}
+
+	public static boolean isCpuTimeSupported() {
+		return CPU_TIME_SUPPORTED;
+	}
+
+	public static boolean isAllocationSupported() {
+		return ALLOCATION_SUPPORTED;
+	}
+
+	/**
+	 * @return True if the CPU time of the threads is measured
+	 */
+	public static boolean isCpuTimeEnabled() {
+		return cpuTimeEnabled;
+	}
+
+	/**
+	 * @return True if the memory allocated by the threads is measured
+	 */
+	public static boolean isAllocationEnabled() {
+		return allocationEnabled;
+	}
+
+	/**
+	 * Turn on the supported measures in the JVM. This changes the settings of the whole JVM, it must
+	 * only be called on an explicit request.
+	 */
+	public static synchronized void enable() {
+		if (CPU_TIME_SUPPORTED && !cpuTimeEnabled) {
+			try {
+				THREAD_MX_BEAN.setThreadCpuTimeEnabled(true);
+				cpuTimeEnabled = true;
+			} catch (RuntimeException re) {
+				LOGGER.info("Unable to enable the CPU time of the threads, it will not be measured because: " + re.getMessage());
+			}
+		}
+
+		if (ALLOCATION_SUPPORTED && !allocationEnabled) {
+			try {
+				HotSpot.enableAllocation(THREAD_MX_BEAN);
+				allocationEnabled = true;
+			} catch (RuntimeException re) {
+				LOGGER.info("Unable to enable the memory allocated by the threads, it will not be measured because: " + re.getMessage());
+			}
+		}
+	}
+
+	/**
+	 * @return The CPU time of the current thread in nanoseconds, {@link #UNSUPPORTED} when the JVM does not support it
+	 * or it is disabled
+	 */
+	public static long getCpuTime() {
+		return cpuTimeEnabled ? THREAD_MX_BEAN.getCurrentThreadCpuTime() : UNSUPPORTED;
+	}
+
+	/**
+	 * @return The bytes allocated by the current thread since its start, {@link #UNSUPPORTED} when the JVM does not
+	 * support it or it is disabled
+	 */
+	public static long getAllocatedBytes() {
+		return allocationEnabled ? HotSpot.getAllocatedBytes(THREAD_MX_BEAN, Thread.currentThread().getId()) : UNSUPPORTED;
+	}
+
+	private static boolean isCpuTimeSupportedByJvm() {
+		try {
+			if (!THREAD_MX_BEAN.isCurrentThreadCpuTimeSupported()) {
+				LOGGER.info("The CPU time of the threads is not supported by the JVM, it will not be measured.");
+				return false;
+			}
+
+			return true;
+		} catch (RuntimeException re) {
+			LOGGER.info("Unable to read the support of the CPU time of the threads, it will not be measured because: " + re.getMessage());
+			return false;
+		}
+	}
+
+	private static boolean isAllocationSupportedByJvm() {
+		try {
+			if (!HotSpot.isAllocationSupported(THREAD_MX_BEAN)) {
+				LOGGER.info("The memory allocated by the threads is not supported by the JVM, it will not be measured.");
+				return false;
+			}
+
+			return true;
+		} catch (LinkageError le) {
+			LOGGER.info("The memory allocated by the threads is not supported by the JVM, it will not be measured.");
+			return false;
+		} catch (RuntimeException re) {
+			LOGGER.info("Unable to read the support of the memory allocated by the threads, it will not be measured because: " + re.getMessage());
+			return false;
+		}
+	}
+
+	/**
+	 * Access to the HotSpot extension of the thread MXBean, isolated to not be linked on the other JVMs
+	 */
+	private static class HotSpot {
+		static boolean isAllocationSupported(ThreadMXBean threadMXBean) {
+			return threadMXBean instanceof com.sun.management.ThreadMXBean &&
+				((com.sun.management.ThreadMXBean) threadMXBean).isThreadAllocatedMemorySupported();
+		}
+
+		static boolean isAllocationEnabled(ThreadMXBean threadMXBean) {
+			return ((com.sun.management.ThreadMXBean) threadMXBean).isThreadAllocatedMemoryEnabled();
+		}
+
+		static void enableAllocation(ThreadMXBean threadMXBean) {
+			((com.sun.management.ThreadMXBean) threadMXBean).setThreadAllocatedMemoryEnabled(true);
+		}
+
+		static long getAllocatedBytes(ThreadMXBean threadMXBean, long threadId) {
+			return ((com.sun.management.ThreadMXBean) threadMXBean).getThreadAllocatedBytes(threadId);
+		}
+	}
+}
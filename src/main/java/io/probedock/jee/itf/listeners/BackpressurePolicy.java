@@ -0,0 +1,24 @@
+package io.probedock.jee.itf.listeners;
+
+/**
+ * Behavior of the {@link ListenerEventBus} when the buffer of a listener is full
+ * 
+ * @author Laurent Prevost <laurent.prevost@probedock.io>
+ */
+public enum BackpressurePolicy {
+	/**
+	 * The test thread waits until the listener consumed an event
+	 */
+	BLOCK,
+
+	/**
+	 * The event is dropped for the listener, the number of dropped events is logged at the end of the run.
+	 * The test run start and end are never dropped, they wait like with {@link #BLOCK}.
+	 */
+	DROP,
+
+	/**
+	 * The event is kept in an unbounded overflow queue, consumed in order once the buffer has room again
+	 */
+	SPILL
+}
@@ -1,15 +1,17 @@
 package io.probedock.jee.itf.listeners;
 
 import io.probedock.jee.itf.model.Description;
+import io.probedock.jee.itf.model.TestPhase;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
 /**
- * A default implementation of {@link Listener}
+ * A default implementation of {@link Listener}. The durations, CPU times and allocated
+ * memory of the phases of the tests are logged at debug level.
  * 
  * @author Laurent Prevost <laurent.prevost@probedock.io>
  */
-public class DefaultListener implements Listener {
+public class DefaultListener implements PhaseListener {
 
 	private static final Log LOGGER = LogFactory.getLog(DefaultListener.class);
 
@@ -39,14 +41,21 @@ public class DefaultListener implements Listener {
 
 	@Override
 	public void testStart(Description description) {
-		description.setStartDate(System.currentTimeMillis());
+		// The controller already stamps the date when the listeners are notified asynchronously
+		if (description.getStartDate() == 0) {
+			description.setStartDate(System.currentTimeMillis());
+		}
+
 		LOGGER.info("[" + listenerName + "] Test " + description.getName() + " started.");
 	}
 
 	@Override
 	public void testEnd(Description description) {
-		description.setEndDate(System.currentTimeMillis());
-		description.setDuration(description.getEndDate() - description.getStartDate());
+		if (description.getEndDate() == 0) {
+			description.setEndDate(System.currentTimeMillis());
+			description.setDuration(description.getEndDate() - description.getStartDate());
+		}
+
 		LOGGER.info("[" + listenerName + "] Test " + description.getName() + " ended in " + description.getDuration() + "ms.");
 	}
 
@@ -64,4 +73,25 @@ public class DefaultListener implements Listener {
 			LOGGER.info("[" + listenerName + "] Test " + description.getName() + " succeed.");
 		}
 	}
+
+	@Override
+	public void testPhases(Description description) {
+		if (LOGGER.isDebugEnabled()) {
+			StringBuilder message = new StringBuilder("[").append(listenerName).append("] Test ").append(description.getName()).append(" phases:");
+
+			for (TestPhase phase : TestPhase.values()) {
+				message.append(" ").append(phase.name()).append("=").append(String.format("%.3f", description.getPhaseDuration(phase) / 1e6)).append("ms");
+
+				if (description.getPhaseCpuTime(phase) >= 0) {
+					message.append("/cpu:").append(String.format("%.3f", description.getPhaseCpuTime(phase) / 1e6)).append("ms");
+				}
+
+				if (description.getPhaseAllocatedBytes(phase) >= 0) {
+					message.append("/alloc:").append(description.getPhaseAllocatedBytes(phase)).append("B");
+				}
+			}
+
+			LOGGER.debug(message.toString());
+		}
+	}
 }
@@ -0,0 +1,192 @@
+package io.probedock.jee.itf.listeners;
+
+import io.probedock.jee.itf.model.Description;
+import io.probedock.jee.itf.model.TestPhase;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Listener that records the duration of each test and of each of its phases in latency
+ * histograms per test group. The percentiles of each group and of the whole run are logged
+ * at the end of the run.
+ * <p/>
+ * The histograms have a fixed size and are shared by the threads of the run, recording a
+ * test does not allocate once its group is known.
+ *
+ * @author Laurent Prevost <laurent.prevost@probedock.io>
+ */
+public class HistogramListener implements PhaseListener {
+	private static final Log LOGGER = LogFactory.getLog(HistogramListener.class);
+
+	/**
+	 * Percentiles of the report
+	 */
+	private static final double[] PERCENTILES = { 50, 90, 99, 99.9 };
+
+	/**
+	 * The phases, {@link TestPhase#values()} copies the array on each call
+	 */
+	private static final TestPhase[] PHASES = TestPhase.values();
+
+	private String listenerName;
+
+	/**
+	 * Histograms by test group name
+	 */
+	private final ConcurrentMap<String, GroupHistograms> histograms = new ConcurrentHashMap<>();
+
+	public HistogramListener(String listenerName) {
+		this.listenerName = listenerName;
+	}
+
+	@Override
+	public void testRunStart() {
+		histograms.clear();
+	}
+
+	@Override
+	public void testRunEnd() {
+		LOGGER.info("[" + listenerName + "] Test latencies:\n" + report());
+	}
+
+	@Override
+	public void testStart(Description description) {}
+
+	@Override
+	public void testEnd(Description description) {}
+
+	@Override
+	public void fail(Description description) {}
+
+	@Override
+	public void success(Description description) {}
+
+	@Override
+	public void testPhases(Description description) {
+		GroupHistograms groupHistograms = histograms.get(description.getGroupName());
+
+		if (groupHistograms == null) {
+			groupHistograms = new GroupHistograms();
+			GroupHistograms previous = histograms.putIfAbsent(description.getGroupName(), groupHistograms);
+			if (previous != null) {
+				groupHistograms = previous;
+			}
+		}
+
+		groupHistograms.record(description);
+	}
+
+	/**
+	 * @param testGroupName The test group name
+	 * @return The histogram of the whole duration of the tests of the group, null if no test of the group ran
+	 */
+	public LatencyHistogram getTestHistogram(String testGroupName) {
+		GroupHistograms groupHistograms = histograms.get(testGroupName);
+		return groupHistograms == null ? null : groupHistograms.test;
+	}
+
+	/**
+	 * @param testGroupName The test group name
+	 * @param phase The phase
+	 * @return The histogram of the phase of the tests of the group, null if no test of the group ran
+	 */
+	public LatencyHistogram getPhaseHistogram(String testGroupName, TestPhase phase) {
+		GroupHistograms groupHistograms = histograms.get(testGroupName);
+		return groupHistograms == null ? null : groupHistograms.phases[phase.ordinal()];
+	}
+
+	/**
+	 * Build the percentile tables of each test group, ordered by name, then of all the test
+	 * groups together. The latencies are in milliseconds.
+	 *
+	 * @return The report
+	 */
+	public String report() {
+		GroupHistograms all = new GroupHistograms();
+		StringBuilder report = new StringBuilder();
+
+		for (Map.Entry<String, GroupHistograms> entry : new TreeMap<>(histograms).entrySet()) {
+			all.add(entry.getValue());
+			appendTable(report, entry.getKey(), entry.getValue());
+		}
+
+		appendTable(report, "All test groups", all);
+
+		return report.toString();
+	}
+
+	/**
+	 * Append the percentile table of a group to the report
+	 *
+	 * @param report The report
+	 * @param title The title of the table
+	 * @param groupHistograms The histograms of the group
+	 */
+	private static void appendTable(StringBuilder report, String title, GroupHistograms groupHistograms) {
+		report.append(title).append(" (").append(groupHistograms.test.getCount()).append(" tests)\n");
+		report.append(String.format("  %-18s %10s", "phase", "mean"));
+		for (double percentile : PERCENTILES) {
+			report.append(String.format(" %10s", "p" + formatPercentile(percentile)));
+		}
+		report.append(String.format(" %10s%n", "max"));
+
+		appendRow(report, "TOTAL", groupHistograms.test);
+		for (TestPhase phase : PHASES) {
+			appendRow(report, phase.name(), groupHistograms.phases[phase.ordinal()]);
+		}
+	}
+
+	private static void appendRow(StringBuilder report, String name, LatencyHistogram histogram) {
+		report.append(String.format("  %-18s %10.3f", name, histogram.getMean() / 1e6));
+		for (double percentile : PERCENTILES) {
+			report.append(String.format(" %10.3f", histogram.getValueAtPercentile(percentile) / 1e6));
+		}
+		report.append(String.format(" %10.3f%n", histogram.getMax() / 1e6));
+	}
+
+	private static String formatPercentile(double percentile) {
+		return percentile == Math.rint(percentile) ? String.valueOf((long) percentile) : String.valueOf(percentile);
+	}
+
+	/**
+	 * Histograms of a test group
+	 */
+	private static class GroupHistograms {
+		private final LatencyHistogram test = new LatencyHistogram();
+		private final LatencyHistogram[] phases = new LatencyHistogram[PHASES.length];
+
+		private GroupHistograms() {
+			for (int i = 0; i < phases.length; i++) {
+				phases[i] = new LatencyHistogram();
+			}
+		}
+
+		/**
+		 * Record the phases of a test and their sum as the duration of the test
+		 *
+		 * @param description The description of the test
+		 */
+		private void record(Description description) {
+			long total = 0;
+
+			for (int i = 0; i < phases.length; i++) {
+				long duration = description.getPhaseDuration(PHASES[i]);
+				phases[i].record(duration);
+				total += duration;
+			}
+
+			test.record(total);
+		}
+
+		private void add(GroupHistograms other) {
+			test.add(other.test);
+			for (int i = 0; i < phases.length; i++) {
+				phases[i].add(other.phases[i]);
+			}
+		}
+	}
+}
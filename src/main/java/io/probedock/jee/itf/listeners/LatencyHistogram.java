@@ -0,0 +1,175 @@
+package io.probedock.jee.itf.listeners;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogram of latencies in nanoseconds with a fixed memory footprint.
+ * <p/>
+ * The buckets are log-linear: each power of two is split in {@value #SUB_BUCKET_COUNT}
+ * linear sub-buckets, the value of a bucket differs by less than 1/{@value #SUB_BUCKET_COUNT}
+ * (about 3%) from the values recorded in it. The values up to 2^{@value #MAX_EXPONENT} nanoseconds
+ * (more than an hour) are tracked, the greater ones are recorded in the last bucket.
+ * <p/>
+ * Recording does not allocate nor lock, several threads can record in the same histogram.
+ *
+ * @author Laurent Prevost <laurent.prevost@probedock.io>
+ */
+public final class LatencyHistogram {
+	private static final int SUB_BUCKET_BITS = 5;
+
+	/**
+	 * Number of linear buckets per power of two
+	 */
+	public static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+	/**
+	 * Greatest power of two tracked
+	 */
+	public static final int MAX_EXPONENT = 42;
+
+	/**
+	 * The values under twice the number of sub-buckets have their own bucket, then each power of two has its sub-buckets
+	 */
+	private static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKET_COUNT;
+
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+	private final AtomicLong count = new AtomicLong();
+	private final AtomicLong sum = new AtomicLong();
+	private final AtomicLong max = new AtomicLong();
+
+	/**
+	 * Record a latency
+	 *
+	 * @param value The latency in nanoseconds, the negative values are recorded as zero
+	 */
+	public void record(long value) {
+		long latency = Math.max(0, value);
+
+		counts.incrementAndGet(indexOf(latency));
+		count.incrementAndGet();
+		sum.addAndGet(latency);
+
+		long currentMax = max.get();
+		while (latency > currentMax && !max.compareAndSet(currentMax, latency)) {
+			currentMax = max.get();
+		}
+	}
+
+	/**
+	 * Add the latencies of another histogram to this one
+	 *
+	 * @param other The histogram to add
+	 */
+	public void add(LatencyHistogram other) {
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			long bucketCount = other.counts.get(i);
+			if (bucketCount > 0) {
+				counts.addAndGet(i, bucketCount);
+			}
+		}
+
+		count.addAndGet(other.count.get());
+		sum.addAndGet(other.sum.get());
+
+		long otherMax = other.max.get();
+		long currentMax = max.get();
+		while (otherMax > currentMax && !max.compareAndSet(currentMax, otherMax)) {
+			currentMax = max.get();
+		}
+	}
+
+	/**
+	 * Forget all the latencies
+	 */
+	public void reset() {
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			counts.set(i, 0);
+		}
+
+		count.set(0);
+		sum.set(0);
+		max.set(0);
+	}
+
+	public long getCount() {
+		return count.get();
+	}
+
+	/**
+	 * @return The greatest latency recorded, exactly
+	 */
+	public long getMax() {
+		return max.get();
+	}
+
+	/**
+	 * @return The mean of the latencies, zero when nothing is recorded
+	 */
+	public double getMean() {
+		long currentCount = count.get();
+		return currentCount == 0 ? 0 : (double) sum.get() / currentCount;
+	}
+
+	/**
+	 * Retrieve the latency under which a percentage of the latencies are
+	 *
+	 * @param percentile The percentile, between 0 and 100
+	 * @return The highest value of the bucket that holds the percentile, never more than the max. Zero when nothing
+	 * is recorded.
+	 */
+	public long getValueAtPercentile(double percentile) {
+		long currentCount = count.get();
+		if (currentCount == 0) {
+			return 0;
+		}
+
+		long rank = Math.max(1, (long) Math.ceil(Math.min(100, percentile) / 100 * currentCount));
+
+		long seen = 0;
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			seen += counts.get(i);
+
+			if (seen >= rank) {
+				return Math.min(highestValueOf(i), max.get());
+			}
+		}
+
+		return max.get();
+	}
+
+	/**
+	 * Compute the bucket of a latency
+	 *
+	 * @param value The latency, positive
+	 * @return The index of the bucket
+	 */
+	static int indexOf(long value) {
+		if (value < 2 * SUB_BUCKET_COUNT) {
+			return (int) value;
+		}
+
+		int exponent = Math.min(MAX_EXPONENT, 63 - Long.numberOfLeadingZeros(value));
+		int shift = exponent - SUB_BUCKET_BITS;
+
+		// The value keeps its SUB_BUCKET_BITS + 1 most significant bits, between SUB_BUCKET_COUNT and twice of it
+		long top = exponent == MAX_EXPONENT && value >>> shift >= 2 * SUB_BUCKET_COUNT ? 2 * SUB_BUCKET_COUNT - 1 : value >>> shift;
+
+		return (int) (shift * SUB_BUCKET_COUNT + top);
+	}
+
+	/**
+	 * @param index The index of a bucket
+	 * @return The highest latency recorded in the bucket
+	 */
+	static long highestValueOf(int index) {
+		if (index < 2 * SUB_BUCKET_COUNT) {
+			return index;
+		}
+
+		int shift = index / SUB_BUCKET_COUNT - 1;
+		long top = index - shift * SUB_BUCKET_COUNT;
+
+		return ((top + 1) << shift) - 1;
+	}
+}
@@ -4,7 +4,10 @@ import io.probedock.jee.itf.model.Description;
 
 /**
  * Listeners allows to apply some logic at different step
- * of the test run lifecycle
+ * of the test run lifecycle.
+ * <p/>
+ * When the test groups run in parallel, the listeners are notified
+ * from several threads and must be thread safe.
  * 
  * @author Laurent Prevost <laurent.prevost@probedock.io>
  */
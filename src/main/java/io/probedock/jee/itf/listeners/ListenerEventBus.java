@@ -0,0 +1,346 @@
+package io.probedock.jee.itf.listeners;
+
+import io.probedock.jee.itf.model.Description;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Dispatch the listener events asynchronously. The bus is itself a {@link Listener}
+ * that publishes each event in a preallocated ring buffer per listener. Each listener
+ * has a dedicated consumer thread, the events are received in the order they were
+ * published and a slow listener does not slow down the others.
+ * <p/>
+ * The test run end is the last event, the bus waits until every listener consumed
+ * its events and stops the consumer threads. The test run start and end are never
+ * dropped, whatever the backpressure policy. The descriptions are shared between the
+ * test thread and the consumers, a listener can see a test result that is more recent
+ * than the event it is notified for.
+ * <p/>
+ * The bus is also a {@link PhaseListener}, the phases of the tests are only published to
+ * the listeners that are phase listeners.
+ * 
+ * @author Laurent Prevost <laurent.prevost@probedock.io>
+ */
+public class ListenerEventBus implements PhaseListener {
+	private static final Log LOGGER = LogFactory.getLog(ListenerEventBus.class);
+
+	/**
+	 * Size of the ring buffers by default
+	 */
+	public static final int DEFAULT_BUFFER_SIZE = 1024;
+
+	/**
+	 * The types of event
+	 */
+	private enum EventType {
+		TEST_RUN_START,
+		TEST_RUN_END,
+		TEST_START,
+		TEST_END,
+		FAIL,
+		SUCCESS,
+		TEST_PHASES
+	}
+
+	/**
+	 * One channel per listener
+	 */
+	private final List<Channel> channels = new ArrayList<>();
+
+	private final BackpressurePolicy policy;
+
+	private final AtomicBoolean closed = new AtomicBoolean();
+
+	/**
+	 * Constructor
+	 * 
+	 * @param listeners The listeners to notify
+	 * @param bufferSize The number of events that each listener can have in its buffer
+	 * @param policy The behavior when the buffer of a listener is full
+	 * @param threadFactory The factory of the consumer threads
+	 */
+	public ListenerEventBus(Collection<Listener> listeners, int bufferSize, BackpressurePolicy policy, ThreadFactory threadFactory) {
+		if (bufferSize < 1) {
+			throw new IllegalArgumentException("The buffer size must be greater than zero");
+		}
+
+		if (policy == null) {
+			throw new IllegalArgumentException("You must provide a valid backpressure policy");
+		}
+
+		this.policy = policy;
+
+		for (Listener listener : listeners) {
+			Channel channel = new Channel(listener, bufferSize);
+			channel.thread = threadFactory.newThread(channel);
+			channels.add(channel);
+		}
+
+		for (Channel channel : channels) {
+			channel.thread.start();
+		}
+	}
+
+	@Override
+	public void testRunStart() {
+		publish(EventType.TEST_RUN_START, null);
+	}
+
+	/**
+	 * Publish the end of the test run and wait until all the listeners are notified
+	 */
+	@Override
+	public void testRunEnd() {
+		publish(EventType.TEST_RUN_END, null);
+		close();
+	}
+
+	@Override
+	public void testStart(Description description) {
+		publish(EventType.TEST_START, description);
+	}
+
+	@Override
+	public void testEnd(Description description) {
+		publish(EventType.TEST_END, description);
+	}
+
+	@Override
+	public void fail(Description description) {
+		publish(EventType.FAIL, description);
+	}
+
+	@Override
+	public void success(Description description) {
+		publish(EventType.SUCCESS, description);
+	}
+
+	@Override
+	public void testPhases(Description description) {
+		for (Channel channel : channels) {
+			if (channel.listener instanceof PhaseListener) {
+				channel.publish(EventType.TEST_PHASES, description);
+			}
+		}
+	}
+
+	/**
+	 * Stop accepting events, wait until every listener consumed its events and stop the consumer threads.
+	 * Calling this method more than once has no effect.
+	 */
+	public void close() {
+		if (!closed.compareAndSet(false, true)) {
+			return;
+		}
+
+		for (Channel channel : channels) {
+			channel.close();
+		}
+
+		for (Channel channel : channels) {
+			try {
+				channel.thread.join();
+			}
+			catch (InterruptedException ie) {
+				Thread.currentThread().interrupt();
+				LOGGER.warn("Interrupted while waiting for the listener " + channel.listener.getClass().getName() + " to consume its events.");
+				return;
+			}
+
+			if (channel.dropped > 0) {
+				LOGGER.warn(channel.dropped + " events were dropped for the listener " + channel.listener.getClass().getName() + ".");
+			}
+		}
+	}
+
+	/**
+	 * Publish an event to all the listeners
+	 * 
+	 * @param type The type of event
+	 * @param description The description of the test, null for the test run events
+	 */
+	private void publish(EventType type, Description description) {
+		for (Channel channel : channels) {
+			channel.publish(type, description);
+		}
+	}
+
+	/**
+	 * Slot of the ring buffer, reused for the whole run
+	 */
+	private static class Event {
+		private EventType type;
+		private Description description;
+
+		private Event() {}
+
+		private Event(EventType type, Description description) {
+			this.type = type;
+			this.description = description;
+		}
+	}
+
+	/**
+	 * The ring buffer and the consumer of a listener
+	 */
+	private class Channel implements Runnable {
+		private final Listener listener;
+		private final Event[] ring;
+		private final Queue<Event> spill = new ArrayDeque<>();
+		private final ReentrantLock lock = new ReentrantLock();
+		private final Condition notEmpty = lock.newCondition();
+		private final Condition notFull = lock.newCondition();
+
+		private Thread thread;
+
+		/**
+		 * Sequence of the next slot to read and to write
+		 */
+		private long head;
+		private long tail;
+
+		private boolean closed;
+		private long dropped;
+
+		private Channel(Listener listener, int bufferSize) {
+			this.listener = listener;
+			this.ring = new Event[bufferSize];
+
+			for (int i = 0; i < bufferSize; i++) {
+				ring[i] = new Event();
+			}
+		}
+
+		private void publish(EventType type, Description description) {
+			lock.lock();
+			try {
+				if (closed) {
+					return;
+				}
+
+				// Once events are spilled, the next ones are spilled too to keep the order
+				while (tail - head == ring.length || !spill.isEmpty()) {
+					// The test run events wait for a free slot instead of being dropped
+					if (policy == BackpressurePolicy.DROP && type != EventType.TEST_RUN_START && type != EventType.TEST_RUN_END) {
+						dropped++;
+						return;
+					}
+					else if (policy == BackpressurePolicy.SPILL) {
+						spill.add(new Event(type, description));
+						return;
+					}
+
+					notFull.awaitUninterruptibly();
+				}
+
+				Event event = ring[(int) (tail % ring.length)];
+				event.type = type;
+				event.description = description;
+				tail++;
+
+				notEmpty.signal();
+			}
+			finally {
+				lock.unlock();
+			}
+		}
+
+		private void close() {
+			lock.lock();
+			try {
+				closed = true;
+				notEmpty.signal();
+			}
+			finally {
+				lock.unlock();
+			}
+		}
+
+		@Override
+		public void run() {
+			while (true) {
+				EventType type;
+				Description description;
+
+				lock.lock();
+				try {
+					while (head == tail && !closed) {
+						notEmpty.awaitUninterruptibly();
+					}
+
+					if (head == tail) {
+						return;
+					}
+
+					Event event = ring[(int) (head % ring.length)];
+					type = event.type;
+					description = event.description;
+					event.description = null;
+					head++;
+
+					// The spilled events follow the ones of the ring
+					if (!spill.isEmpty()) {
+						Event spilled = spill.poll();
+						Event slot = ring[(int) (tail % ring.length)];
+						slot.type = spilled.type;
+						slot.description = spilled.description;
+						tail++;
+					}
+
+					notFull.signal();
+				}
+				finally {
+					lock.unlock();
+				}
+
+				dispatch(type, description);
+			}
+		}
+
+		/**
+		 * Notify the listener, an exception of the listener never stops the consumer
+		 * 
+		 * @param type The type of event
+		 * @param description The description of the test
+		 */
+		private void dispatch(EventType type, Description description) {
+			try {
+				switch (type) {
+					case TEST_RUN_START:
+						listener.testRunStart();
+						break;
+					case TEST_RUN_END:
+						listener.testRunEnd();
+						break;
+					case TEST_START:
+						listener.testStart(description);
+						break;
+					case TEST_END:
+						listener.testEnd(description);
+						break;
+					case FAIL:
+						listener.fail(description);
+						break;
+					case SUCCESS:
+						listener.success(description);
+						break;
+					case TEST_PHASES:
+						((PhaseListener) listener).testPhases(description);
+						break;
+				}
+			}
+			catch (RuntimeException re) {
+				LOGGER.error("The listener " + listener.getClass().getName() + " failed to handle the event " + type + " because: " + re.getMessage(), re);
+			}
+		}
+	}
+}
@@ -0,0 +1,22 @@
+package io.probedock.jee.itf.listeners;
+
+import io.probedock.jee.itf.model.Description;
+import io.probedock.jee.itf.model.TestPhase;
+
+/**
+ * Listener that is also notified of the durations of the phases of each test, from
+ * the setup methods to the completion of the transactions, with the CPU time and the
+ * memory allocated by each phase.
+ * 
+ * @author Laurent Prevost <laurent.prevost@probedock.io>
+ */
+public interface PhaseListener extends Listener {
+	/**
+	 * Executed once the test and all its setup methods ran. In other words, this method
+	 * is called after the {@link Listener#testEnd(Description)} method.
+	 * @param description The description of the test with the measures of each phase, see
+	 * {@link Description#getPhaseDuration(TestPhase)}, {@link Description#getPhaseCpuTime(TestPhase)}
+	 * and {@link Description#getPhaseAllocatedBytes(TestPhase)}
+	 */
+	void testPhases(Description description);
+}
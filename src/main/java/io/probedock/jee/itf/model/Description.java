@@ -1,7 +1,13 @@
 package io.probedock.jee.itf.model;
 
+import io.probedock.jee.itf.annotations.LoadTest;
 import io.probedock.jee.itf.annotations.NoRollback;
+import io.probedock.jee.itf.annotations.PerfTest;
 import io.probedock.jee.itf.annotations.Test;
+import io.probedock.jee.itf.annotations.TestTransaction;
+import io.probedock.jee.itf.annotations.TransactionPolicy;
+import io.probedock.jee.itf.invokers.Invocation;
+import io.probedock.jee.itf.jdbc.SqlStatistics;
 
 import java.lang.reflect.Method;
 import java.util.HashMap;
@@ -15,11 +21,28 @@ import java.util.Map;
  * @author Laurent Prevost <laurent.prevost@probedock.io>
  */
 public class Description {
+    private static final int PHASE_COUNT = TestPhase.values().length;
+
     /**
      * Configuration for the test
      */
     private Test testAnnotation;
 
+    /**
+     * Configuration for the performance test, null when the test is not a performance test
+     */
+    private PerfTest perfTestAnnotation;
+
+    /**
+     * Configuration for the load test, null when the test is not a load test
+     */
+    private LoadTest loadTestAnnotation;
+
+    /**
+     * Policy of the main transaction of the test, from the test method or from its test group
+     */
+    private TransactionPolicy transactionPolicy;
+
     /**
      * The name of the test group
      */
@@ -40,6 +63,21 @@ public class Description {
      */
     private Method method;
 
+    /**
+     * The test method bound by the invoker, null when the description is not created by a test group definition
+     */
+    private Invocation invocation;
+
+    /**
+     * The compiled setup methods of the test, null when the description is not created by a test group definition
+     */
+    private ExecutionPlan executionPlan;
+
+    /**
+     * Probe Dock information of the test, read on demand when the description is not created by a test group definition
+     */
+    private ProbeTestMetadata probeMetadata;
+
     /**
      * Determine if the test passed or not
      */
@@ -56,6 +94,33 @@ public class Description {
      */
     private long duration;
 
+    /**
+     * Duration of each phase of the test execution in nanoseconds, indexed by phase
+     */
+    private final long[] phaseDurations = new long[PHASE_COUNT];
+
+    /**
+     * CPU time of each phase of the test execution in nanoseconds, indexed by phase. Negative when the JVM does not
+     * support it.
+     */
+    private final long[] phaseCpuTimes = new long[PHASE_COUNT];
+
+    /**
+     * Memory allocated by each phase of the test execution in bytes, indexed by phase. Negative when the JVM does not
+     * support it.
+     */
+    private final long[] phaseAllocatedBytes = new long[PHASE_COUNT];
+
+    /**
+     * Maximum duration of the main transaction of the test in milliseconds, zero for no maximum
+     */
+    private long timeout;
+
+    /**
+     * Statements executed in the main transaction of the test, null when the statements are not recorded
+     */
+    private SqlStatistics sqlStatistics;
+
     /**
      * A message to add more valuable information to a test
      */
@@ -79,12 +144,74 @@ public class Description {
         this.testAnnotation = testAnnotation;
         this.method = method;
         this.testClass = testClass;
+        this.perfTestAnnotation = method.getAnnotation(PerfTest.class);
+        this.loadTestAnnotation = method.getAnnotation(LoadTest.class);
+        this.transactionPolicy = resolveTransactionPolicy(testClass, method);
+    }
+
+    /**
+     * Resolve the transaction policy of a test, the policy of the method overrides the one of the class
+     *
+     * @param testClass The class where the test method is defined
+     * @param method The test method
+     * @return The transaction policy, {@link TransactionPolicy#REQUIRED} when none is defined
+     */
+    private static TransactionPolicy resolveTransactionPolicy(Class<?> testClass, Method method) {
+        TestTransaction testTransaction = method.getAnnotation(TestTransaction.class);
+
+        if (testTransaction == null && testClass != null) {
+            testTransaction = testClass.getAnnotation(TestTransaction.class);
+        }
+
+        return testTransaction != null ? testTransaction.value() : TransactionPolicy.REQUIRED;
+    }
+
+    /**
+     * Create a description of the same test without any result, to run the test several times concurrently
+     *
+     * @return The new description
+     */
+    public Description copy() {
+        Description copy = new Description(groupName, testAnnotation, testClass, method);
+        copy.invocation = invocation;
+        copy.executionPlan = executionPlan;
+        copy.probeMetadata = probeMetadata;
+        copy.timeout = timeout;
+        return copy;
     }
 
     public Method getMethod() {
         return method;
     }
 
+    public Invocation getInvocation() {
+        return invocation;
+    }
+
+    void setInvocation(Invocation invocation) {
+        this.invocation = invocation;
+    }
+
+    public ExecutionPlan getExecutionPlan() {
+        return executionPlan;
+    }
+
+    void setExecutionPlan(ExecutionPlan executionPlan) {
+        this.executionPlan = executionPlan;
+    }
+
+    public ProbeTestMetadata getProbeMetadata() {
+        if (probeMetadata == null) {
+            probeMetadata = ProbeTestMetadata.of(method, testClass, getName());
+        }
+
+        return probeMetadata;
+    }
+
+    void setProbeMetadata(ProbeTestMetadata probeMetadata) {
+        this.probeMetadata = probeMetadata;
+    }
+
     public Class getTestClass() {
         return testClass;
     }
@@ -133,10 +260,76 @@ public class Description {
         this.duration = duration;
     }
 
+    /**
+     * @param phase The phase of the test execution
+     * @return The duration of the phase in nanoseconds, zero when the phase did not run
+     */
+    public long getPhaseDuration(TestPhase phase) {
+        return phaseDurations[phase.ordinal()];
+    }
+
+    public void setPhaseDuration(TestPhase phase, long duration) {
+        phaseDurations[phase.ordinal()] = duration;
+    }
+
+    /**
+     * @param phase The phase of the test execution
+     * @return The CPU time of the phase in the thread that ran it in nanoseconds, negative when the JVM does not
+     * support it
+     */
+    public long getPhaseCpuTime(TestPhase phase) {
+        return phaseCpuTimes[phase.ordinal()];
+    }
+
+    public void setPhaseCpuTime(TestPhase phase, long cpuTime) {
+        phaseCpuTimes[phase.ordinal()] = cpuTime;
+    }
+
+    /**
+     * @param phase The phase of the test execution
+     * @return The memory allocated by the phase in the thread that ran it in bytes, negative when the JVM does not
+     * support it
+     */
+    public long getPhaseAllocatedBytes(TestPhase phase) {
+        return phaseAllocatedBytes[phase.ordinal()];
+    }
+
+    public void setPhaseAllocatedBytes(TestPhase phase, long allocatedBytes) {
+        phaseAllocatedBytes[phase.ordinal()] = allocatedBytes;
+    }
+
+    public long getTimeout() {
+        return timeout;
+    }
+
+    public void setTimeout(long timeout) {
+        this.timeout = timeout;
+    }
+
+    public SqlStatistics getSqlStatistics() {
+        return sqlStatistics;
+    }
+
+    public void setSqlStatistics(SqlStatistics sqlStatistics) {
+        this.sqlStatistics = sqlStatistics;
+    }
+
     public Test getTestAnnotation() {
         return testAnnotation;
     }
 
+    public PerfTest getPerfTestAnnotation() {
+        return perfTestAnnotation;
+    }
+
+    public LoadTest getLoadTestAnnotation() {
+        return loadTestAnnotation;
+    }
+
+    public TransactionPolicy getTransactionPolicy() {
+        return transactionPolicy;
+    }
+
     public Map<String, String> getData() {
         return data;
     }
@@ -151,6 +344,13 @@ public class Description {
         data.put(key, value);
     }
 
+    /**
+     * @return The name of the group where the test is defined
+     */
+    public String getGroupName() {
+        return groupName;
+    }
+
     /**
      * Retrieve the name of the method without the class name
      *
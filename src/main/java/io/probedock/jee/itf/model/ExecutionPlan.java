@@ -0,0 +1,164 @@
+package io.probedock.jee.itf.model;
+
+import io.probedock.jee.itf.annotations.TestSetupType;
+import io.probedock.jee.itf.model.TestGroupDefinition.SetupMethod;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The execution plan of a test contains the ordered setup methods of the ten phases
+ * of {@link TestSetupType}. It is compiled once when the test group is discovered
+ * and never changes, so it can be shared between the runs and the threads.
+ *
+ * @author Laurent Prevost <laurent.prevost@probedock.io>
+ */
+public final class ExecutionPlan {
+	private static final SetupMethod[] NO_METHODS = new SetupMethod[0];
+
+	/**
+	 * Ordered setup methods indexed by the ordinal of the setup type
+	 */
+	private final SetupMethod[][] methods;
+
+	/**
+	 * The BEFORE_EACH_OUT_MAIN_TX then BEFORE_OUT_MAIN_TX methods, to run them in the same transaction
+	 */
+	private final SetupMethod[] mergedBeforeOutOfMainTx;
+
+	/**
+	 * The AFTER_OUT_MAIN_TX then AFTER_EACH_OUT_MAIN_TX methods, to run them in the same transaction
+	 */
+	private final SetupMethod[] mergedAfterOutOfMainTx;
+
+	/**
+	 * Constructor
+	 *
+	 * @param methods The ordered setup methods indexed by the ordinal of the setup type
+	 */
+	private ExecutionPlan(SetupMethod[][] methods) {
+		this.methods = methods;
+		this.mergedBeforeOutOfMainTx = concat(getMethods(TestSetupType.BEFORE_EACH_OUT_MAIN_TX), getMethods(TestSetupType.BEFORE_OUT_MAIN_TX));
+		this.mergedAfterOutOfMainTx = concat(getMethods(TestSetupType.AFTER_OUT_MAIN_TX), getMethods(TestSetupType.AFTER_EACH_OUT_MAIN_TX));
+	}
+
+	/**
+	 * Compile the execution plan of the whole group. Only the ALL and EACH phases
+	 * contain methods.
+	 *
+	 * @param metadata The test group metadata
+	 * @return The execution plan
+	 */
+	static ExecutionPlan compile(TestGroupMetadata metadata) {
+		return compile(metadata, null, null);
+	}
+
+	/**
+	 * Compile the execution plan of a test. The setup methods that refer to the test
+	 * through its name or its setup key are merged and ordered.
+	 *
+	 * @param metadata The test group metadata
+	 * @param simpleName The name of the test method
+	 * @param setupKey The setup key of the test
+	 * @return The execution plan
+	 */
+	static ExecutionPlan compile(TestGroupMetadata metadata, String simpleName, String setupKey) {
+		SetupMethod[][] methods = new SetupMethod[TestSetupType.values().length][];
+
+		for (TestSetupType type : TestSetupType.values()) {
+			Map<String, List<SetupMethod>> methodsByKey = metadata.getSetupMethodsByKey(type);
+
+			if (methodsByKey == null) {
+				methods[type.ordinal()] = toArray(metadata.getSetupMethods(type));
+			}
+			else if (simpleName == null) {
+				methods[type.ordinal()] = NO_METHODS;
+			}
+			else {
+				List<SetupMethod> extractedMethods = new ArrayList<>();
+
+				// Get the test methods by method name
+				if (methodsByKey.containsKey(simpleName)) {
+					extractedMethods.addAll(methodsByKey.get(simpleName));
+				}
+
+				// Get the setup methods by reference key
+				if (methodsByKey.containsKey(setupKey)) {
+					extractedMethods.addAll(methodsByKey.get(setupKey));
+				}
+
+				Collections.sort(extractedMethods);
+				methods[type.ordinal()] = toArray(extractedMethods);
+			}
+		}
+
+		return new ExecutionPlan(methods);
+	}
+
+	/**
+	 * Retrieve the ordered setup methods of a phase. The array must not be modified.
+	 *
+	 * @param type The setup phase
+	 * @return The ordered setup methods, never null
+	 */
+	public SetupMethod[] getMethods(TestSetupType type) {
+		return methods[type.ordinal()];
+	}
+
+	/**
+	 * Retrieve the ordered setup methods of a phase as a list
+	 *
+	 * @param type The setup phase
+	 * @return The ordered setup methods, unmodifiable
+	 */
+	public List<SetupMethod> getMethodList(TestSetupType type) {
+		return Collections.unmodifiableList(Arrays.asList(methods[type.ordinal()]));
+	}
+
+	/**
+	 * Retrieve the setup methods that run before the test out of its main transaction, in the
+	 * order they run when each phase has its own transaction. The array must not be modified.
+	 *
+	 * @return The BEFORE_EACH_OUT_MAIN_TX then BEFORE_OUT_MAIN_TX methods, never null
+	 */
+	public SetupMethod[] getMergedBeforeOutOfMainTx() {
+		return mergedBeforeOutOfMainTx;
+	}
+
+	/**
+	 * Retrieve the setup methods that run after the test out of its main transaction, in the
+	 * order they run when each phase has its own transaction. The array must not be modified.
+	 *
+	 * @return The AFTER_OUT_MAIN_TX then AFTER_EACH_OUT_MAIN_TX methods, never null
+	 */
+	public SetupMethod[] getMergedAfterOutOfMainTx() {
+		return mergedAfterOutOfMainTx;
+	}
+
+	/**
+	 * @param first The methods that run first
+	 * @param second The methods that run next
+	 * @return The methods of both arrays, one of them when the other is empty
+	 */
+	private static SetupMethod[] concat(SetupMethod[] first, SetupMethod[] second) {
+		if (first.length == 0) {
+			return second;
+		} else if (second.length == 0) {
+			return first;
+		}
+
+		SetupMethod[] merged = Arrays.copyOf(first, first.length + second.length);
+		System.arraycopy(second, 0, merged, first.length, second.length);
+		return merged;
+	}
+
+	/**
+	 * @param list The list to convert
+	 * @return The array of setup methods
+	 */
+	private static SetupMethod[] toArray(List<SetupMethod> list) {
+		return list.isEmpty() ? NO_METHODS : list.toArray(new SetupMethod[list.size()]);
+	}
+}
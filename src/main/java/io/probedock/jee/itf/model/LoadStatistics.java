@@ -0,0 +1,105 @@
+package io.probedock.jee.itf.model;
+
+import io.probedock.jee.itf.listeners.LatencyHistogram;
+import java.util.Locale;
+
+/**
+ * Statistics of the invocations of a load test.
+ *
+ * @author Laurent Prevost <laurent.prevost@probedock.io>
+ */
+public class LoadStatistics {
+	/**
+	 * Prefix of the keys of the statistics in the data of a test
+	 */
+	public static final String DATA_PREFIX = "load.";
+
+	/**
+	 * Percentiles added to the data of a test
+	 */
+	private static final int[] PERCENTILES = { 50, 90, 99 };
+
+	private final int threads;
+
+	private final long elapsed;
+
+	private final LatencyHistogram latencies;
+
+	private final long errors;
+
+	/**
+	 * Constructor
+	 *
+	 * @param threads The number of concurrent callers
+	 * @param elapsed The duration of the load in nanoseconds
+	 * @param latencies The latencies of all the invocations
+	 * @param errors The number of failed invocations
+	 */
+	public LoadStatistics(int threads, long elapsed, LatencyHistogram latencies, long errors) {
+		this.threads = threads;
+		this.elapsed = elapsed;
+		this.latencies = latencies;
+		this.errors = errors;
+	}
+
+	public long getInvocations() {
+		return latencies.getCount();
+	}
+
+	public long getErrors() {
+		return errors;
+	}
+
+	/**
+	 * @return The ratio of failed invocations, zero when nothing was invoked
+	 */
+	public double getErrorRate() {
+		long invocations = latencies.getCount();
+		return invocations == 0 ? 0 : (double) errors / invocations;
+	}
+
+	/**
+	 * @return The number of invocations per second
+	 */
+	public double getThroughput() {
+		return elapsed <= 0 ? 0 : latencies.getCount() * 1e9 / elapsed;
+	}
+
+	/**
+	 * @param percentile The percentile, between 0 and 100
+	 * @return The latency in nanoseconds
+	 */
+	public long getPercentile(double percentile) {
+		return latencies.getValueAtPercentile(percentile);
+	}
+
+	/**
+	 * Add the statistics to the data of a test, the latencies in milliseconds
+	 *
+	 * @param description The description of the test
+	 */
+	public void addTo(Description description) {
+		description.addData(DATA_PREFIX + "threads", String.valueOf(threads));
+		description.addData(DATA_PREFIX + "duration", String.valueOf(elapsed / 1000000));
+		description.addData(DATA_PREFIX + "invocations", String.valueOf(latencies.getCount()));
+		description.addData(DATA_PREFIX + "errors", String.valueOf(errors));
+		description.addData(DATA_PREFIX + "errorRate", format(getErrorRate(), 4));
+		description.addData(DATA_PREFIX + "throughput", format(getThroughput(), 1));
+		description.addData(DATA_PREFIX + "mean", format(latencies.getMean() / 1e6, 3));
+
+		for (int percentile : PERCENTILES) {
+			description.addData(DATA_PREFIX + "p" + percentile, format(getPercentile(percentile) / 1e6, 3));
+		}
+
+		description.addData(DATA_PREFIX + "max", format(latencies.getMax() / 1e6, 3));
+	}
+
+	/**
+	 * @param value The value to format
+	 * @param decimals The number of decimals
+	 * @return The value formatted the same way whatever the locale
+	 */
+	private static String format(double value, int decimals) {
+		return String.format(Locale.ROOT, "%." + decimals + "f", value);
+	}
+}
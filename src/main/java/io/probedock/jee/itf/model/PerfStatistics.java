@@ -0,0 +1,100 @@
+package io.probedock.jee.itf.model;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Statistics of the latencies of the measured invocations of a performance test.
+ *
+ * @author Laurent Prevost <laurent.prevost@probedock.io>
+ */
+public class PerfStatistics {
+	/**
+	 * Prefix of the keys of the statistics in the data of a test
+	 */
+	public static final String DATA_PREFIX = "perf.";
+
+	/**
+	 * Percentiles added to the data of a test
+	 */
+	private static final int[] PERCENTILES = { 50, 90, 99 };
+
+	/**
+	 * Sorted latencies in nanoseconds
+	 */
+	private final long[] latencies;
+
+	private final long sum;
+
+	/**
+	 * Constructor
+	 *
+	 * @param latencies The latencies in nanoseconds, at least one
+	 */
+	public PerfStatistics(long[] latencies) {
+		if (latencies == null || latencies.length == 0) {
+			throw new IllegalArgumentException("At least one latency is required");
+		}
+
+		this.latencies = Arrays.copyOf(latencies, latencies.length);
+		Arrays.sort(this.latencies);
+
+		long total = 0;
+		for (long latency : latencies) {
+			total += latency;
+		}
+		sum = total;
+	}
+
+	public int getCount() {
+		return latencies.length;
+	}
+
+	public long getMin() {
+		return latencies[0];
+	}
+
+	public long getMax() {
+		return latencies[latencies.length - 1];
+	}
+
+	public double getMean() {
+		return (double) sum / latencies.length;
+	}
+
+	/**
+	 * Retrieve a percentile with the nearest rank method
+	 *
+	 * @param percentile The percentile, between 0 and 100
+	 * @return The latency in nanoseconds
+	 */
+	public long getPercentile(double percentile) {
+		int rank = (int) Math.ceil(percentile / 100 * latencies.length);
+		return latencies[Math.max(0, Math.min(latencies.length, rank) - 1)];
+	}
+
+	/**
+	 * Add the statistics to the data of a test in milliseconds
+	 *
+	 * @param description The description of the test
+	 */
+	public void addTo(Description description) {
+		description.addData(DATA_PREFIX + "iterations", String.valueOf(latencies.length));
+		description.addData(DATA_PREFIX + "min", toMillis(getMin()));
+		description.addData(DATA_PREFIX + "mean", toMillis(getMean()));
+
+		for (int percentile : PERCENTILES) {
+			description.addData(DATA_PREFIX + "p" + percentile, toMillis(getPercentile(percentile)));
+		}
+
+		description.addData(DATA_PREFIX + "max", toMillis(getMax()));
+	}
+
+	/**
+	 * @param nanos A latency in nanoseconds
+	 * @return The latency in milliseconds, formatted the same way whatever the locale
+	 */
+	private static String toMillis(double nanos) {
+		return String.format(Locale.ROOT, "%.3f", nanos / 1e6);
+	}
+}
@@ -0,0 +1,182 @@
+package io.probedock.jee.itf.model;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Method;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Probe Dock information of a test: key, tags and tickets from the {@code @ProbeTest} and
+ * {@code @ProbeTestClass} annotations, and the fingerprint of the test name.
+ * <p/>
+ * The Probe Dock client is not a dependency of the framework, the annotations are read
+ * by their name. The information is computed once when the test group is discovered.
+ * 
+ * @author Laurent Prevost <laurent.prevost@probedock.io>
+ */
+public final class ProbeTestMetadata {
+	private static final Log LOGGER = LogFactory.getLog(ProbeTestMetadata.class);
+
+	private static final String PROBE_TEST = "io.probedock.client.annotations.ProbeTest";
+	private static final String PROBE_TEST_CLASS = "io.probedock.client.annotations.ProbeTestClass";
+
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+	private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+	private final String key;
+	private final Set<String> tags;
+	private final Set<String> tickets;
+	private final String fingerprint;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param key The Probe Dock key, null when there is no key
+	 * @param tags The tags of the test and of its class
+	 * @param tickets The tickets of the test and of its class
+	 * @param fingerprint The fingerprint of the test name
+	 */
+	private ProbeTestMetadata(String key, Set<String> tags, Set<String> tickets, String fingerprint) {
+		this.key = key;
+		this.tags = tags;
+		this.tickets = tickets;
+		this.fingerprint = fingerprint;
+	}
+
+	/**
+	 * Read the Probe Dock information of a test
+	 * 
+	 * @param method The test method
+	 * @param testClass The class of the test group
+	 * @param name The complete name of the test
+	 * @return The information of the test
+	 */
+	public static ProbeTestMetadata of(Method method, Class<?> testClass, String name) {
+		Annotation probeTest = findAnnotation(method, PROBE_TEST);
+		Annotation probeTestClass = findAnnotation(testClass, PROBE_TEST_CLASS);
+
+		String key = (String) readMember(probeTest, "key");
+		if (key != null && key.isEmpty()) {
+			key = null;
+		}
+
+		Set<String> tags = new HashSet<>();
+		addAll(tags, readMember(probeTestClass, "tags"));
+		addAll(tags, readMember(probeTest, "tags"));
+
+		Set<String> tickets = new HashSet<>();
+		addAll(tickets, readMember(probeTestClass, "tickets"));
+		addAll(tickets, readMember(probeTest, "tickets"));
+
+		return new ProbeTestMetadata(key, Collections.unmodifiableSet(tags), Collections.unmodifiableSet(tickets), sha1(name));
+	}
+
+	/**
+	 * @return The Probe Dock key, null when the test has no key
+	 */
+	public String getKey() {
+		return key;
+	}
+
+	public Set<String> getTags() {
+		return tags;
+	}
+
+	public Set<String> getTickets() {
+		return tickets;
+	}
+
+	/**
+	 * @return The SHA-1 of the complete test name in hexadecimal
+	 */
+	public String getFingerprint() {
+		return fingerprint;
+	}
+
+	/**
+	 * Find an annotation by the name of its type
+	 * 
+	 * @param element The annotated element
+	 * @param annotationName The name of the annotation type
+	 * @return The annotation, null if not present
+	 */
+	private static Annotation findAnnotation(AnnotatedElement element, String annotationName) {
+		if (element == null) {
+			return null;
+		}
+
+		for (Annotation annotation : element.getAnnotations()) {
+			if (annotation.annotationType().getName().equals(annotationName)) {
+				return annotation;
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Read a member of an annotation
+	 * 
+	 * @param annotation The annotation, can be null
+	 * @param member The name of the member
+	 * @return The value, null when the annotation or the member is not present
+	 */
+	private static Object readMember(Annotation annotation, String member) {
+		if (annotation == null) {
+			return null;
+		}
+
+		try {
+			return annotation.annotationType().getMethod(member).invoke(annotation);
+		}
+		catch (NoSuchMethodException nsme) {
+			return null;
+		}
+		catch (Exception e) {
+			LOGGER.warn("Unable to read " + member + " from the annotation " + annotation.annotationType().getName() + " because: " + e.getMessage());
+			return null;
+		}
+	}
+
+	/**
+	 * @param values The set to update
+	 * @param array The values to add, ignored when this is not an array of strings
+	 */
+	private static void addAll(Set<String> values, Object array) {
+		if (array instanceof String[]) {
+			for (String value : (String[]) array) {
+				if (value != null && !value.isEmpty()) {
+					values.add(value);
+				}
+			}
+		}
+	}
+
+	/**
+	 * @param text The text to hash
+	 * @return The SHA-1 of the text in hexadecimal
+	 */
+	private static String sha1(String text) {
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-1").digest(text.getBytes(UTF_8));
+			char[] hex = new char[digest.length * 2];
+
+			for (int i = 0; i < digest.length; i++) {
+				hex[i * 2] = HEX[(digest[i] >> 4) & 0xf];
+				hex[i * 2 + 1] = HEX[digest[i] & 0xf];
+			}
+
+			return new String(hex);
+		}
+		catch (NoSuchAlgorithmException nsae) {
+			throw new IllegalStateException("SHA-1 is not available", nsae);
+		}
+	}
+}
@@ -1,28 +1,36 @@
 package io.probedock.jee.itf.model;
 
 import io.probedock.jee.itf.TestGroup;
-import io.probedock.jee.itf.annotations.Test;
-import io.probedock.jee.itf.annotations.TestSetup;
+import io.probedock.jee.itf.annotations.TestSetupType;
+import io.probedock.jee.itf.filters.Filter;
+import io.probedock.jee.itf.invokers.Invocation;
+import io.probedock.jee.itf.invokers.InvocationBinding;
+import io.probedock.jee.itf.invokers.Invoker;
+import io.probedock.jee.itf.invokers.MethodHandleInvoker;
+import io.probedock.jee.itf.model.TestGroupMetadata.TestMethod;
 import java.lang.reflect.Method;
+import java.sql.Connection;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
-
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
 /**
  * The test group definition contains the test methods, the setup methods
  * and different information about the test group.
+ * <p/>
+ * The discovery of the methods is done once per class by {@link TestGroupMetadata},
+ * the definition only creates the descriptions of a run and shuffles them.
  * 
  * @author Laurent Prevost <laurent.prevost@probedock.io>
  */
 public class TestGroupDefinition {
 	private static final Log LOGGER = LogFactory.getLog(TestGroupDefinition.class);
-	
+
 	/**
 	 * The name of the test group
 	 */
@@ -34,126 +42,146 @@ public class TestGroupDefinition {
 	private TestGroup group;
 
 	/**
-	 * Test methods
+	 * Reflected information about the test group
 	 */
-	private List<Description> testMethods = new ArrayList<>();
-	private List<Description> setupedMethods = new ArrayList<>();
-	
+	private TestGroupMetadata metadata;
+
 	/**
-	 * After and before all test in the group
+	 * Invoker used to run the test and setup methods
 	 */
-	private List<SetupMethod> afterAll = new ArrayList<>();
-	private List<SetupMethod> beforeAll = new ArrayList<>();
-	
+	private Invoker invoker;
+
 	/**
-	 * After and before each test in the group in the same transaction
-	 * than the test method.
+	 * Test methods
 	 */
-	private List<SetupMethod> afterEachInMainTx = new ArrayList<>();
-	private List<SetupMethod> beforeEachInMainTx = new ArrayList<>();
-	
+	private List<Description> testMethods = new ArrayList<>();
+
 	/**
-	 * After and before each test in the group in a different transaction
-	 * than the test method. This means it will not be rollbacked.
+	 * Connection of the tests of a group isolated by savepoints while its tests run, null otherwise
 	 */
-	private List<SetupMethod> afterEachOutMainTx = new ArrayList<>();
-	private List<SetupMethod> beforeEachOutMainTx = new ArrayList<>();
+	private volatile Connection savepointConnection;
+	
+	private Random rand;
 	
 	/**
-	 * After and before a dedicated test in the group in the same transaction
-	 * than the test method.
+	 * Constructor
+	 * @param group The test group to configure
+	 * @param rand The random generator to shuffle the tests
 	 */
-	private Map<String, List<SetupMethod>> afterInMainTx = new HashMap<>();
-	private Map<String, List<SetupMethod>> beforeInMainTx = new HashMap<>();
-	
+	public TestGroupDefinition(TestGroup group, Random rand) {
+		this(group, rand, new MethodHandleInvoker());
+	}
+
 	/**
-	 * After and before a dedicated test in the group in a different transaction
-	 * than the test method. This means it will be rollbacked.
+	 * Constructor
+	 * @param group The test group to configure
+	 * @param rand The random generator to shuffle the tests
+	 * @param invoker The invoker to bind the test and setup methods
 	 */
-	private Map<String, List<SetupMethod>> afterOutMainTx = new HashMap<>();
-	private Map<String, List<SetupMethod>> beforeOutMainTx = new HashMap<>();
-	
-	private Random rand;
-	
+	public TestGroupDefinition(TestGroup group, Random rand, Invoker invoker) {
+		this(group, rand, invoker, null);
+	}
+
 	/**
 	 * Constructor
 	 * @param group The test group to configure
+	 * @param rand The random generator to shuffle the tests
+	 * @param invoker The invoker to bind the test and setup methods
+	 * @param filter The filter that selects the tests of the run, null to select all the tests. The filter is
+	 * applied once per test and the tests keep the order they would have without filter.
 	 */
-	public TestGroupDefinition(TestGroup group, Random rand) {
+	public TestGroupDefinition(TestGroup group, Random rand, Invoker invoker, Filter filter) {
 		if (rand == null) {
 			throw new IllegalArgumentException("You must provide a valid Random instance");
 		}
+
+		if (invoker == null) {
+			throw new IllegalArgumentException("You must provide a valid Invoker instance");
+		}
 		
 		this.rand = rand;
+		this.invoker = invoker;
 		
-		name = group.getClass().getCanonicalName();
 		this.group = group;
-		
-		// Check the methods
-		checkMethods();
-		
-		/**
-		 * Register test methods first to be sure refKey from setup configuration
-		 * is present for the check done later.
-		 */
-		registerTestMethod();
-		registerSetupMethod();
+		metadata = TestGroupMetadata.of(group.getClass());
+		name = metadata.getName();
+
+		for (TestMethod testMethod : metadata.getTestMethods()) {
+			Description description = new Description(name, testMethod.getTestAnnotation(), metadata.getGroupClass(), testMethod.getMethod());
+			description.setInvocation(testMethod.getInvocation(invoker));
+			description.setExecutionPlan(testMethod.getExecutionPlan());
+			description.setProbeMetadata(testMethod.getProbeMetadata());
+			testMethods.add(description);
+		}
+
+		Collections.shuffle(testMethods, rand);
+
+		if (filter != null) {
+			for (Iterator<Description> iterator = testMethods.iterator(); iterator.hasNext(); ) {
+				Description description = iterator.next();
+
+				if (!filter.isRunnable(description)) {
+					LOGGER.info("Test " + description.getName() + " will not run");
+					iterator.remove();
+				}
+			}
+		}
 	}
 
 	public List<SetupMethod> getAfterAll() {
-		return getOrderedList(afterAll);
+		return metadata.getSetupMethods(TestSetupType.AFTER_ALL);
 	}
 	
 	public List<SetupMethod> getBeforeAll() {
-		return getOrderedList(beforeAll);
+		return metadata.getSetupMethods(TestSetupType.BEFORE_ALL);
 	}
 	
 	public List<SetupMethod> getAfterEachInMainTx() {
-		return getOrderedList(afterEachInMainTx);
+		return metadata.getSetupMethods(TestSetupType.AFTER_EACH_IN_MAIN_TX);
 	}
 	
 	public List<SetupMethod> getBeforeEachInMainTx() {
-		return getOrderedList(beforeEachInMainTx);
+		return metadata.getSetupMethods(TestSetupType.BEFORE_EACH_IN_MAIN_TX);
 	}
 	
 	public List<SetupMethod> getAfterEachOutMainTx() {
-		return getOrderedList(afterEachOutMainTx);
+		return metadata.getSetupMethods(TestSetupType.AFTER_EACH_OUT_MAIN_TX);
 	}
 	
 	public List<SetupMethod> getBeforeEachOutMainTx() {
-		return getOrderedList(beforeEachOutMainTx);
+		return metadata.getSetupMethods(TestSetupType.BEFORE_EACH_OUT_MAIN_TX);
 	}
 	
 	public Map<String, List<SetupMethod>> getAfterInMainTx() {
-		return afterInMainTx;
+		return metadata.getSetupMethodsByKey(TestSetupType.AFTER_IN_MAIN_TX);
 	}
 	
 	public List<SetupMethod> getAfterInMainTx(Description description) {
-		return getOrderedList(getMethods(description, afterInMainTx));
+		return getExecutionPlan(description).getMethodList(TestSetupType.AFTER_IN_MAIN_TX);
 	}
 	
 	public Map<String, List<SetupMethod>> getBeforeInMainTx() {
-		return beforeInMainTx;
+		return metadata.getSetupMethodsByKey(TestSetupType.BEFORE_IN_MAIN_TX);
 	}
 	
 	public List<SetupMethod> getBeforeInMainTx(Description description) {
-		return getOrderedList(getMethods(description, beforeInMainTx));
+		return getExecutionPlan(description).getMethodList(TestSetupType.BEFORE_IN_MAIN_TX);
 	}
 
 	public Map<String, List<SetupMethod>> getAfterOutMainTx() {
-		return afterOutMainTx;
+		return metadata.getSetupMethodsByKey(TestSetupType.AFTER_OUT_MAIN_TX);
 	}
 	
 	public List<SetupMethod> getAfterOutMainTx(Description description) {
-		return getOrderedList(getMethods(description, afterOutMainTx));
+		return getExecutionPlan(description).getMethodList(TestSetupType.AFTER_OUT_MAIN_TX);
 	}
 	
 	public Map<String, List<SetupMethod>> getBeforeOutMainTx() {
-		return beforeOutMainTx;
+		return metadata.getSetupMethodsByKey(TestSetupType.BEFORE_OUT_MAIN_TX);
 	}
 	
 	public List<SetupMethod> getBeforeOutMainTx(Description description) {
-		return getOrderedList(getMethods(description, beforeOutMainTx));
+		return getExecutionPlan(description).getMethodList(TestSetupType.BEFORE_OUT_MAIN_TX);
 	}
 	
 	public String getName() {
@@ -164,245 +192,64 @@ public class TestGroupDefinition {
 		return group;
 	}
 
-	public List<Description> getTestMethods() {
-		return testMethods;
+	public boolean isSequential() {
+		return metadata.isSequential();
 	}
-	
-	/**
-	 * Retrieve the list of methods corresponding to a method
-	 * 
-	 * @param description The description
-	 * @param methods The methods map to extract setup methods
-	 * @return The extracted setup methods
-	 */
-	private List<SetupMethod> getMethods(Description description, Map<String,List<SetupMethod>> methods) {
-		List<SetupMethod> extractedMethods = new ArrayList<>();
-		
-		// Get the test methods by method name
-		if (methods.containsKey(description.getSimpleName())) {
-			extractedMethods.addAll(methods.get(description.getSimpleName()));
-		}
-		
-		// Get the setup methods by reference key
-		if (methods.containsKey(description.getTestAnnotation().setupKey())) {
-			extractedMethods.addAll(methods.get(description.getTestAnnotation().setupKey()));
-		}
-		
-		return extractedMethods;
-	}
-	
-	/**
-	 * Check if there are methods that are annotated with both annotations
-	 */
-	private void checkMethods() {
-		for (Method method : group.getClass().getDeclaredMethods()) {
-			Test testAnnotation = method.getAnnotation(Test.class);
-			TestSetup setupAnnotation = method.getAnnotation(TestSetup.class);
-			
-			if (testAnnotation != null && setupAnnotation != null) {
-				LOGGER.warn(
-					"The test [" + name + "." + method.getName() + "] is not correctly configured. " +
-					"The method cannot be annotated with both annotation " + Test.class.getName() + " and " +
-					TestSetup.class.getName());
-			}
-		}
-	}
-	
-	/**
-	 * Register a test method
-	 */
-	private void registerTestMethod() {
-		for (Method method : group.getClass().getDeclaredMethods()) {
-			Test testAnnotation = method.getAnnotation(Test.class);
-			TestSetup setupAnnotation = method.getAnnotation(TestSetup.class);
-	
-			if (testAnnotation != null && setupAnnotation == null) {
-				boolean testValid = true;
 
-				// Check if the test method has the right args to run
-				if (method.getParameterTypes().length == 0 || method.getParameterTypes().length > 1 || method.getParameterTypes()[0] != Description.class) {
-					LOGGER.warn("The test method " + name + "." + method.getName() + "] should not have Description as argument");
-					testValid = false;
-				} 
+	public Connection getSavepointConnection() {
+		return savepointConnection;
+	}
 
-				// Check if the return type is the one expected
-				if (method.getReturnType() != Description.class) {
-					LOGGER.warn("The test method [" + name + "." + method.getName() + "] must have [" + Description.class.getCanonicalName() + "] as result type");
-					testValid = false;
-				}
+	public void setSavepointConnection(Connection savepointConnection) {
+		this.savepointConnection = savepointConnection;
+	}
 
-				if (testValid) {
-					if (LOGGER.isDebugEnabled()) {
-						LOGGER.debug("The test method: " + name + "." + method.getName() + " is registered.");
-					}
-					
-					Description description = new Description(name, testAnnotation, group.getClass(), method);
-					
-					testMethods.add(description);
-					
-					// Track the methods that have some setup configuration
-					if (testAnnotation.setupKey() != null && !testAnnotation.setupKey().isEmpty()) {
-						setupedMethods.add(description);
-					}
-				}
-			}
-		}
-		
-		Collections.shuffle(testMethods, rand);
+	public Invoker getInvoker() {
+		return invoker;
 	}
-	
+
 	/**
-	 * Register a setup method to wrap tests
+	 * @return The tests of the run, only the selected ones when the definition is created with a filter
 	 */
-	private void registerSetupMethod() {
-		for (Method method : group.getClass().getDeclaredMethods()) {
-			Test testAnnotation = method.getAnnotation(Test.class);
-			TestSetup setupAnnotation = method.getAnnotation(TestSetup.class);
-
-			if (testAnnotation == null && setupAnnotation != null) {
-				boolean shouldContinue = true;
-
-				// Check if the setup method has no args to be run
-				if (method.getParameterTypes().length > 0) {
-					LOGGER.warn("The setup method " + name + "." + method.getName() + "] should not have any parameter");
-					shouldContinue = false;
-				} 
-
-				// Check if the return type is the one expected
-				if (!method.getReturnType().equals(Void.TYPE)) {
-					LOGGER.warn("The setup method [" + name + "." + method.getName() + "] return value must be void.");
-					shouldContinue = false;
-				}
-
-				if (shouldContinue) {
-					switch (setupAnnotation.value()) {
-						case AFTER_ALL:
-							addToList(afterAll, setupAnnotation, method);
-							break;
-
-						case BEFORE_ALL:
-							addToList(beforeAll, setupAnnotation, method);
-							break;
-
-						case AFTER_EACH_IN_MAIN_TX:
-							addToList(afterEachInMainTx, setupAnnotation, method);
-							break;
-
-						case AFTER_EACH_OUT_MAIN_TX:
-							addToList(afterEachOutMainTx, setupAnnotation, method);
-							break;
-
-						case BEFORE_EACH_IN_MAIN_TX:
-							addToList(beforeEachInMainTx, setupAnnotation, method);
-							break;
-
-						case BEFORE_EACH_OUT_MAIN_TX:
-							addToList(beforeEachOutMainTx, setupAnnotation, method);
-							break;
-
-						case BEFORE_IN_MAIN_TX:
-							registerSetupMethod(setupAnnotation, method, beforeInMainTx);
-							break;
-
-						case BEFORE_OUT_MAIN_TX:
-							registerSetupMethod(setupAnnotation, method, beforeOutMainTx);
-							break;
-
-						case AFTER_IN_MAIN_TX:
-							registerSetupMethod(setupAnnotation, method, afterInMainTx);
-							break;
-
-						case AFTER_OUT_MAIN_TX:
-							registerSetupMethod(setupAnnotation, method, afterOutMainTx);
-							break;
-					}
-				}
-			}
-		}
+	public List<Description> getTestMethods() {
+		return testMethods;
 	}
-	
+
 	/**
-	 * Register a setup method for a specific test method
-	 * @param setupAnnotation The setup annotation for the configuration
-	 * @param setupMethod The setup method to register
-	 * @param setupMethods The registered methods to update
+	 * @return The execution plan of the setup methods that apply to the whole group
 	 */
-	private void registerSetupMethod(TestSetup setupAnnotation, Method setupMethod, Map<String, List<SetupMethod>> setupMethods) {
-		// Check if the pointed method is configured
-		if (setupAnnotation.refSetupKey() == null || setupAnnotation.refSetupKey().length == 0) {
-			LOGGER.warn("The refSetupKey configuration is missing on " + name + "." + setupMethod.getName());
-		}
-
-		else {
-			// Check every ref setup key
-			for (String refSetupKey : setupAnnotation.refSetupKey()) {
-				Method testMethod = null;
-
-				// Try to find a test method that is refered by the ref key
-				for (Description description : setupedMethods) {
-					if (refSetupKey.equals(description.getTestAnnotation().setupKey())) {
-						testMethod = description.getMethod();
-						break;
-					}
-				}
-
-				// If no test method is found, try to retrieve the method through its method name
-				if (testMethod == null) {
-					try {
-						testMethod = group.getClass().getDeclaredMethod(setupMethod.getName());
-					}
-					catch (NoSuchMethodException nsme) { }
-				}
-
-				// If a test method is found, register it
-				if (testMethod != null) {
-					if (!setupMethods.containsKey(refSetupKey)) {
-						setupMethods.put(refSetupKey, new ArrayList<SetupMethod>());
-					}
-
-					// Register the setup method
-					addToList(setupMethods.get(refSetupKey), setupAnnotation, setupMethod);
-				}
-				else {
-					LOGGER.warn("Unable to find a test method that correspond to " + refSetupKey);
-				}
-			}
-		}
+	public ExecutionPlan getExecutionPlan() {
+		return metadata.getExecutionPlan();
 	}
-	
+
 	/**
-	 * Add a setup method to a specific list
-	 * 
-	 * @param list List to add the method
-	 * @param setup The setup annotation
-	 * @param method The method to add
+	 * Retrieve the execution plan of a test. The plan is compiled once when the group
+	 * is discovered, only the descriptions created outside of the definition require
+	 * to compile it on the fly.
+	 *
+	 * @param description The description of the test
+	 * @return The execution plan
 	 */
-	private void addToList(List<SetupMethod> list, TestSetup setup, Method method) {
-		if (setup.index() > 0) {
-			list.add(new SetupMethod(method, setup.index()));
+	public ExecutionPlan getExecutionPlan(Description description) {
+		if (description.getExecutionPlan() != null) {
+			return description.getExecutionPlan();
 		}
-		else {
-			list.add(new SetupMethod(method));
+
+		TestMethod testMethod = metadata.getTestMethod(description.getMethod());
+		if (testMethod != null) {
+			return testMethod.getExecutionPlan();
 		}
-	}
 
-	/**
-	 * Order the list
-	 * 
-	 * @param list The list to order
-	 * @return The ordered list
-	 */
-	private List<SetupMethod> getOrderedList(List<SetupMethod> list) {
-		Collections.sort(list);
-		return list;
+		return ExecutionPlan.compile(metadata, description.getSimpleName(), description.getTestAnnotation().setupKey());
 	}
 	
 	/**
 	 * Allow to order the setup methods
 	 */
-	public class SetupMethod implements  Comparable<SetupMethod> {
+	public static class SetupMethod implements  Comparable<SetupMethod> {
 		private Method method;
 		private int index;
+		private InvocationBinding binding;
 
 		/**
 		 * Constructor
@@ -411,6 +258,7 @@ public class TestGroupDefinition {
 		 */
 		public SetupMethod(Method method) {
 			this.method = method;
+			this.binding = new InvocationBinding(method);
 		}
 		
 		/**
@@ -428,6 +276,16 @@ public class TestGroupDefinition {
 			return method;
 		}
 
+		/**
+		 * Retrieve the setup method bound once with the invoker
+		 *
+		 * @param invoker The invoker
+		 * @return The invocation
+		 */
+		public Invocation getInvocation(Invoker invoker) {
+			return binding.get(invoker);
+		}
+
 		@Override
 		public int compareTo(SetupMethod o) {
 			if (this.index < o.index) {
@@ -0,0 +1,449 @@
+package io.probedock.jee.itf.model;
+
+import io.probedock.jee.itf.SnapshotTestGroup;
+import io.probedock.jee.itf.annotations.Sequential;
+import io.probedock.jee.itf.annotations.Test;
+import io.probedock.jee.itf.annotations.TestSetup;
+import io.probedock.jee.itf.annotations.TestSetupType;
+import io.probedock.jee.itf.invokers.Invocation;
+import io.probedock.jee.itf.invokers.InvocationBinding;
+import io.probedock.jee.itf.invokers.Invoker;
+import io.probedock.jee.itf.model.TestGroupDefinition.SetupMethod;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * The test group metadata contains everything that can be discovered by reflection
+ * on a test group class: the test methods, the setup methods already ordered and
+ * the setup methods registered by reference key.
+ * <p/>
+ * The metadata does not depend on a test run. It is immutable and discovered only
+ * once per class, then reused by every {@link TestGroupDefinition} created for that
+ * class.
+ *
+ * @author Laurent Prevost <laurent.prevost@probedock.io>
+ */
+public final class TestGroupMetadata {
+	private static final Log LOGGER = LogFactory.getLog(TestGroupMetadata.class);
+
+	/**
+	 * Metadata cache by test group class
+	 */
+	private static final ClassValue<TestGroupMetadata> CACHE = new ClassValue<TestGroupMetadata>() {
+		@Override
+		protected TestGroupMetadata computeValue(Class<?> type) {
+			return new TestGroupMetadata(type);
+		}
+	};
+
+	/**
+	 * The name of the test group
+	 */
+	private final String name;
+
+	/**
+	 * The test group class
+	 */
+	private final Class<?> groupClass;
+
+	/**
+	 * Define if the test group must run alone and sequentially, the groups that restore their tables
+	 * always do as they would capture and remove the rows of the groups running at the same time
+	 */
+	private final boolean sequential;
+
+	/**
+	 * Test methods in declaration order
+	 */
+	private final List<TestMethod> testMethods;
+
+	/**
+	 * Test methods by reflected method
+	 */
+	private final Map<Method, TestMethod> testMethodsByMethod;
+
+	/**
+	 * Execution plan of the setup methods that apply to the whole group
+	 */
+	private final ExecutionPlan groupExecutionPlan;
+
+	/**
+	 * Ordered setup methods that apply to the whole group (all and each)
+	 */
+	private final Map<TestSetupType, List<SetupMethod>> groupSetupMethods;
+
+	/**
+	 * Ordered setup methods that apply to specific tests by reference key
+	 */
+	private final Map<TestSetupType, Map<String, List<SetupMethod>>> testSetupMethods;
+
+	/**
+	 * Retrieve the metadata of a test group class. The metadata is discovered
+	 * the first time and then retrieved from the cache.
+	 *
+	 * @param groupClass The test group class
+	 * @return The metadata
+	 */
+	public static TestGroupMetadata of(Class<?> groupClass) {
+		return CACHE.get(groupClass);
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param groupClass The test group class to discover
+	 */
+	private TestGroupMetadata(Class<?> groupClass) {
+		this.groupClass = groupClass;
+		name = groupClass.getCanonicalName();
+		sequential = groupClass.isAnnotationPresent(Sequential.class) || SnapshotTestGroup.class.isAssignableFrom(groupClass);
+
+		List<Method> discoveredTestMethods = new ArrayList<>();
+		List<Method> discoveredSetupMethods = new ArrayList<>();
+
+		// Single scan of the methods, the annotations are read once
+		for (Method method : groupClass.getDeclaredMethods()) {
+			Test testAnnotation = method.getAnnotation(Test.class);
+			TestSetup setupAnnotation = method.getAnnotation(TestSetup.class);
+
+			if (testAnnotation != null && setupAnnotation != null) {
+				LOGGER.warn(
+					"The test [" + name + "." + method.getName() + "] is not correctly configured. " +
+					"The method cannot be annotated with both annotation " + Test.class.getName() + " and " +
+					TestSetup.class.getName());
+			}
+			else if (testAnnotation != null && isValidTestMethod(method)) {
+				discoveredTestMethods.add(method);
+			}
+			else if (setupAnnotation != null && isValidSetupMethod(method)) {
+				discoveredSetupMethods.add(method);
+			}
+		}
+
+		/**
+		 * Setup methods are registered once all the test methods are known to be
+		 * sure refKey from setup configuration is present for the check.
+		 */
+		Map<TestSetupType, List<SetupMethod>> groupMethods = new EnumMap<>(TestSetupType.class);
+		Map<TestSetupType, Map<String, List<SetupMethod>>> testMethodsByKey = new EnumMap<>(TestSetupType.class);
+		for (TestSetupType type : TestSetupType.values()) {
+			if (isTestSpecific(type)) {
+				testMethodsByKey.put(type, new HashMap<String, List<SetupMethod>>());
+			}
+			else {
+				groupMethods.put(type, new ArrayList<SetupMethod>());
+			}
+		}
+
+		for (Method method : discoveredSetupMethods) {
+			TestSetup setupAnnotation = method.getAnnotation(TestSetup.class);
+
+			if (isTestSpecific(setupAnnotation.value())) {
+				registerSetupMethod(setupAnnotation, method, discoveredTestMethods, testMethodsByKey.get(setupAnnotation.value()));
+			}
+			else {
+				addToList(groupMethods.get(setupAnnotation.value()), setupAnnotation, method);
+			}
+		}
+
+		// Order everything once for all
+		for (Entry<TestSetupType, List<SetupMethod>> entry : groupMethods.entrySet()) {
+			entry.setValue(orderedList(entry.getValue()));
+		}
+
+		for (Entry<TestSetupType, Map<String, List<SetupMethod>>> entry : testMethodsByKey.entrySet()) {
+			for (Entry<String, List<SetupMethod>> keyEntry : entry.getValue().entrySet()) {
+				keyEntry.setValue(orderedList(keyEntry.getValue()));
+			}
+			entry.setValue(Collections.unmodifiableMap(entry.getValue()));
+		}
+
+		groupSetupMethods = Collections.unmodifiableMap(groupMethods);
+		testSetupMethods = Collections.unmodifiableMap(testMethodsByKey);
+
+		// Compile the execution plans now that every setup method is known
+		groupExecutionPlan = ExecutionPlan.compile(this);
+
+		List<TestMethod> compiledTestMethods = new ArrayList<>();
+		Map<Method, TestMethod> compiledTestMethodsByMethod = new HashMap<>();
+		for (Method method : discoveredTestMethods) {
+			Test testAnnotation = method.getAnnotation(Test.class);
+			TestMethod testMethod = new TestMethod(
+				method,
+				testAnnotation,
+				ExecutionPlan.compile(this, method.getName(), testAnnotation.setupKey()),
+				ProbeTestMetadata.of(method, groupClass, name + "." + method.getName())
+			);
+			compiledTestMethods.add(testMethod);
+			compiledTestMethodsByMethod.put(method, testMethod);
+		}
+
+		testMethods = Collections.unmodifiableList(compiledTestMethods);
+		testMethodsByMethod = Collections.unmodifiableMap(compiledTestMethodsByMethod);
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public Class<?> getGroupClass() {
+		return groupClass;
+	}
+
+	public boolean isSequential() {
+		return sequential;
+	}
+
+	/**
+	 * @return The test methods in declaration order
+	 */
+	public List<TestMethod> getTestMethods() {
+		return testMethods;
+	}
+
+	/**
+	 * Retrieve a test method from its reflected method
+	 *
+	 * @param method The reflected method
+	 * @return The test method, null if the method is not a test of the group
+	 */
+	public TestMethod getTestMethod(Method method) {
+		return testMethodsByMethod.get(method);
+	}
+
+	/**
+	 * @return The execution plan of the setup methods that apply to the whole group
+	 */
+	public ExecutionPlan getExecutionPlan() {
+		return groupExecutionPlan;
+	}
+
+	/**
+	 * Retrieve the ordered setup methods that apply to the whole group
+	 *
+	 * @param type One of the ALL or EACH setup types
+	 * @return The ordered setup methods, null for the test specific setup types
+	 */
+	public List<SetupMethod> getSetupMethods(TestSetupType type) {
+		return groupSetupMethods.get(type);
+	}
+
+	/**
+	 * Retrieve the ordered setup methods that apply to specific tests
+	 *
+	 * @param type One of the test specific setup types
+	 * @return The ordered setup methods by reference key, null for the ALL and EACH setup types
+	 */
+	public Map<String, List<SetupMethod>> getSetupMethodsByKey(TestSetupType type) {
+		return testSetupMethods.get(type);
+	}
+
+	/**
+	 * Check if a test method has the right signature to be run
+	 *
+	 * @param method The method to check
+	 * @return True if the test method is valid
+	 */
+	private boolean isValidTestMethod(Method method) {
+		boolean testValid = true;
+
+		// Check if the test method has the right args to run
+		if (method.getParameterTypes().length == 0 || method.getParameterTypes().length > 1 || method.getParameterTypes()[0] != Description.class) {
+			LOGGER.warn("The test method " + name + "." + method.getName() + "] should not have Description as argument");
+			testValid = false;
+		}
+
+		// Check if the return type is the one expected
+		if (method.getReturnType() != Description.class) {
+			LOGGER.warn("The test method [" + name + "." + method.getName() + "] must have [" + Description.class.getCanonicalName() + "] as result type");
+			testValid = false;
+		}
+
+		if (testValid && LOGGER.isDebugEnabled()) {
+			LOGGER.debug("The test method: " + name + "." + method.getName() + " is registered.");
+		}
+
+		return testValid;
+	}
+
+	/**
+	 * Check if a setup method has the right signature to be run
+	 *
+	 * @param method The method to check
+	 * @return True if the setup method is valid
+	 */
+	private boolean isValidSetupMethod(Method method) {
+		boolean shouldContinue = true;
+
+		// Check if the setup method has no args to be run
+		if (method.getParameterTypes().length > 0) {
+			LOGGER.warn("The setup method " + name + "." + method.getName() + "] should not have any parameter");
+			shouldContinue = false;
+		}
+
+		// Check if the return type is the one expected
+		if (!method.getReturnType().equals(Void.TYPE)) {
+			LOGGER.warn("The setup method [" + name + "." + method.getName() + "] return value must be void.");
+			shouldContinue = false;
+		}
+
+		return shouldContinue;
+	}
+
+	/**
+	 * Register a setup method for a specific test method
+	 * @param setupAnnotation The setup annotation for the configuration
+	 * @param setupMethod The setup method to register
+	 * @param candidates The test methods that could be refered
+	 * @param setupMethods The registered methods to update
+	 */
+	private void registerSetupMethod(TestSetup setupAnnotation, Method setupMethod, List<Method> candidates, Map<String, List<SetupMethod>> setupMethods) {
+		// Check if the pointed method is configured
+		if (setupAnnotation.refSetupKey() == null || setupAnnotation.refSetupKey().length == 0) {
+			LOGGER.warn("The refSetupKey configuration is missing on " + name + "." + setupMethod.getName());
+		}
+
+		else {
+			// Check every ref setup key
+			for (String refSetupKey : setupAnnotation.refSetupKey()) {
+				Method testMethod = null;
+
+				// Try to find a test method that is refered by the ref key
+				for (Method candidate : candidates) {
+					String setupKey = candidate.getAnnotation(Test.class).setupKey();
+					if (setupKey != null && !setupKey.isEmpty() && refSetupKey.equals(setupKey)) {
+						testMethod = candidate;
+						break;
+					}
+				}
+
+				// If no test method is found, try to retrieve the method through its method name
+				if (testMethod == null) {
+					try {
+						testMethod = groupClass.getDeclaredMethod(setupMethod.getName());
+					}
+					catch (NoSuchMethodException nsme) { }
+				}
+
+				// If a test method is found, register it
+				if (testMethod != null) {
+					if (!setupMethods.containsKey(refSetupKey)) {
+						setupMethods.put(refSetupKey, new ArrayList<SetupMethod>());
+					}
+
+					// Register the setup method
+					addToList(setupMethods.get(refSetupKey), setupAnnotation, setupMethod);
+				}
+				else {
+					LOGGER.warn("Unable to find a test method that correspond to " + refSetupKey);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Add a setup method to a specific list
+	 *
+	 * @param list List to add the method
+	 * @param setup The setup annotation
+	 * @param method The method to add
+	 */
+	private void addToList(List<SetupMethod> list, TestSetup setup, Method method) {
+		if (setup.index() > 0) {
+			list.add(new SetupMethod(method, setup.index()));
+		}
+		else {
+			list.add(new SetupMethod(method));
+		}
+	}
+
+	/**
+	 * Order a list and make it immutable
+	 *
+	 * @param list The list to order
+	 * @return The ordered list
+	 */
+	private static List<SetupMethod> orderedList(List<SetupMethod> list) {
+		Collections.sort(list);
+		return Collections.unmodifiableList(list);
+	}
+
+	/**
+	 * @param type The setup type
+	 * @return True if the setup type applies to specific tests through reference keys
+	 */
+	private static boolean isTestSpecific(TestSetupType type) {
+		switch (type) {
+			case BEFORE_IN_MAIN_TX:
+			case BEFORE_OUT_MAIN_TX:
+			case AFTER_IN_MAIN_TX:
+			case AFTER_OUT_MAIN_TX:
+				return true;
+
+			default:
+				return false;
+		}
+	}
+
+	/**
+	 * A test method with its annotation and its execution plan
+	 */
+	public static final class TestMethod {
+		private final Method method;
+		private final Test testAnnotation;
+		private final ExecutionPlan executionPlan;
+		private final ProbeTestMetadata probeMetadata;
+		private final InvocationBinding binding;
+
+		/**
+		 * Constructor
+		 *
+		 * @param method The test method
+		 * @param testAnnotation The test annotation of the method
+		 * @param executionPlan The execution plan of the test
+		 * @param probeMetadata The Probe Dock information of the test
+		 */
+		private TestMethod(Method method, Test testAnnotation, ExecutionPlan executionPlan, ProbeTestMetadata probeMetadata) {
+			this.method = method;
+			this.testAnnotation = testAnnotation;
+			this.executionPlan = executionPlan;
+			this.probeMetadata = probeMetadata;
+			this.binding = new InvocationBinding(method);
+		}
+
+		public Method getMethod() {
+			return method;
+		}
+
+		public Test getTestAnnotation() {
+			return testAnnotation;
+		}
+
+		public ExecutionPlan getExecutionPlan() {
+			return executionPlan;
+		}
+
+		public ProbeTestMetadata getProbeMetadata() {
+			return probeMetadata;
+		}
+
+		/**
+		 * Retrieve the test method bound once with the invoker
+		 *
+		 * @param invoker The invoker
+		 * @return The invocation
+		 */
+		public Invocation getInvocation(Invoker invoker) {
+			return binding.get(invoker);
+		}
+	}
+}
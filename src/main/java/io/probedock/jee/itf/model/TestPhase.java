@@ -0,0 +1,44 @@
+package io.probedock.jee.itf.model;
+
+/**
+ * The phases of the execution of a test, in the order they run. The duration of each
+ * phase is recorded in nanoseconds in the {@link Description} of the test.
+ * 
+ * @author Laurent Prevost <laurent.prevost@probedock.io>
+ */
+public enum TestPhase {
+	/**
+	 * The setup methods that run before the test in their own transactions
+	 */
+	BEFORE_OUT_MAIN_TX,
+
+	/**
+	 * The start of the main transaction of the test
+	 */
+	BEGIN,
+
+	/**
+	 * The setup methods that run before the test in the main transaction
+	 */
+	BEFORE_IN_MAIN_TX,
+
+	/**
+	 * The test method itself
+	 */
+	TEST,
+
+	/**
+	 * The setup methods that run after the test in the main transaction
+	 */
+	AFTER_IN_MAIN_TX,
+
+	/**
+	 * The commit or the rollback of the main transaction
+	 */
+	COMPLETION,
+
+	/**
+	 * The setup methods that run after the test in their own transactions
+	 */
+	AFTER_OUT_MAIN_TX
+}
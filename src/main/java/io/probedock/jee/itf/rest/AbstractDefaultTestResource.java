@@ -1,28 +1,55 @@
 package io.probedock.jee.itf.rest;
 
 import io.probedock.jee.itf.TestController;
+import io.probedock.jee.itf.TestRunOptions;
 import io.probedock.jee.itf.filters.DefaultFilter;
 import io.probedock.jee.itf.filters.Filter;
+import io.probedock.jee.itf.listeners.BackpressurePolicy;
+import io.probedock.jee.itf.listeners.DefaultListener;
+import io.probedock.jee.itf.listeners.Listener;
+import io.probedock.jee.itf.scheduling.DurationHistory;
+import io.probedock.jee.itf.scheduling.ShardStrategy;
 
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
 import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.Status;
+import javax.ws.rs.core.UriInfo;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
 /**
  * Expose the method to start the integration tests through a REST service.
+ * <p/>
+ * The tests can be run synchronously with a POST on the resource itself, or asynchronously with a POST on the
+ * {@code runs} sub-resource. An asynchronous run is accepted right away and can be followed through its status,
+ * result and events sub-resources.
  *
  * @author Laurent Prevost <laurent.prevost@probedock.io>
  */
 public abstract class AbstractDefaultTestResource {
     private static final Log LOGGER = LogFactory.getLog(AbstractDefaultTestResource.class);
 
+    /**
+     * Registry of the asynchronous runs used by default, shared by the resource instances
+     */
+    private static final TestRunRegistry DEFAULT_REGISTRY = new TestRunRegistry(TestRunRegistry.DEFAULT_CAPACITY);
+
     /**
      * Start the test through the integration test controller
      *
@@ -34,20 +61,289 @@ public abstract class AbstractDefaultTestResource {
         // Logging
         LOGGER.info(configuration.toString());
 
+        TestRunOptions options = createOptions(configuration);
+        if (!isShardValid(options)) {
+            return Response.status(Status.BAD_REQUEST).build();
+        }
+
         // Get the controller
         TestController testController = getController();
 
+        // Run the integration tests
+        LOGGER.info("Generator seed: " + testController.run(createFilters(configuration), null, configuration.getSeed(), options));
+
+        return Response.ok().build();
+    }
+
+    /**
+     * Start the test through the integration test controller in the background. The response is sent right away
+     * with the identifier of the run.
+     *
+     * @param configuration The configuration to launch the test run
+     * @param uriInfo The information of the request to build the location of the run
+     * @return Accepted with the status of the run, bad request when the shard is invalid, service unavailable when
+     * too many runs are in progress
+     */
+    @POST
+    @Path("runs")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response launch(LaunchConfigurationTO configuration, @Context UriInfo uriInfo) {
+        LOGGER.info(configuration.toString());
+
+        final TestRunOptions options = createOptions(configuration);
+        if (!isShardValid(options)) {
+            return Response.status(Status.BAD_REQUEST).build();
+        }
+
+        TestRunRegistry registry = getRunRegistry();
+
+        final TestRun run = registry.create(configuration);
+        if (run == null) {
+            LOGGER.warn("Unable to launch the test run, too many runs are in progress.");
+            return Response.status(Status.SERVICE_UNAVAILABLE).build();
+        }
+
+        final TestController testController = getController();
+        final Map<String, Filter> filters = createFilters(configuration);
+        final Long seed = configuration.getSeed();
+
+        try {
+            getRunExecutorService().submit(new Runnable() {
+                @Override
+                public void run() {
+                    Map<String, Listener> listeners = new HashMap<>();
+                    listeners.put("defaultListener", new DefaultListener("default listener"));
+                    listeners.put("testRun", run);
+
+                    try {
+                        Long usedSeed = testController.run(filters, listeners, seed, options);
+                        LOGGER.info("Test run " + run.getId() + " done. Generator seed: " + usedSeed);
+                        run.done(usedSeed);
+                    } catch (RuntimeException e) {
+                        LOGGER.error("Test run " + run.getId() + " failed because: " + e.getMessage(), e);
+                        run.failed(e.getMessage());
+                    }
+                }
+            });
+        } catch (RejectedExecutionException ree) {
+            LOGGER.error("Unable to submit the test run " + run.getId() + " because: " + ree.getMessage(), ree);
+            registry.remove(run.getId());
+            return Response.status(Status.SERVICE_UNAVAILABLE).build();
+        }
+
+        LOGGER.info("Test run " + run.getId() + " accepted.");
+
+        return Response
+            .status(Status.ACCEPTED)
+            .location(uriInfo.getAbsolutePathBuilder().path(run.getId()).build())
+            .entity(new TestRunStatusTO(run))
+            .build();
+    }
+
+    /**
+     * Retrieve the status of an asynchronous test run
+     *
+     * @param runId The identifier of the run
+     * @return The status of the run, not found if the run is unknown or was evicted
+     */
+    @GET
+    @Path("runs/{runId}")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response status(@PathParam("runId") String runId) {
+        TestRun run = getRunRegistry().get(runId);
+
+        if (run == null) {
+            return Response.status(Status.NOT_FOUND).build();
+        }
+
+        return Response.ok(new TestRunStatusTO(run)).build();
+    }
+
+    /**
+     * Retrieve the result of an asynchronous test run
+     *
+     * @param runId The identifier of the run
+     * @return The result of the run, conflict with the status if the run is not finished, not found if the run is
+     * unknown or was evicted
+     */
+    @GET
+    @Path("runs/{runId}/result")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response result(@PathParam("runId") String runId) {
+        TestRun run = getRunRegistry().get(runId);
+
+        if (run == null) {
+            return Response.status(Status.NOT_FOUND).build();
+        } else if (!run.isFinished()) {
+            return Response.status(Status.CONFLICT).entity(new TestRunStatusTO(run)).build();
+        }
+
+        return Response.ok(new TestRunResultTO(run)).build();
+    }
+
+    /**
+     * Stream the events of an asynchronous test run as Server-Sent Events until the run is finished. The events
+     * are {@code runStart}, {@code testStart}, {@code testEnd}, {@code success}, {@code fail} and {@code runEnd}.
+     *
+     * @param runId The identifier of the run
+     * @param lastEventId The identifier of the last event received to resume the stream, all the events by default
+     * @return The stream of events, not found if the run is unknown or was evicted
+     */
+    @GET
+    @Path("runs/{runId}/events")
+    @Produces(TestRunEventStream.MEDIA_TYPE)
+    public Response events(@PathParam("runId") String runId, @HeaderParam("Last-Event-ID") Long lastEventId) {
+        TestRun run = getRunRegistry().get(runId);
+
+        if (run == null) {
+            return Response.status(Status.NOT_FOUND).build();
+        }
+
+        return Response
+            .ok(new TestRunEventStream(run.getEvents(), lastEventId == null ? 0 : lastEventId), TestRunEventStream.MEDIA_TYPE)
+            .header("Cache-Control", "no-cache")
+            .build();
+    }
+
+    /**
+     * Create the filters from the launch configuration
+     *
+     * @param configuration The launch configuration
+     * @return The filters
+     */
+    protected Map<String, Filter> createFilters(LaunchConfigurationTO configuration) {
         Map<String, Filter> itfFilters = new HashMap<>();
         itfFilters.put("nameFilter", new DefaultFilter(configuration.getFilters() == null ? new ArrayList<FilterDefinitionTO>() : configuration.getFilters()));
+        return itfFilters;
+    }
 
-        // Run the integration tests
-        LOGGER.info("Generator seed: " + testController.run(itfFilters, null, configuration.getSeed()));
+    /**
+     * Create the test run options from the launch configuration
+     *
+     * @param configuration The launch configuration
+     * @return The test run options
+     */
+    protected TestRunOptions createOptions(LaunchConfigurationTO configuration) {
+        TestRunOptions options = new TestRunOptions();
 
-        return Response.ok().build();
+        if (configuration.getGroupParallelism() != null) {
+            options.setGroupParallelism(configuration.getGroupParallelism());
+        }
+
+        if (configuration.getTestParallelism() != null) {
+            options.setTestParallelism(configuration.getTestParallelism());
+        }
+
+        if (configuration.getAsyncListeners() != null) {
+            options.setAsyncListeners(configuration.getAsyncListeners());
+        }
+
+        if (configuration.getListenerBufferSize() != null) {
+            options.setListenerBufferSize(configuration.getListenerBufferSize());
+        }
+
+        if (configuration.getListenerBackpressure() != null) {
+            try {
+                options.setListenerBackpressure(BackpressurePolicy.valueOf(configuration.getListenerBackpressure().toUpperCase()));
+            } catch (IllegalArgumentException iae) {
+                LOGGER.warn("Unknown listener backpressure policy [" + configuration.getListenerBackpressure() + "], the default one is used.");
+            }
+        }
+
+        if (configuration.getLongestFirst() != null) {
+            options.setLongestFirst(configuration.getLongestFirst());
+        }
+
+        if (configuration.getShardIndex() != null) {
+            options.setShardIndex(configuration.getShardIndex());
+        }
+
+        if (configuration.getShardCount() != null) {
+            options.setShardCount(configuration.getShardCount());
+        }
+
+        if (configuration.getShardStrategy() != null) {
+            try {
+                options.setShardStrategy(ShardStrategy.valueOf(configuration.getShardStrategy().toUpperCase()));
+            } catch (IllegalArgumentException iae) {
+                LOGGER.warn("Unknown shard strategy [" + configuration.getShardStrategy() + "], the default one is used.");
+            }
+        }
+
+        if (configuration.getShardDurations() != null) {
+            DurationHistory shardDurations = new DurationHistory();
+            for (Map.Entry<String, Long> entry : configuration.getShardDurations().entrySet()) {
+                if (entry.getValue() != null) {
+                    shardDurations.setTestDuration(entry.getKey(), entry.getValue());
+                }
+            }
+            options.setShardDurations(shardDurations);
+        }
+
+        if (configuration.getDefaultTimeoutMs() != null) {
+            options.setDefaultTimeoutMs(configuration.getDefaultTimeoutMs());
+        }
+
+        if (configuration.getMergeSetupTransactions() != null) {
+            options.setMergeSetupTransactions(configuration.getMergeSetupTransactions());
+        }
+
+        return options;
+    }
+
+    /**
+     * Check that the shard to run is one of the shards of the run
+     *
+     * @param options The test run options
+     * @return True if the shard is valid
+     */
+    private boolean isShardValid(TestRunOptions options) {
+        if (options.getShardCount() < 1 || options.getShardIndex() < 0 || options.getShardIndex() >= options.getShardCount()) {
+            LOGGER.warn("Invalid shard " + options.getShardIndex() + " of " + options.getShardCount() + ", the tests will not run.");
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Retrieve the registry of the asynchronous runs. The resources are usually created for each request, the
+     * registry must outlive them.
+     *
+     * @return The registry, a bounded registry shared by all the resources by default
+     */
+    protected TestRunRegistry getRunRegistry() {
+        return DEFAULT_REGISTRY;
+    }
+
+    /**
+     * Retrieve the executor service used to run the asynchronous test runs. The executor should be managed by the
+     * container (for example a {@code ManagedExecutorService} injected with {@code @Resource}).
+     *
+     * @return The executor service, by default a single daemon thread that runs the test runs one after the other
+     */
+    protected ExecutorService getRunExecutorService() {
+        return DefaultRunExecutorHolder.EXECUTOR_SERVICE;
     }
 
     /**
      * @return Retrieve the integration test controller
      */
     public abstract TestController getController();
+
+    /**
+     * Lazy holder of the default executor service, the thread is only created when a run is launched
+     */
+    private static class DefaultRunExecutorHolder {
+        private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+        private static final ExecutorService EXECUTOR_SERVICE = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "jee-itf-run-" + THREAD_COUNTER.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
 }
@@ -1,6 +1,7 @@
 package io.probedock.jee.itf.rest;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * Launch configuration to allow running the test with filters
@@ -12,6 +13,30 @@ public class LaunchConfigurationTO {
 
     private List<FilterDefinitionTO> filters;
 
+    private Integer groupParallelism;
+
+    private Integer testParallelism;
+
+    private Boolean asyncListeners;
+
+    private Integer listenerBufferSize;
+
+    private String listenerBackpressure;
+
+    private Boolean longestFirst;
+
+    private Integer shardIndex;
+
+    private Integer shardCount;
+
+    private String shardStrategy;
+
+    private Map<String, Long> shardDurations;
+
+    private Long defaultTimeoutMs;
+
+    private Boolean mergeSetupTransactions;
+
     public Long getSeed() {
         return seed;
     }
@@ -28,6 +53,102 @@ public class LaunchConfigurationTO {
         this.filters = filters;
     }
 
+    public Integer getGroupParallelism() {
+        return groupParallelism;
+    }
+
+    public void setGroupParallelism(Integer groupParallelism) {
+        this.groupParallelism = groupParallelism;
+    }
+
+    public Integer getTestParallelism() {
+        return testParallelism;
+    }
+
+    public void setTestParallelism(Integer testParallelism) {
+        this.testParallelism = testParallelism;
+    }
+
+    public Boolean getAsyncListeners() {
+        return asyncListeners;
+    }
+
+    public void setAsyncListeners(Boolean asyncListeners) {
+        this.asyncListeners = asyncListeners;
+    }
+
+    public Integer getListenerBufferSize() {
+        return listenerBufferSize;
+    }
+
+    public void setListenerBufferSize(Integer listenerBufferSize) {
+        this.listenerBufferSize = listenerBufferSize;
+    }
+
+    public String getListenerBackpressure() {
+        return listenerBackpressure;
+    }
+
+    public void setListenerBackpressure(String listenerBackpressure) {
+        this.listenerBackpressure = listenerBackpressure;
+    }
+
+    public Boolean getLongestFirst() {
+        return longestFirst;
+    }
+
+    public void setLongestFirst(Boolean longestFirst) {
+        this.longestFirst = longestFirst;
+    }
+
+    public Integer getShardIndex() {
+        return shardIndex;
+    }
+
+    public void setShardIndex(Integer shardIndex) {
+        this.shardIndex = shardIndex;
+    }
+
+    public Integer getShardCount() {
+        return shardCount;
+    }
+
+    public void setShardCount(Integer shardCount) {
+        this.shardCount = shardCount;
+    }
+
+    public String getShardStrategy() {
+        return shardStrategy;
+    }
+
+    public void setShardStrategy(String shardStrategy) {
+        this.shardStrategy = shardStrategy;
+    }
+
+    public Map<String, Long> getShardDurations() {
+        return shardDurations;
+    }
+
+    public void setShardDurations(Map<String, Long> shardDurations) {
+        this.shardDurations = shardDurations;
+    }
+
+    public Long getDefaultTimeoutMs() {
+        return defaultTimeoutMs;
+    }
+
+    public void setDefaultTimeoutMs(Long defaultTimeoutMs) {
+        this.defaultTimeoutMs = defaultTimeoutMs;
+    }
+
+    public Boolean getMergeSetupTransactions() {
+        return mergeSetupTransactions;
+    }
+
+    public void setMergeSetupTransactions(Boolean mergeSetupTransactions) {
+        this.mergeSetupTransactions = mergeSetupTransactions;
+    }
+
     @Override
     public String toString() {
         StringBuilder message = new StringBuilder("Launch configuration: {");
@@ -48,6 +169,50 @@ public class LaunchConfigurationTO {
             message.append("Seed [").append(seed).append("]");
         }
 
+        if (groupParallelism != null) {
+            message.append("Group parallelism [").append(groupParallelism).append("]");
+        }
+
+        if (testParallelism != null) {
+            message.append("Test parallelism [").append(testParallelism).append("]");
+        }
+
+        if (asyncListeners != null) {
+            message.append("Async listeners [").append(asyncListeners).append("]");
+        }
+
+        if (listenerBufferSize != null) {
+            message.append("Listener buffer size [").append(listenerBufferSize).append("]");
+        }
+
+        if (listenerBackpressure != null) {
+            message.append("Listener backpressure [").append(listenerBackpressure).append("]");
+        }
+
+        if (longestFirst != null) {
+            message.append("Longest first [").append(longestFirst).append("]");
+        }
+
+        if (shardIndex != null || shardCount != null) {
+            message.append("Shard [").append(shardIndex).append(" of ").append(shardCount).append("]");
+        }
+
+        if (shardStrategy != null) {
+            message.append("Shard strategy [").append(shardStrategy).append("]");
+        }
+
+        if (shardDurations != null) {
+            message.append("Shard durations [").append(shardDurations.size()).append(" tests]");
+        }
+
+        if (defaultTimeoutMs != null) {
+            message.append("Default timeout [").append(defaultTimeoutMs).append("ms]");
+        }
+
+        if (mergeSetupTransactions != null) {
+            message.append("Merge setup transactions [").append(mergeSetupTransactions).append("]");
+        }
+
         return message.append("}").toString();
     }
 }
@@ -0,0 +1,68 @@
+package io.probedock.jee.itf.rest;
+
+import io.probedock.jee.itf.model.Description;
+
+/**
+ * Snapshot of a test sent in the events of a test run
+ *
+ * @author Laurent Prevost <laurent.prevost@probedock.io>
+ */
+public class TestEventTO {
+    private String name;
+
+    private Boolean passed;
+
+    private Long duration;
+
+    private String message;
+
+    public TestEventTO() {}
+
+    /**
+     * Constructor
+     *
+     * @param description The description of the test
+     * @param finished True to add the result of the test to the snapshot
+     */
+    public TestEventTO(Description description, boolean finished) {
+        name = description.getName();
+
+        if (finished) {
+            passed = description.isPassed();
+            duration = description.getDuration();
+            message = description.getMessage();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Boolean getPassed() {
+        return passed;
+    }
+
+    public void setPassed(Boolean passed) {
+        this.passed = passed;
+    }
+
+    public Long getDuration() {
+        return duration;
+    }
+
+    public void setDuration(Long duration) {
+        this.duration = duration;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
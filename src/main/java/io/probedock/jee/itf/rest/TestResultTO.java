@@ -0,0 +1,128 @@
+package io.probedock.jee.itf.rest;
+
+import io.probedock.jee.itf.model.Description;
+import io.probedock.jee.itf.model.TestPhase;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Result of a test
+ *
+ * @author Laurent Prevost <laurent.prevost@probedock.io>
+ */
+public class TestResultTO {
+    private String name;
+
+    private boolean passed;
+
+    private long duration;
+
+    private String message;
+
+    private Map<String, String> data;
+
+    /**
+     * Duration of each phase of the test in nanoseconds, in the order of execution
+     */
+    private Map<String, Long> phases;
+
+    /**
+     * CPU time of each phase of the test in nanoseconds, empty when the JVM does not support it
+     */
+    private Map<String, Long> cpuTimes;
+
+    /**
+     * Memory allocated by each phase of the test in bytes, empty when the JVM does not support it
+     */
+    private Map<String, Long> allocatedBytes;
+
+    public TestResultTO() {}
+
+    public TestResultTO(Description description) {
+        name = description.getName();
+        passed = description.isPassed();
+        duration = description.getDuration();
+        message = description.getMessage();
+        data = description.getData();
+
+        phases = new LinkedHashMap<>();
+        cpuTimes = new LinkedHashMap<>();
+        allocatedBytes = new LinkedHashMap<>();
+        for (TestPhase phase : TestPhase.values()) {
+            phases.put(phase.name(), description.getPhaseDuration(phase));
+
+            if (description.getPhaseCpuTime(phase) >= 0) {
+                cpuTimes.put(phase.name(), description.getPhaseCpuTime(phase));
+            }
+
+            if (description.getPhaseAllocatedBytes(phase) >= 0) {
+                allocatedBytes.put(phase.name(), description.getPhaseAllocatedBytes(phase));
+            }
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public boolean isPassed() {
+        return passed;
+    }
+
+    public void setPassed(boolean passed) {
+        this.passed = passed;
+    }
+
+    public long getDuration() {
+        return duration;
+    }
+
+    public void setDuration(long duration) {
+        this.duration = duration;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public Map<String, String> getData() {
+        return data;
+    }
+
+    public void setData(Map<String, String> data) {
+        this.data = data;
+    }
+
+    public Map<String, Long> getPhases() {
+        return phases;
+    }
+
+    public void setPhases(Map<String, Long> phases) {
+        this.phases = phases;
+    }
+
+    public Map<String, Long> getCpuTimes() {
+        return cpuTimes;
+    }
+
+    public void setCpuTimes(Map<String, Long> cpuTimes) {
+        this.cpuTimes = cpuTimes;
+    }
+
+    public Map<String, Long> getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    public void setAllocatedBytes(Map<String, Long> allocatedBytes) {
+        this.allocatedBytes = allocatedBytes;
+    }
+}
@@ -0,0 +1,225 @@
+package io.probedock.jee.itf.rest;
+
+import io.probedock.jee.itf.listeners.Listener;
+import io.probedock.jee.itf.model.Description;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A test run launched asynchronously. The run records its own progress by listening
+ * to the test controller, the status can be read from any thread while the run is
+ * in progress.
+ * <p/>
+ * The runs are kept in the registry once finished, only the counters and the descriptions of
+ * the first failed tests are kept to bound the memory of large suites.
+ *
+ * @author Laurent Prevost <laurent.prevost@probedock.io>
+ */
+public class TestRun implements Listener {
+    /**
+     * The states of a test run
+     */
+    public enum State {
+        QUEUED,
+        RUNNING,
+        DONE,
+        FAILED
+    }
+
+    /**
+     * Maximum number of descriptions of failed tests kept by a run
+     */
+    public static final int MAX_FAILURES = 256;
+
+    /**
+     * Identifier of the run
+     */
+    private final String id;
+
+    /**
+     * Launch configuration of the run
+     */
+    private final LaunchConfigurationTO configuration;
+
+    private volatile State state = State.QUEUED;
+
+    /**
+     * Seed used by the controller, known once the run is done
+     */
+    private volatile Long seed;
+
+    /**
+     * Reason of the failure of the run itself, not of its tests
+     */
+    private volatile String error;
+
+    /**
+     * Submit, start and end dates of the run
+     */
+    private final long submitDate;
+    private volatile long startDate;
+    private volatile long endDate;
+
+    /**
+     * Counters updated by the threads that run the tests
+     */
+    private final AtomicInteger started = new AtomicInteger();
+    private final AtomicInteger passed = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+
+    /**
+     * Descriptions of the first failed tests, up to {@link #MAX_FAILURES}
+     */
+    private final Queue<Description> failures = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Live events of the run
+     */
+    private final TestRunEventBuffer events = new TestRunEventBuffer(TestRunEventBuffer.DEFAULT_CAPACITY);
+
+    /**
+     * Constructor
+     *
+     * @param id The identifier of the run
+     * @param configuration The launch configuration
+     */
+    public TestRun(String id, LaunchConfigurationTO configuration) {
+        this.id = id;
+        this.configuration = configuration;
+        this.submitDate = System.currentTimeMillis();
+    }
+
+    /**
+     * Mark the run as done
+     *
+     * @param seed The seed used by the controller
+     */
+    public void done(Long seed) {
+        this.seed = seed;
+        endDate = System.currentTimeMillis();
+        state = State.DONE;
+        closeEvents();
+    }
+
+    /**
+     * Mark the run as failed, the controller was not able to run the tests
+     *
+     * @param error The reason of the failure
+     */
+    public void failed(String error) {
+        this.error = error;
+        endDate = System.currentTimeMillis();
+        state = State.FAILED;
+        closeEvents();
+    }
+
+    /**
+     * Publish the end of the run and close the events
+     */
+    private void closeEvents() {
+        events.append("runEnd", new TestRunStatusTO(this));
+        events.close();
+    }
+
+    /**
+     * @return True if the run is done or failed
+     */
+    public boolean isFinished() {
+        return state == State.DONE || state == State.FAILED;
+    }
+
+    @Override
+    public void testRunStart() {
+        startDate = System.currentTimeMillis();
+        state = State.RUNNING;
+        events.append("runStart", new TestRunStatusTO(this));
+    }
+
+    @Override
+    public void testRunEnd() {
+    }
+
+    @Override
+    public void testStart(Description description) {
+        started.incrementAndGet();
+        events.append("testStart", new TestEventTO(description, false));
+    }
+
+    @Override
+    public void testEnd(Description description) {
+        events.append("testEnd", new TestEventTO(description, false));
+    }
+
+    @Override
+    public void fail(Description description) {
+        if (failed.incrementAndGet() <= MAX_FAILURES) {
+            failures.add(description);
+        }
+        events.append("fail", new TestEventTO(description, true));
+    }
+
+    @Override
+    public void success(Description description) {
+        passed.incrementAndGet();
+        events.append("success", new TestEventTO(description, true));
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public LaunchConfigurationTO getConfiguration() {
+        return configuration;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public Long getSeed() {
+        return seed;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public long getSubmitDate() {
+        return submitDate;
+    }
+
+    public long getStartDate() {
+        return startDate;
+    }
+
+    public long getEndDate() {
+        return endDate;
+    }
+
+    public TestRunEventBuffer getEvents() {
+        return events;
+    }
+
+    public int getStarted() {
+        return started.get();
+    }
+
+    public int getPassed() {
+        return passed.get();
+    }
+
+    public int getFailed() {
+        return failed.get();
+    }
+
+    /**
+     * @return A copy of the descriptions of the first failed tests, up to {@link #MAX_FAILURES}
+     */
+    public List<Description> getFailures() {
+        return new ArrayList<>(failures);
+    }
+}
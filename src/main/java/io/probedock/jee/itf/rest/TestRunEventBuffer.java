@@ -0,0 +1,131 @@
+package io.probedock.jee.itf.rest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bounded buffer of the events of a test run. The run appends the events without ever
+ * waiting, when the buffer is full the oldest events are overwritten. The consumers read
+ * the events from their last sequence number and detect the events they missed.
+ *
+ * @author Laurent Prevost <laurent.prevost@probedock.io>
+ */
+public class TestRunEventBuffer {
+    /**
+     * Number of events kept by default for a run
+     */
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    private final Event[] events;
+
+    /**
+     * Sequence number of the next event, the first event has the sequence number one
+     */
+    private long nextSequence = 1;
+
+    /**
+     * No more event is appended once the buffer is closed
+     */
+    private boolean closed;
+
+    /**
+     * Constructor
+     *
+     * @param capacity The maximum number of events kept
+     */
+    public TestRunEventBuffer(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("The capacity of the buffer must be greater than zero");
+        }
+
+        events = new Event[capacity];
+    }
+
+    /**
+     * Append an event, overwrite the oldest event when the buffer is full
+     *
+     * @param type The type of the event
+     * @param data The data of the event
+     */
+    public synchronized void append(String type, Object data) {
+        if (closed) {
+            return;
+        }
+
+        events[(int) (nextSequence % events.length)] = new Event(nextSequence, type, data);
+        nextSequence++;
+        notifyAll();
+    }
+
+    /**
+     * Close the buffer and wake up the consumers
+     */
+    public synchronized void close() {
+        closed = true;
+        notifyAll();
+    }
+
+    /**
+     * @return True if the buffer is closed
+     */
+    public synchronized boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Wait for the events that follow a sequence number
+     *
+     * @param lastSequence The sequence number of the last event read, zero to read from the beginning
+     * @param timeout The maximum time to wait in milliseconds
+     * @return The available events, the oldest first. Empty when the timeout elapsed or when the buffer is closed
+     * and every event was read
+     * @throws InterruptedException When the thread is interrupted while waiting
+     */
+    public synchronized List<Event> await(long lastSequence, long timeout) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeout;
+
+        while (lastSequence + 1 >= nextSequence && !closed) {
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                break;
+            }
+            wait(remaining);
+        }
+
+        List<Event> available = new ArrayList<>();
+
+        long first = Math.max(lastSequence + 1, nextSequence - events.length);
+        for (long sequence = first; sequence < nextSequence; sequence++) {
+            available.add(events[(int) (sequence % events.length)]);
+        }
+
+        return available;
+    }
+
+    /**
+     * An event of a test run
+     */
+    public static final class Event {
+        private final long sequence;
+        private final String type;
+        private final Object data;
+
+        private Event(long sequence, String type, Object data) {
+            this.sequence = sequence;
+            this.type = type;
+            this.data = data;
+        }
+
+        public long getSequence() {
+            return sequence;
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        public Object getData() {
+            return data;
+        }
+    }
+}
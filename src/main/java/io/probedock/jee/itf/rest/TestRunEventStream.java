@@ -0,0 +1,111 @@
+package io.probedock.jee.itf.rest;
+
+import io.probedock.jee.itf.rest.TestRunEventBuffer.Event;
+import io.probedock.jee.itf.rest.provider.JsonObjectMapperContextResolver;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.Collections;
+import java.util.List;
+import javax.ws.rs.core.StreamingOutput;
+
+import org.codehaus.jackson.map.ObjectMapper;
+
+/**
+ * Write the events of a test run in the Server-Sent Events format until the run is finished.
+ * <p/>
+ * The stream only reads the event buffer of the run, a slow client never slows down the run. When the
+ * client is too slow and the buffer overwrites events it did not read, a {@code dropped} event gives the
+ * number of events lost.
+ *
+ * @author Laurent Prevost <laurent.prevost@probedock.io>
+ */
+public class TestRunEventStream implements StreamingOutput {
+    /**
+     * Media type of the Server-Sent Events
+     */
+    public static final String MEDIA_TYPE = "text/event-stream";
+
+    /**
+     * Time to wait for an event before sending a comment to keep the connection open
+     */
+    private static final long KEEP_ALIVE_TIMEOUT = 15000;
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static final ObjectMapper MAPPER = new JsonObjectMapperContextResolver().getContext(ObjectMapper.class);
+
+    private final TestRunEventBuffer events;
+
+    /**
+     * Sequence number of the last event sent
+     */
+    private long lastSequence;
+
+    /**
+     * Constructor
+     *
+     * @param events The events of the run
+     * @param lastSequence The sequence number of the last event received by the client, zero for all the events
+     */
+    public TestRunEventStream(TestRunEventBuffer events, long lastSequence) {
+        this.events = events;
+        this.lastSequence = lastSequence;
+    }
+
+    @Override
+    public void write(OutputStream output) throws IOException {
+        Writer writer = new OutputStreamWriter(output, UTF_8);
+
+        while (true) {
+            List<Event> available;
+            try {
+                available = events.await(lastSequence, KEEP_ALIVE_TIMEOUT);
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            if (available.isEmpty()) {
+                if (events.isClosed()) {
+                    writer.flush();
+                    return;
+                }
+
+                writer.write(": keep-alive\n\n");
+            }
+
+            for (Event event : available) {
+                if (event.getSequence() > lastSequence + 1) {
+                    writeEvent(writer, null, "dropped", Collections.singletonMap("count", event.getSequence() - lastSequence - 1));
+                }
+
+                writeEvent(writer, event.getSequence(), event.getType(), event.getData());
+                lastSequence = event.getSequence();
+            }
+
+            writer.flush();
+        }
+    }
+
+    /**
+     * Write an event with its data as compact JSON
+     *
+     * @param writer The writer
+     * @param id The identifier of the event, null for no identifier
+     * @param type The type of the event
+     * @param data The data of the event
+     * @throws IOException When the client is gone
+     */
+    private void writeEvent(Writer writer, Long id, String type, Object data) throws IOException {
+        if (id != null) {
+            writer.write("id: " + id + "\n");
+        }
+
+        writer.write("event: " + type + "\n");
+        writer.write("data: " + MAPPER.writeValueAsString(data) + "\n\n");
+    }
+}
@@ -0,0 +1,93 @@
+package io.probedock.jee.itf.rest;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Bounded in-memory registry of the test runs launched asynchronously.
+ * <p/>
+ * When the registry is full, the oldest finished runs are evicted to make room for
+ * the new ones. The runs in progress are never evicted, a new run is refused when
+ * the registry is full of runs in progress.
+ *
+ * @author Laurent Prevost <laurent.prevost@probedock.io>
+ */
+public class TestRunRegistry {
+    /**
+     * Number of runs kept by default
+     */
+    public static final int DEFAULT_CAPACITY = 32;
+
+    private final int capacity;
+
+    /**
+     * Runs by identifier in the order of their submission
+     */
+    private final Map<String, TestRun> runs = new LinkedHashMap<>();
+
+    /**
+     * Constructor
+     *
+     * @param capacity The maximum number of runs kept in the registry
+     */
+    public TestRunRegistry(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("The capacity of the registry must be greater than zero");
+        }
+
+        this.capacity = capacity;
+    }
+
+    /**
+     * Create and register a new run
+     *
+     * @param configuration The launch configuration of the run
+     * @return The run registered, null if the registry is full of runs in progress
+     */
+    public synchronized TestRun create(LaunchConfigurationTO configuration) {
+        if (runs.size() >= capacity) {
+            Iterator<TestRun> iterator = runs.values().iterator();
+            while (runs.size() >= capacity && iterator.hasNext()) {
+                if (iterator.next().isFinished()) {
+                    iterator.remove();
+                }
+            }
+
+            if (runs.size() >= capacity) {
+                return null;
+            }
+        }
+
+        TestRun run = new TestRun(UUID.randomUUID().toString(), configuration);
+        runs.put(run.getId(), run);
+        return run;
+    }
+
+    /**
+     * Retrieve a run
+     *
+     * @param id The identifier of the run
+     * @return The run, null if the run is unknown or was evicted
+     */
+    public synchronized TestRun get(String id) {
+        return runs.get(id);
+    }
+
+    /**
+     * Remove a run, used when the run cannot be submitted
+     *
+     * @param id The identifier of the run
+     */
+    public synchronized void remove(String id) {
+        runs.remove(id);
+    }
+
+    /**
+     * @return The number of runs in the registry
+     */
+    public synchronized int size() {
+        return runs.size();
+    }
+}
@@ -0,0 +1,35 @@
+package io.probedock.jee.itf.rest;
+
+import io.probedock.jee.itf.model.Description;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Result of a test run launched asynchronously, the status with the counters and the results of the
+ * first failed tests, see {@link TestRun#MAX_FAILURES}
+ *
+ * @author Laurent Prevost <laurent.prevost@probedock.io>
+ */
+public class TestRunResultTO extends TestRunStatusTO {
+    private List<TestResultTO> failures;
+
+    public TestRunResultTO() {}
+
+    public TestRunResultTO(TestRun run) {
+        super(run);
+
+        failures = new ArrayList<>();
+        for (Description description : run.getFailures()) {
+            failures.add(new TestResultTO(description));
+        }
+    }
+
+    public List<TestResultTO> getFailures() {
+        return failures;
+    }
+
+    public void setFailures(List<TestResultTO> failures) {
+        this.failures = failures;
+    }
+}
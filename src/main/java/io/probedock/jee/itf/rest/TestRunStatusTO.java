@@ -0,0 +1,132 @@
+package io.probedock.jee.itf.rest;
+
+/**
+ * Status of a test run launched asynchronously
+ *
+ * @author Laurent Prevost <laurent.prevost@probedock.io>
+ */
+public class TestRunStatusTO {
+    private String id;
+
+    private String state;
+
+    private Long seed;
+
+    private String error;
+
+    private Integer started;
+
+    private Integer passed;
+
+    private Integer failed;
+
+    private Long startDate;
+
+    private Long endDate;
+
+    private Long duration;
+
+    public TestRunStatusTO() {}
+
+    public TestRunStatusTO(TestRun run) {
+        id = run.getId();
+        state = run.getState().name();
+        seed = run.getSeed();
+        error = run.getError();
+        started = run.getStarted();
+        passed = run.getPassed();
+        failed = run.getFailed();
+
+        if (run.getStartDate() > 0) {
+            startDate = run.getStartDate();
+        }
+
+        if (run.isFinished()) {
+            endDate = run.getEndDate();
+
+            if (startDate != null) {
+                duration = endDate - startDate;
+            }
+        }
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getState() {
+        return state;
+    }
+
+    public void setState(String state) {
+        this.state = state;
+    }
+
+    public Long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(Long seed) {
+        this.seed = seed;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public Integer getStarted() {
+        return started;
+    }
+
+    public void setStarted(Integer started) {
+        this.started = started;
+    }
+
+    public Integer getPassed() {
+        return passed;
+    }
+
+    public void setPassed(Integer passed) {
+        this.passed = passed;
+    }
+
+    public Integer getFailed() {
+        return failed;
+    }
+
+    public void setFailed(Integer failed) {
+        this.failed = failed;
+    }
+
+    public Long getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(Long startDate) {
+        this.startDate = startDate;
+    }
+
+    public Long getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(Long endDate) {
+        this.endDate = endDate;
+    }
+
+    public Long getDuration() {
+        return duration;
+    }
+
+    public void setDuration(Long duration) {
+        this.duration = duration;
+    }
+}
@@ -0,0 +1,241 @@
+package io.probedock.jee.itf.scheduling;
+
+import io.probedock.jee.itf.model.Description;
+import io.probedock.jee.itf.model.TestGroupDefinition;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Durations of the tests and the test groups measured by the previous runs.
+ * <p/>
+ * Each new measure is smoothed with the previous one to absorb the noise of a single
+ * run. The duration of a group is kept as the time spent outside of its tests (setup
+ * methods, transactions) so that the estimate of a group stays right whatever the
+ * tests selected by the filters.
+ * <p/>
+ * The history is kept in memory and can be saved and loaded as properties to share
+ * it between the nodes or the restarts of the application.
+ *
+ * @author Laurent Prevost <laurent.prevost@probedock.io>
+ */
+public class DurationHistory {
+	private static final Log LOGGER = LogFactory.getLog(DurationHistory.class);
+
+	/**
+	 * Weight of a new measure compared to the previous ones
+	 */
+	public static final double DEFAULT_SMOOTHING = 0.5;
+
+	/**
+	 * Value returned when nothing is known about a test or a group
+	 */
+	public static final long UNKNOWN = -1;
+
+	private static final String TEST_PREFIX = "test.";
+	private static final String GROUP_PREFIX = "group.";
+
+	private final double smoothing;
+
+	/**
+	 * Durations of the tests by test name
+	 */
+	private final ConcurrentMap<String, Long> testDurations = new ConcurrentHashMap<>();
+
+	/**
+	 * Durations of the groups outside of their tests by group name
+	 */
+	private final ConcurrentMap<String, Long> groupOverheads = new ConcurrentHashMap<>();
+
+	/**
+	 * Constructor
+	 */
+	public DurationHistory() {
+		this(DEFAULT_SMOOTHING);
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param smoothing The weight of a new measure, between 0 excluded and 1 included. One keeps only the last
+	 * measure.
+	 */
+	public DurationHistory(double smoothing) {
+		if (smoothing <= 0 || smoothing > 1) {
+			throw new IllegalArgumentException("The smoothing must be greater than zero and lower or equal to one");
+		}
+
+		this.smoothing = smoothing;
+	}
+
+	/**
+	 * Record the duration of a test that is done
+	 *
+	 * @param description The description of the test
+	 */
+	public void record(Description description) {
+		if (description.getEndDate() > 0) {
+			update(testDurations, description.getName(), description.getDuration());
+		}
+	}
+
+	/**
+	 * Record the duration of a test group that is done. The durations of its tests must be
+	 * recorded in their descriptions.
+	 *
+	 * @param testGroupDefinition The test group definition
+	 * @param duration The duration of the whole group with its setup methods
+	 */
+	public void record(TestGroupDefinition testGroupDefinition, long duration) {
+		long overhead = duration;
+		for (Description description : testGroupDefinition.getTestMethods()) {
+			overhead -= description.getDuration();
+		}
+
+		update(groupOverheads, testGroupDefinition.getName(), Math.max(0, overhead));
+	}
+
+	/**
+	 * Set the duration of a test, without smoothing it with the previous one
+	 *
+	 * @param name The test name
+	 * @param duration The duration of the test
+	 */
+	public void setTestDuration(String name, long duration) {
+		testDurations.put(name, duration);
+	}
+
+	/**
+	 * @param name The test name
+	 * @return The duration of the test, {@link #UNKNOWN} if the test never ran
+	 */
+	public long getTestDuration(String name) {
+		Long duration = testDurations.get(name);
+		return duration == null ? UNKNOWN : duration;
+	}
+
+	/**
+	 * @param name The test group name
+	 * @return The duration of the group outside of its tests, {@link #UNKNOWN} if the group never ran
+	 */
+	public long getGroupOverhead(String name) {
+		Long overhead = groupOverheads.get(name);
+		return overhead == null ? UNKNOWN : overhead;
+	}
+
+	/**
+	 * @param description The description of the test
+	 * @return The estimated duration of the test, {@link #UNKNOWN} if the test never ran
+	 */
+	public long estimate(Description description) {
+		return getTestDuration(description.getName());
+	}
+
+	/**
+	 * Estimate the duration of a test group from the selected tests. The tests that never ran
+	 * are not counted.
+	 *
+	 * @param testGroupDefinition The test group definition
+	 * @return The estimated duration of the group, {@link #UNKNOWN} if nothing is known about the group and its tests
+	 */
+	public long estimate(TestGroupDefinition testGroupDefinition) {
+		long estimate = getGroupOverhead(testGroupDefinition.getName());
+
+		for (Description description : testGroupDefinition.getTestMethods()) {
+			long duration = estimate(description);
+			if (duration != UNKNOWN) {
+				estimate = estimate == UNKNOWN ? duration : estimate + duration;
+			}
+		}
+
+		return estimate;
+	}
+
+	/**
+	 * @return True if no duration is recorded
+	 */
+	public boolean isEmpty() {
+		return testDurations.isEmpty() && groupOverheads.isEmpty();
+	}
+
+	/**
+	 * Forget all the durations
+	 */
+	public void clear() {
+		testDurations.clear();
+		groupOverheads.clear();
+	}
+
+	/**
+	 * Load durations saved by {@link #store(Writer)}, they replace the durations known for the same
+	 * tests and groups
+	 *
+	 * @param reader The reader of the properties
+	 * @throws IOException When the properties cannot be read
+	 */
+	public void load(Reader reader) throws IOException {
+		Properties properties = new Properties();
+		properties.load(reader);
+
+		for (String key : properties.stringPropertyNames()) {
+			try {
+				long duration = Long.parseLong(properties.getProperty(key).trim());
+
+				if (key.startsWith(TEST_PREFIX)) {
+					testDurations.put(key.substring(TEST_PREFIX.length()), duration);
+				} else if (key.startsWith(GROUP_PREFIX)) {
+					groupOverheads.put(key.substring(GROUP_PREFIX.length()), duration);
+				}
+			} catch (NumberFormatException nfe) {
+				LOGGER.warn("Invalid duration [" + properties.getProperty(key) + "] for " + key + ", it is ignored.");
+			}
+		}
+	}
+
+	/**
+	 * Save the durations as properties
+	 *
+	 * @param writer The writer of the properties
+	 * @throws IOException When the properties cannot be written
+	 */
+	public void store(Writer writer) throws IOException {
+		Properties properties = new Properties();
+
+		for (Map.Entry<String, Long> entry : testDurations.entrySet()) {
+			properties.setProperty(TEST_PREFIX + entry.getKey(), entry.getValue().toString());
+		}
+
+		for (Map.Entry<String, Long> entry : groupOverheads.entrySet()) {
+			properties.setProperty(GROUP_PREFIX + entry.getKey(), entry.getValue().toString());
+		}
+
+		properties.store(writer, "Durations of the integration tests in milliseconds");
+	}
+
+	/**
+	 * Smooth the new measure with the previous one
+	 *
+	 * @param durations The durations to update
+	 * @param name The name of the test or group
+	 * @param duration The new measure
+	 */
+	private void update(ConcurrentMap<String, Long> durations, String name, long duration) {
+		Long previous = durations.putIfAbsent(name, duration);
+
+		while (previous != null) {
+			long smoothed = Math.round(previous + smoothing * (duration - previous));
+
+			if (durations.replace(name, previous, smoothed)) {
+				return;
+			}
+
+			previous = durations.putIfAbsent(name, duration);
+		}
+	}
+}
@@ -0,0 +1,118 @@
+package io.probedock.jee.itf.scheduling;
+
+import io.probedock.jee.itf.model.Description;
+import io.probedock.jee.itf.model.TestGroupDefinition;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Order the work of a run from the longest to the shortest (longest processing time first)
+ * based on the {@link DurationHistory}. When the work is taken by parallel workers, the long
+ * test groups and tests start first and the short ones fill the gaps at the end of the run.
+ * <p/>
+ * The lists must be shuffled with the seeded random generator before they are ordered. The
+ * durations are compared by power of two, the work of the same order of magnitude keeps the
+ * shuffled order. The work never measured is considered as long as the average work.
+ *
+ * @author Laurent Prevost <laurent.prevost@probedock.io>
+ */
+public class LongestFirstScheduler {
+	private final DurationHistory history;
+
+	/**
+	 * Constructor
+	 *
+	 * @param history The durations of the previous runs
+	 */
+	public LongestFirstScheduler(DurationHistory history) {
+		if (history == null) {
+			throw new IllegalArgumentException("You must provide a valid duration history");
+		}
+
+		this.history = history;
+	}
+
+	/**
+	 * Order the test groups from the longest to the shortest
+	 *
+	 * @param testGroupDefinitions The shuffled test group definitions, ordered in place
+	 */
+	public void orderTestGroups(List<TestGroupDefinition> testGroupDefinitions) {
+		long[] estimates = new long[testGroupDefinitions.size()];
+		for (int i = 0; i < estimates.length; i++) {
+			estimates[i] = history.estimate(testGroupDefinitions.get(i));
+		}
+
+		order(testGroupDefinitions, estimates);
+	}
+
+	/**
+	 * Order the tests from the longest to the shortest
+	 *
+	 * @param descriptions The shuffled test descriptions, ordered in place
+	 */
+	public void orderTests(List<Description> descriptions) {
+		long[] estimates = new long[descriptions.size()];
+		for (int i = 0; i < estimates.length; i++) {
+			estimates[i] = history.estimate(descriptions.get(i));
+		}
+
+		order(descriptions, estimates);
+	}
+
+	/**
+	 * Stable sort of the items by magnitude of their estimates in descending order
+	 *
+	 * @param items The items to order in place
+	 * @param estimates The estimates of the items, in the same order
+	 * @param <T> The type of the items
+	 */
+	static <T> void order(List<T> items, long[] estimates) {
+		if (items.size() < 2) {
+			return;
+		}
+
+		// The work never measured is placed with the average work
+		long total = 0;
+		int known = 0;
+		for (long estimate : estimates) {
+			if (estimate != DurationHistory.UNKNOWN) {
+				total += estimate;
+				known++;
+			}
+		}
+
+		if (known == 0) {
+			return;
+		}
+
+		long average = total / known;
+
+		final int[] magnitudes = new int[estimates.length];
+		Integer[] indexes = new Integer[estimates.length];
+		for (int i = 0; i < estimates.length; i++) {
+			long estimate = estimates[i] == DurationHistory.UNKNOWN ? average : estimates[i];
+			magnitudes[i] = 64 - Long.numberOfLeadingZeros(estimate);
+			indexes[i] = i;
+		}
+
+		// Arrays.sort is stable for objects, the equal magnitudes keep the shuffled order
+		Arrays.sort(indexes, new Comparator<Integer>() {
+			@Override
+			public int compare(Integer left, Integer right) {
+				return Integer.compare(magnitudes[right], magnitudes[left]);
+			}
+		});
+
+		List<T> ordered = new ArrayList<>(items.size());
+		for (Integer index : indexes) {
+			ordered.add(items.get(index));
+		}
+
+		for (int i = 0; i < ordered.size(); i++) {
+			items.set(i, ordered.get(i));
+		}
+	}
+}
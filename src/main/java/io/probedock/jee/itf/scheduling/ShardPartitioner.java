@@ -0,0 +1,152 @@
+package io.probedock.jee.itf.scheduling;
+
+import io.probedock.jee.itf.model.Description;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Assign each test of a run to exactly one shard. The assignment only depends on the tests
+ * themselves and not on the seed of the run, the shards launched with the same filters on
+ * identical nodes get disjoint sets of tests that cover the whole run.
+ *
+ * @author Laurent Prevost <laurent.prevost@probedock.io>
+ */
+public class ShardPartitioner {
+	private final int shardCount;
+
+	private final ShardStrategy strategy;
+
+	private final DurationHistory history;
+
+	/**
+	 * Constructor
+	 *
+	 * @param shardCount The number of shards
+	 * @param strategy The strategy to assign the tests
+	 * @param history The durations of the previous runs, only used by {@link ShardStrategy#DURATION}. When null,
+	 * every test is considered to take the same time.
+	 */
+	public ShardPartitioner(int shardCount, ShardStrategy strategy, DurationHistory history) {
+		if (shardCount < 1) {
+			throw new IllegalArgumentException("The number of shards must be greater than zero");
+		}
+
+		if (strategy == null) {
+			throw new IllegalArgumentException("You must provide a valid shard strategy");
+		}
+
+		this.shardCount = shardCount;
+		this.strategy = strategy;
+		this.history = history;
+	}
+
+	/**
+	 * Assign the tests to the shards
+	 *
+	 * @param descriptions The descriptions of all the tests of the run, in the same order on every shard
+	 * @return The shard of each test, in the same order
+	 */
+	public int[] assign(List<Description> descriptions) {
+		int[] shards = new int[descriptions.size()];
+
+		if (shardCount == 1) {
+			return shards;
+		}
+
+		if (strategy == ShardStrategy.HASH) {
+			for (int i = 0; i < shards.length; i++) {
+				shards[i] = shardOf(getKey(descriptions.get(i)), shardCount);
+			}
+		} else {
+			assignByDuration(descriptions, shards);
+		}
+
+		return shards;
+	}
+
+	/**
+	 * Assign the tests from the longest to the shortest to the shard with the lowest total duration
+	 *
+	 * @param descriptions The descriptions of the tests
+	 * @param shards The shard of each test to fill
+	 */
+	private void assignByDuration(final List<Description> descriptions, int[] shards) {
+		final long[] estimates = new long[descriptions.size()];
+
+		long total = 0;
+		int known = 0;
+		for (int i = 0; i < estimates.length; i++) {
+			estimates[i] = history == null ? DurationHistory.UNKNOWN : history.estimate(descriptions.get(i));
+
+			if (estimates[i] != DurationHistory.UNKNOWN) {
+				total += estimates[i];
+				known++;
+			}
+		}
+
+		// The tests never measured are considered as long as the average test
+		long average = known == 0 ? 1 : Math.max(1, total / known);
+
+		Integer[] indexes = new Integer[estimates.length];
+		for (int i = 0; i < estimates.length; i++) {
+			if (estimates[i] == DurationHistory.UNKNOWN) {
+				estimates[i] = average;
+			}
+
+			indexes[i] = i;
+		}
+
+		// The order must be the same on every shard, the ties are broken by name then by the given order
+		Arrays.sort(indexes, new Comparator<Integer>() {
+			@Override
+			public int compare(Integer left, Integer right) {
+				int result = Long.compare(estimates[right], estimates[left]);
+
+				if (result == 0) {
+					result = descriptions.get(left).getName().compareTo(descriptions.get(right).getName());
+				}
+
+				return result;
+			}
+		});
+
+		long[] loads = new long[shardCount];
+		for (Integer index : indexes) {
+			int lightest = 0;
+			for (int shard = 1; shard < shardCount; shard++) {
+				if (loads[shard] < loads[lightest]) {
+					lightest = shard;
+				}
+			}
+
+			shards[index] = lightest;
+			loads[lightest] += estimates[index];
+		}
+	}
+
+	/**
+	 * @param description The description of the test
+	 * @return The Probe Dock key of the test, its name when it has no key
+	 */
+	private static String getKey(Description description) {
+		String key = description.getProbeMetadata().getKey();
+		return key != null ? key : description.getName();
+	}
+
+	/**
+	 * Compute the shard of a key. The hash of a string is specified by the platform, the shard is
+	 * the same on every node.
+	 *
+	 * @param key The key of the test
+	 * @param shardCount The number of shards
+	 * @return The shard of the key
+	 */
+	static int shardOf(String key, int shardCount) {
+		// Spread the hash codes of the similar keys
+		int hash = key.hashCode() * 0x9E3779B9;
+		hash ^= hash >>> 16;
+
+		return (hash & Integer.MAX_VALUE) % shardCount;
+	}
+}
@@ -0,0 +1,21 @@
+package io.probedock.jee.itf.scheduling;
+
+/**
+ * Strategies to split the tests of a run between several shards
+ *
+ * @author Laurent Prevost <laurent.prevost@probedock.io>
+ */
+public enum ShardStrategy {
+	/**
+	 * Each test is assigned from the hash of its Probe Dock key, or of its name when it has
+	 * no key. The shard of a test never changes while its key stays the same.
+	 */
+	HASH,
+
+	/**
+	 * The tests are assigned from the longest to the shortest to the shard with the lowest
+	 * total duration, based on a {@link DurationHistory}. All the shards must use the same
+	 * durations to get the same assignment.
+	 */
+	DURATION
+}
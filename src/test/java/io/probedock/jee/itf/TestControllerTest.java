@@ -1,10 +1,27 @@
 package io.probedock.jee.itf;
 
+import io.probedock.jee.itf.filters.DefaultFilter;
 import io.probedock.jee.itf.filters.Filter;
+import io.probedock.jee.itf.jdbc.InstrumentedDataSource;
+import io.probedock.jee.itf.jdbc.SqlRecorder;
+import io.probedock.jee.itf.jmx.ThreadResources;
 import io.probedock.jee.itf.listeners.Listener;
+import io.probedock.jee.itf.listeners.PhaseListener;
 import io.probedock.jee.itf.model.Description;
+import io.probedock.jee.itf.model.TestPhase;
+import io.probedock.jee.itf.rest.FilterDefinitionTO;
+import io.probedock.jee.itf.scheduling.DurationHistory;
+import io.probedock.jee.itf.scheduling.ShardStrategy;
 import io.probedock.jee.itf.test.utils.ItfTestHelper;
+import io.probedock.jee.itf.test.utils.controllers.DummyTestControllerWithFailingInvoker;
 import io.probedock.jee.itf.test.utils.controllers.DummyTestControllerWithFullSetup;
+import io.probedock.jee.itf.test.utils.controllers.DummyTestControllerWithLoadTests;
+import io.probedock.jee.itf.test.utils.controllers.DummyTestControllerWithParallelGroups;
+import io.probedock.jee.itf.test.utils.controllers.DummyTestControllerWithParallelTests;
+import io.probedock.jee.itf.test.utils.controllers.DummyTestControllerWithPerfTests;
+import io.probedock.jee.itf.test.utils.controllers.DummyTestControllerWithSavepoints;
+import io.probedock.jee.itf.test.utils.controllers.DummyTestControllerWithSnapshot;
+import io.probedock.jee.itf.test.utils.controllers.DummyTestControllerWithSql;
 import io.probedock.jee.itf.test.utils.controllers.DummyTestControllerWithTestBeforeAfterAll;
 import io.probedock.jee.itf.test.utils.controllers.DummyTestControllerWithTestBeforeAfterEachInTx;
 import io.probedock.jee.itf.test.utils.controllers.DummyTestControllerWithTestBeforeAfterEachOutTx;
@@ -13,14 +30,33 @@ import io.probedock.jee.itf.test.utils.controllers.DummyTestControllerWithTestBe
 import io.probedock.jee.itf.test.utils.controllers.DummyTestControllerWithTestException;
 import io.probedock.jee.itf.test.utils.controllers.DummyTestControllerWithTestMethodCommit;
 import io.probedock.jee.itf.test.utils.controllers.DummyTestControllerWithTestMethodRollback;
+import io.probedock.jee.itf.test.utils.controllers.DummyTestControllerWithTimeouts;
+import io.probedock.jee.itf.test.utils.controllers.DummyTestControllerWithTransactionPolicies;
 import io.probedock.client.annotations.ProbeTest;
 import io.probedock.client.annotations.ProbeTestClass;
+import java.lang.management.ManagementFactory;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.ejb.EJB;
 import javax.ejb.SessionContext;
 import javax.ejb.TransactionManagement;
 import javax.ejb.TransactionManagementType;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.sql.DataSource;
 import javax.transaction.HeuristicMixedException;
 import javax.transaction.HeuristicRollbackException;
 import javax.transaction.NotSupportedException;
@@ -385,6 +421,910 @@ public class TestControllerTest {
 		verify(f2).isRunnable(any(Description.class));
 	}
 	
+	@Test
+	@ProbeTest(key = "4c2b9e0d7a61")
+	public void allTestGroupsShouldBeRunWhenGroupsAreRunInParallel() {
+		SessionContext sc = mock(SessionContext.class);
+		CountingUserTransaction ut = new CountingUserTransaction();
+		
+		DummyTestControllerWithParallelGroups testController = new DummyTestControllerWithParallelGroups();
+		
+		when(sc.getUserTransaction()).thenReturn(ut);
+		
+		Whitebox.setInternalState(testController, "sessionContext", sc);
+		
+		final AtomicInteger succeeded = new AtomicInteger();
+		
+		TestRunOptions options = new TestRunOptions();
+		options.setGroupParallelism(3);
+		
+		testController.run(
+			null, 
+			createListenerMap(
+				"customListener", 
+				new Listener() {
+					@Override public void testRunStart() {}
+					@Override public void testRunEnd() {}
+					@Override public void testStart(Description description) {}
+					@Override public void testEnd(Description description) {}
+					@Override public void fail(Description description) {}
+
+					@Override
+					public void success(Description description) {
+						succeeded.incrementAndGet();
+					}
+				}
+			), 
+			null,
+			options
+		);
+		
+		assertEquals("Every test of every group should succeed", 7, succeeded.get());
+		assertEquals("Each group should start a transaction for before all, after all and each test", 15, ut.begun.get());
+		assertEquals("Every transaction should be completed", ut.begun.get(), ut.completed.get());
+		assertFalse("The sequential group should never run with another group", testController.isSequentialGroupOverlapped());
+	}
+	
+	@Test
+	@ProbeTest(key = "e5a09c3b7d28")
+	public void theSetupMethodsOutOfTheMainTransactionShouldShareOneTransactionBeforeAndOneAfterTheTestWhenMerged() {
+		SessionContext sc = mock(SessionContext.class);
+		CountingUserTransaction ut = new CountingUserTransaction();
+
+		TestController testController = new DummyTestControllerWithFullSetup();
+
+		when(sc.getUserTransaction()).thenReturn(ut);
+
+		Whitebox.setInternalState(testController, "sessionContext", sc);
+
+		testController.run(null, null, null);
+
+		assertEquals("Each setup type should start its own transaction", 10, ut.begun.get());
+
+		TestRunOptions options = new TestRunOptions();
+		options.setMergeSetupTransactions(true);
+
+		testController.run(null, null, null, options);
+
+		assertEquals("Each test should start one transaction before and one after its main transaction", 18, ut.begun.get());
+		assertEquals("Every transaction should be completed", ut.begun.get(), ut.completed.get());
+	}
+	
+	@Test
+	@ProbeTest(key = "73c1f8e0a4b6")
+	public void theMainTransactionOfEachTestShouldFollowItsTransactionPolicy() throws Exception {
+		SessionContext sc = mock(SessionContext.class);
+		UserTransaction ut = mock(UserTransaction.class);
+
+		TestController testController = new DummyTestControllerWithTransactionPolicies();
+
+		when(sc.getUserTransaction()).thenReturn(ut);
+
+		Whitebox.setInternalState(testController, "sessionContext", sc);
+
+		final AtomicInteger succeeded = new AtomicInteger();
+
+		testController.run(
+			null,
+			createListenerMap(
+				"policyListener",
+				new Listener() {
+					@Override public void testRunStart() {}
+					@Override public void testRunEnd() {}
+					@Override public void testStart(Description description) {}
+					@Override public void testEnd(Description description) {}
+					@Override public void fail(Description description) {}
+
+					@Override
+					public void success(Description description) {
+						succeeded.incrementAndGet();
+					}
+				}
+			),
+			null
+		);
+
+		assertEquals("Every test should succeed", 3, succeeded.get());
+		// The user transaction is only looked up by the tests with a transaction
+		verify(sc, times(2)).getUserTransaction();
+		verify(ut, times(2)).begin();
+
+		// The read only transaction is rolled back despite the annotation to avoid rollback
+		verify(ut).commit();
+		verify(ut).rollback();
+	}
+	
+	@Test
+	@ProbeTest(key = "5f92ad1c6e07")
+	public void theTestsOfASavepointGroupShouldRunBetweenASavepointAndItsRollbackAfterTheFixturesRanOnce() throws Exception {
+		SessionContext sc = mock(SessionContext.class);
+		Connection connection = mock(Connection.class);
+		Savepoint savepoint = mock(Savepoint.class);
+		when(connection.setSavepoint()).thenReturn(savepoint);
+
+		DummyTestControllerWithSavepoints testController = new DummyTestControllerWithSavepoints();
+		testController.testGroup.connection = connection;
+		Whitebox.setInternalState(testController, "sessionContext", sc);
+
+		testController.run(null, null, null);
+
+		assertEquals("The fixtures should run once for the group", 1, testController.testGroup.fixtures.get());
+		assertEquals("The teardown should run once for the group", 1, testController.testGroup.teardowns.get());
+		verify(connection).setAutoCommit(false);
+		verify(connection, times(3)).setSavepoint();
+		verify(connection, times(2)).rollback(savepoint);
+		verify(connection).releaseSavepoint(savepoint);
+		verify(connection).rollback();
+		verify(connection).setAutoCommit(true);
+		verify(connection).close();
+		verify(sc, never()).getUserTransaction();
+	}
+	
+	@Test
+	@ProbeTest(key = "6a1d0f7b9c42")
+	public void theConnectionOfASavepointGroupShouldBeReleasedWhenATestCannotSetItsSavepoint() throws Exception {
+		SessionContext sc = mock(SessionContext.class);
+		Connection connection = mock(Connection.class);
+		when(connection.setSavepoint()).thenThrow(new SQLException("Savepoints not supported"));
+
+		DummyTestControllerWithSavepoints testController = new DummyTestControllerWithSavepoints();
+		testController.testGroup.connection = connection;
+		Whitebox.setInternalState(testController, "sessionContext", sc);
+
+		try {
+			testController.run(null, null, null);
+			fail("The failure to set the savepoint should abort the run");
+		} catch (RuntimeException e) {
+			assertTrue(e.getCause() instanceof SQLException);
+		}
+
+		assertEquals("The teardown should run once for the group", 1, testController.testGroup.teardowns.get());
+		verify(connection).rollback();
+		verify(connection).setAutoCommit(true);
+		verify(connection).close();
+	}
+	
+	@Test
+	@ProbeTest(key = "5b9e2d07c4a8")
+	public void theTestsOfASavepointGroupShouldFailWhenItsTransactionCannotBeStarted() throws Exception {
+		SessionContext sc = mock(SessionContext.class);
+		when(sc.getUserTransaction()).thenReturn(new CountingUserTransaction());
+		Connection connection = mock(Connection.class);
+		doThrow(new SQLException("Auto-commit cannot be disabled")).when(connection).setAutoCommit(false);
+
+		DummyTestControllerWithSavepoints testController = new DummyTestControllerWithSavepoints();
+		testController.testGroup.connection = connection;
+		Whitebox.setInternalState(testController, "sessionContext", sc);
+
+		final AtomicInteger failed = new AtomicInteger();
+
+		testController.run(
+			null, 
+			createListenerMap(
+				"customListener", 
+				new Listener() {
+					@Override public void testRunStart() {}
+					@Override public void testRunEnd() {}
+					@Override public void testStart(Description description) {}
+					@Override public void testEnd(Description description) {}
+					@Override public void success(Description description) {}
+
+					@Override
+					public void fail(Description description) {
+						failed.incrementAndGet();
+					}
+				}
+			), 
+			null
+		);
+
+		assertEquals("Every test of the group should fail", 3, failed.get());
+		assertEquals("The fixtures should not run on an auto-commit connection", 0, testController.testGroup.fixtures.get());
+		assertEquals("The teardown in the main transaction should not run", 0, testController.testGroup.teardowns.get());
+		verify(connection, never()).setSavepoint();
+		verify(connection).close();
+	}
+	
+	@Test
+	@ProbeTest(key = "d08b6e3f94a1")
+	public void theTablesOfASnapshotGroupShouldBeRestoredOnceItsTestsRan() throws Exception {
+		SessionContext sc = mock(SessionContext.class);
+		when(sc.getUserTransaction()).thenReturn(new CountingUserTransaction());
+
+		ResultSet resultSet = mock(ResultSet.class);
+		when(resultSet.getMetaData()).thenReturn(mock(ResultSetMetaData.class));
+		Statement statement = mock(Statement.class);
+		when(statement.executeQuery("SELECT * FROM item")).thenReturn(resultSet);
+		Connection connection = mock(Connection.class);
+		when(connection.createStatement()).thenReturn(statement);
+		DataSource dataSource = mock(DataSource.class);
+		when(dataSource.getConnection()).thenReturn(connection);
+
+		DummyTestControllerWithSnapshot testController = new DummyTestControllerWithSnapshot();
+		testController.testGroup.dataSource = dataSource;
+		Whitebox.setInternalState(testController, "sessionContext", sc);
+
+		testController.run(null, null, null);
+
+		verify(statement).executeQuery("SELECT * FROM item");
+		verify(statement).executeUpdate("DELETE FROM item");
+		verify(connection).commit();
+		verify(connection, times(2)).close();
+	}
+
+	@Test
+	@ProbeTest(key = "f3c85e1a07b9")
+	public void theTablesOfASnapshotGroupShouldBeRestoredWhenATestAbortsTheGroup() throws Exception {
+		UserTransaction ut = mock(UserTransaction.class);
+		doThrow(new SystemException("No transaction manager")).when(ut).begin();
+		SessionContext sc = mock(SessionContext.class);
+		when(sc.getUserTransaction()).thenReturn(ut);
+
+		ResultSet resultSet = mock(ResultSet.class);
+		when(resultSet.getMetaData()).thenReturn(mock(ResultSetMetaData.class));
+		Statement statement = mock(Statement.class);
+		when(statement.executeQuery("SELECT * FROM item")).thenReturn(resultSet);
+		Connection connection = mock(Connection.class);
+		when(connection.createStatement()).thenReturn(statement);
+		DataSource dataSource = mock(DataSource.class);
+		when(dataSource.getConnection()).thenReturn(connection);
+
+		DummyTestControllerWithSnapshot testController = new DummyTestControllerWithSnapshot();
+		testController.testGroup.dataSource = dataSource;
+		Whitebox.setInternalState(testController, "sessionContext", sc);
+
+		try {
+			testController.run(null, null, null);
+			fail("The failure to start the transaction should abort the run");
+		} catch (RuntimeException e) {
+			assertTrue(e.getCause() instanceof SystemException);
+		}
+
+		verify(statement).executeUpdate("DELETE FROM item");
+		verify(connection).commit();
+	}
+	
+	@Test
+	@ProbeTest(key = "0e7b4a2c9d15")
+	public void theEndDateAndTheDurationShouldBeKnownWhenTheResultIsNotified() {
+		SessionContext sc = mock(SessionContext.class);
+		when(sc.getUserTransaction()).thenReturn(new CountingUserTransaction());
+
+		TestController testController = new DummyTestControllerWithFullSetup();
+		Whitebox.setInternalState(testController, "sessionContext", sc);
+
+		final List<Description> results = Collections.synchronizedList(new ArrayList<Description>());
+
+		testController.run(
+			null,
+			createListenerMap(
+				"resultListener",
+				new Listener() {
+					@Override public void testRunStart() {}
+					@Override public void testRunEnd() {}
+					@Override public void testStart(Description description) {}
+					@Override public void testEnd(Description description) {}
+					@Override public void fail(Description description) {}
+
+					@Override
+					public void success(Description description) {
+						assertTrue("The end date should be set before the success", description.getEndDate() >= description.getStartDate());
+						assertEquals(description.getEndDate() - description.getStartDate(), description.getDuration());
+						results.add(description);
+					}
+				}
+			),
+			null
+		);
+
+		assertEquals(2, results.size());
+		assertTrue(results.get(0).getStartDate() > 0);
+	}
+	
+	@Test
+	@ProbeTest(key = "c4f2b90e6a73")
+	public void aTestShouldFailWhenItsInvocationThrowsAnExceptionWithoutCause() {
+		SessionContext sc = mock(SessionContext.class);
+		when(sc.getUserTransaction()).thenReturn(new CountingUserTransaction());
+
+		TestController testController = new DummyTestControllerWithFailingInvoker();
+		Whitebox.setInternalState(testController, "sessionContext", sc);
+
+		final List<Description> failed = Collections.synchronizedList(new ArrayList<Description>());
+
+		testController.run(
+			null,
+			createListenerMap(
+				"failListener",
+				new Listener() {
+					@Override public void testRunStart() {}
+					@Override public void testRunEnd() {}
+					@Override public void testStart(Description description) {}
+					@Override public void testEnd(Description description) {}
+					@Override public void success(Description description) {}
+
+					@Override
+					public void fail(Description description) {
+						failed.add(description);
+					}
+				}
+			),
+			null
+		);
+
+		assertEquals(1, failed.size());
+		assertTrue(failed.get(0).getMessage().contains("Access denied"));
+	}
+	
+	@Test
+	@ProbeTest(key = "b7e1d24a9c03")
+	public void setupMethodsShouldRunInTheSameThreadThanTheTestWhenTestsAreRunInParallel() {
+		SessionContext sc = mock(SessionContext.class);
+		CountingUserTransaction ut = new CountingUserTransaction();
+		
+		TestController testController = new DummyTestControllerWithParallelTests();
+		
+		when(sc.getUserTransaction()).thenReturn(ut);
+		
+		Whitebox.setInternalState(testController, "sessionContext", sc);
+		
+		final AtomicInteger succeeded = new AtomicInteger();
+		final AtomicInteger failed = new AtomicInteger();
+		
+		TestRunOptions options = new TestRunOptions();
+		options.setTestParallelism(3);
+		
+		testController.run(
+			null, 
+			createListenerMap(
+				"customListener", 
+				new Listener() {
+					@Override public void testRunStart() {}
+					@Override public void testRunEnd() {}
+					@Override public void testStart(Description description) {}
+					@Override public void testEnd(Description description) {}
+
+					@Override
+					public void fail(Description description) {
+						failed.incrementAndGet();
+					}
+
+					@Override
+					public void success(Description description) {
+						succeeded.incrementAndGet();
+					}
+				}
+			), 
+			null,
+			options
+		);
+		
+		assertEquals("No test should fail", 0, failed.get());
+		assertEquals("Every test should succeed", 6, succeeded.get());
+		assertEquals("Each test should start a transaction for itself and its two out of transaction setups", 18, ut.begun.get());
+		assertEquals("Every transaction should be completed", ut.begun.get(), ut.completed.get());
+	}
+	
+	@Test
+	@ProbeTest(key = "91d3f07b2e58")
+	public void testGroupsShouldRunSequentiallyWhenNoExecutorIsAvailable() {
+		SessionContext sc = mock(SessionContext.class);
+		CountingUserTransaction ut = new CountingUserTransaction();
+		
+		TestController testController = new DummyTestControllerWithTestBeforeAfterAll();
+		
+		when(sc.getUserTransaction()).thenReturn(ut);
+		
+		Whitebox.setInternalState(testController, "sessionContext", sc);
+		
+		TestRunOptions options = new TestRunOptions();
+		options.setGroupParallelism(4);
+		
+		testController.run(null, null, null, options);
+		
+		assertEquals("Four transactions should be started", 4, ut.begun.get());
+	}
+	
+	@Test
+	@ProbeTest(key = "c0a5e93d18f7")
+	public void listenersShouldBeNotifiedFromTheirOwnThreadAndFlushedWhenTheRunEnds() {
+		SessionContext sc = mock(SessionContext.class);
+		CountingUserTransaction ut = new CountingUserTransaction();
+		
+		TestController testController = new DummyTestControllerWithParallelTests();
+		
+		when(sc.getUserTransaction()).thenReturn(ut);
+		
+		Whitebox.setInternalState(testController, "sessionContext", sc);
+		
+		final AtomicInteger succeeded = new AtomicInteger();
+		final Thread runThread = Thread.currentThread();
+		final AtomicInteger notifiedInRunThread = new AtomicInteger();
+		
+		TestRunOptions options = new TestRunOptions();
+		options.setAsyncListeners(true);
+		options.setListenerBufferSize(2);
+		
+		testController.run(
+			null, 
+			createListenerMap(
+				"customListener", 
+				new Listener() {
+					@Override public void testRunStart() {}
+					@Override public void testRunEnd() {}
+					@Override public void testEnd(Description description) {}
+					@Override public void fail(Description description) {}
+
+					@Override
+					public void testStart(Description description) {
+						if (Thread.currentThread() == runThread) {
+							notifiedInRunThread.incrementAndGet();
+						}
+					}
+
+					@Override
+					public void success(Description description) {
+						succeeded.incrementAndGet();
+					}
+				}
+			), 
+			null,
+			options
+		);
+		
+		assertEquals("Every event should be flushed when the run ends", 6, succeeded.get());
+		assertEquals("The listener should never be notified from the test thread", 0, notifiedInRunThread.get());
+	}
+	
+	@Test
+	@ProbeTest(key = "3e9b0f6c27a1")
+	public void setupMethodsShouldNotRunForATestGroupWithoutSelectedTests() {
+		SessionContext sc = mock(SessionContext.class);
+		CountingUserTransaction ut = new CountingUserTransaction();
+		
+		TestController testController = new DummyTestControllerWithTestBeforeAfterAll();
+		
+		when(sc.getUserTransaction()).thenReturn(ut);
+		
+		Whitebox.setInternalState(testController, "sessionContext", sc);
+		
+		Map<String, Filter> filters = new HashMap<>();
+		filters.put("nameFilter", new DefaultFilter(Arrays.asList(new FilterDefinitionTO("name", "noTestHasThisName"))));
+		
+		testController.run(filters, null, null);
+		
+		assertEquals("No transaction should be started", 0, ut.begun.get());
+	}
+	
+	@Test
+	@ProbeTest(key = "a84d2e0c7f35")
+	public void theShardsShouldRunEveryTestExactlyOnce() {
+		assertEquals("Every test should run once over all the shards", 6, runShards(ShardStrategy.HASH, null));
+	}
+
+	@Test
+	@ProbeTest(key = "47c1e9b5d028")
+	public void theShardsShouldRunEveryTestExactlyOnceWithTheSameDurations() {
+		DurationHistory shardDurations = new DurationHistory();
+		shardDurations.setTestDuration(DummyTestControllerWithParallelTests.DummyTestGroup.class.getCanonicalName() + ".testMethodOne", 100);
+
+		assertEquals("Every test should run once over all the shards", 6, runShards(ShardStrategy.DURATION, shardDurations));
+	}
+
+	@Test
+	@ProbeTest(key = "8e3a5d17c0f2")
+	public void theShardsShouldRunEveryTestExactlyOnceWithoutDurations() {
+		assertEquals("Every test should run once over all the shards", 6, runShards(ShardStrategy.DURATION, null));
+	}
+
+	/**
+	 * Run all the shards of a run one after the other with the same controller
+	 *
+	 * @return The number of tests that succeed over all the shards
+	 */
+	private int runShards(ShardStrategy strategy, DurationHistory shardDurations) {
+		SessionContext sc = mock(SessionContext.class);
+		when(sc.getUserTransaction()).thenReturn(new CountingUserTransaction());
+
+		final AtomicInteger succeeded = new AtomicInteger();
+
+		for (int shard = 0; shard < 3; shard++) {
+			TestController testController = new DummyTestControllerWithParallelTests();
+			Whitebox.setInternalState(testController, "sessionContext", sc);
+
+			TestRunOptions options = new TestRunOptions();
+			options.setShardIndex(shard);
+			options.setShardCount(3);
+			options.setShardStrategy(strategy);
+			options.setShardDurations(shardDurations);
+
+			testController.run(
+				null,
+				createListenerMap(
+					"customListener",
+					new Listener() {
+						@Override public void testRunStart() {}
+						@Override public void testRunEnd() {}
+						@Override public void testStart(Description description) {}
+						@Override public void testEnd(Description description) {}
+						@Override public void fail(Description description) {}
+
+						@Override
+						public void success(Description description) {
+							succeeded.incrementAndGet();
+						}
+					}
+				),
+				(long) shard,
+				options
+			);
+		}
+
+		return succeeded.get();
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	@ProbeTest(key = "5d0e9a3b61fc")
+	public void aShardOutOfTheNumberOfShardsShouldBeRefused() {
+		TestRunOptions options = new TestRunOptions();
+		options.setShardIndex(2);
+		options.setShardCount(2);
+
+		testControllerWithAnnotation.run(null, null, null, options);
+	}
+
+	@Test
+	@ProbeTest(key = "c26f8e1a4d93")
+	public void thePhasesOfEachTestShouldBeReportedOnceTheTestAndItsSetupMethodsAreDone() {
+		SessionContext sc = mock(SessionContext.class);
+		when(sc.getUserTransaction()).thenReturn(new CountingUserTransaction());
+
+		TestController testController = new DummyTestControllerWithParallelTests();
+		Whitebox.setInternalState(testController, "sessionContext", sc);
+
+		final Set<Description> ended = Collections.newSetFromMap(new ConcurrentHashMap<Description, Boolean>());
+		final AtomicInteger reported = new AtomicInteger();
+		final AtomicInteger reportedBeforeEnd = new AtomicInteger();
+		final AtomicInteger withoutTestDuration = new AtomicInteger();
+		final AtomicInteger withoutResources = new AtomicInteger();
+
+		testController.run(
+			null,
+			createListenerMap(
+				"phaseListener",
+				new PhaseListener() {
+					@Override public void testRunStart() {}
+					@Override public void testRunEnd() {}
+					@Override public void testStart(Description description) {}
+					@Override public void fail(Description description) {}
+					@Override public void success(Description description) {}
+
+					@Override
+					public void testEnd(Description description) {
+						ended.add(description);
+					}
+
+					@Override
+					public void testPhases(Description description) {
+						reported.incrementAndGet();
+
+						if (!ended.contains(description)) {
+							reportedBeforeEnd.incrementAndGet();
+						}
+
+						if (description.getPhaseDuration(TestPhase.TEST) <= 0) {
+							withoutTestDuration.incrementAndGet();
+						}
+
+						if ((ThreadResources.isCpuTimeEnabled() && description.getPhaseCpuTime(TestPhase.TEST) < 0) ||
+							(ThreadResources.isAllocationEnabled() && description.getPhaseAllocatedBytes(TestPhase.TEST) < 0)) {
+							withoutResources.incrementAndGet();
+						}
+					}
+				}
+			),
+			null
+		);
+
+		assertEquals("The phases of every test should be reported", 6, reported.get());
+		assertEquals("The phases should be reported after the end of the test", 0, reportedBeforeEnd.get());
+		assertEquals("The duration of the test method should be recorded", 0, withoutTestDuration.get());
+		assertEquals("The CPU time and the allocated memory of the test method should be recorded when supported", 0, withoutResources.get());
+	}
+
+	@Test
+	@ProbeTest(key = "e0b94d7a13c6")
+	public void theMetricsShouldBeExposedThroughJmxWhileTheRunIsInProgress() throws Exception {
+		SessionContext sc = mock(SessionContext.class);
+		when(sc.getUserTransaction()).thenReturn(new CountingUserTransaction());
+
+		TestController testController = new DummyTestControllerWithParallelTests();
+		Whitebox.setInternalState(testController, "sessionContext", sc);
+
+		final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		final ObjectName objectName = new ObjectName("io.probedock.jee.itf:type=TestRunMetrics,controller=" +
+			ObjectName.quote(DummyTestControllerWithParallelTests.class.getName()));
+		final List<Object> startedSeen = Collections.synchronizedList(new ArrayList<>());
+		final List<Object> openTransactionsSeen = Collections.synchronizedList(new ArrayList<>());
+
+		testController.run(
+			null,
+			createListenerMap(
+				"jmxListener",
+				new Listener() {
+					@Override public void testRunStart() {}
+					@Override public void testRunEnd() {}
+					@Override public void testEnd(Description description) {}
+					@Override public void fail(Description description) {}
+					@Override public void success(Description description) {}
+
+					@Override
+					public void testStart(Description description) {
+						try {
+							startedSeen.add(server.getAttribute(objectName, "TestsStarted"));
+							openTransactionsSeen.add(server.getAttribute(objectName, "OpenTransactions"));
+						} catch (Exception e) {
+							startedSeen.add(e);
+						}
+					}
+				}
+			),
+			null
+		);
+
+		assertEquals("The started tests should be counted", Arrays.<Object>asList(1L, 2L, 3L, 4L, 5L, 6L), startedSeen);
+		assertEquals("No transaction should be open when a test starts", Collections.<Object>nCopies(6, 0), openTransactionsSeen);
+		assertFalse("The metrics should be unregistered at the end of the run", server.isRegistered(objectName));
+	}
+
+	@Test
+	@ProbeTest(key = "b5e0d83f27a1")
+	public void thePerformanceTestsShouldBeInvokedRepeatedlyAndReportTheirLatencies() {
+		CountingUserTransaction utx = new CountingUserTransaction();
+		SessionContext sc = mock(SessionContext.class);
+		when(sc.getUserTransaction()).thenReturn(utx);
+
+		DummyTestControllerWithPerfTests testController = new DummyTestControllerWithPerfTests();
+		Whitebox.setInternalState(testController, "sessionContext", sc);
+
+		final Map<String, Description> results = new ConcurrentHashMap<>();
+
+		testController.run(
+			null,
+			createListenerMap(
+				"perfListener",
+				new Listener() {
+					@Override public void testRunStart() {}
+					@Override public void testRunEnd() {}
+					@Override public void testStart(Description description) {}
+					@Override public void testEnd(Description description) {}
+
+					@Override
+					public void fail(Description description) {
+						results.put(description.getSimpleName(), description);
+					}
+
+					@Override
+					public void success(Description description) {
+						results.put(description.getSimpleName(), description);
+					}
+				}
+			),
+			null
+		);
+
+		DummyTestControllerWithPerfTests.DummyTestGroup testGroup = testController.testGroup;
+
+		assertEquals("The warmup and measured invocations should run", 25, testGroup.sharedTxInvocations.get());
+		assertTrue(results.get("sharedTx").isPassed());
+		assertEquals("20", results.get("sharedTx").getData().get("perf.iterations"));
+		assertEquals("5", results.get("sharedTx").getData().get("perf.warmup"));
+		assertTrue(results.get("sharedTx").getData().containsKey("perf.p99"));
+
+		assertEquals(12, testGroup.txPerIterationInvocations.get());
+		assertEquals("The setup methods of the main transaction should run for each invocation", 12, testGroup.txPerIterationSetups.get());
+		assertTrue(results.get("txPerIteration").isPassed());
+
+		assertEquals("The invocations should stop at the first failure", 4, testGroup.failingInvocations.get());
+		assertFalse(results.get("failing").isPassed());
+		assertEquals("4", results.get("failing").getData().get("perf.failedIteration"));
+
+		assertFalse("The test should fail when the 99th percentile exceeds its maximum", results.get("slow").isPassed());
+		assertTrue(results.get("slow").getMessage().contains("exceeds the maximum"));
+
+		// One transaction per test and one per invocation of the test with a transaction per iteration
+		assertEquals(3 + 12, utx.begun.get());
+		assertEquals(utx.begun.get(), utx.completed.get());
+	}
+
+	@Test
+	@ProbeTest(key = "7d2e90b4c6a5")
+	public void theLoadTestsShouldBeInvokedConcurrentlyInTheirOwnTransactions() {
+		CountingUserTransaction utx = new CountingUserTransaction();
+		SessionContext sc = mock(SessionContext.class);
+		when(sc.getUserTransaction()).thenReturn(utx);
+
+		DummyTestControllerWithLoadTests testController = new DummyTestControllerWithLoadTests();
+		Whitebox.setInternalState(testController, "sessionContext", sc);
+
+		final Map<String, Description> results = new ConcurrentHashMap<>();
+
+		testController.run(
+			null,
+			createListenerMap(
+				"loadListener",
+				new Listener() {
+					@Override public void testRunStart() {}
+					@Override public void testRunEnd() {}
+					@Override public void testStart(Description description) {}
+					@Override public void testEnd(Description description) {}
+
+					@Override
+					public void fail(Description description) {
+						results.put(description.getSimpleName(), description);
+					}
+
+					@Override
+					public void success(Description description) {
+						results.put(description.getSimpleName(), description);
+					}
+				}
+			),
+			null
+		);
+
+		DummyTestControllerWithLoadTests.DummyTestGroup testGroup = testController.testGroup;
+		Description reliable = results.get("reliable");
+
+		assertTrue(reliable.isPassed());
+		assertTrue("The invocations should come from several callers", testGroup.callers.size() > 1);
+		assertEquals(String.valueOf(testGroup.invocations.get()), reliable.getData().get("load.invocations"));
+		assertEquals("0", reliable.getData().get("load.errors"));
+		assertEquals("4", reliable.getData().get("load.threads"));
+		assertTrue(reliable.getData().containsKey("load.throughput"));
+		assertTrue(reliable.getData().containsKey("load.p99"));
+
+		Description unreliable = results.get("unreliable");
+
+		assertFalse("The test should fail when the error rate exceeds its maximum", unreliable.isPassed());
+		assertTrue(unreliable.getMessage(), unreliable.getMessage().contains("Every other invocation fails"));
+
+		assertEquals("Each invocation should run in its own transaction", utx.begun.get(), utx.completed.get());
+		assertTrue(utx.begun.get() > testGroup.invocations.get());
+		assertEquals("The fixtures should run in the transaction of each invocation", 
+			testGroup.invocations.get() + testGroup.unreliableInvocations.get(), testGroup.fixtures.get());
+	}
+
+	@Test
+	@ProbeTest(key = "f3a81c6e0b27")
+	public void theTestsThatExceedTheirTimeoutShouldBeInterruptedAndRolledBack() {
+		final List<Integer> transactionTimeouts = Collections.synchronizedList(new ArrayList<Integer>());
+		final AtomicInteger commits = new AtomicInteger();
+
+		SessionContext sc = mock(SessionContext.class);
+		when(sc.getUserTransaction()).thenReturn(
+			new UserTransaction() {
+				@Override public void begin() throws NotSupportedException, SystemException {}
+				@Override public void commit() throws RollbackException, HeuristicMixedException, HeuristicRollbackException, SecurityException, IllegalStateException, SystemException { commits.incrementAndGet(); }
+				@Override public void rollback() throws IllegalStateException, SecurityException, SystemException {}
+				@Override public void setRollbackOnly() throws IllegalStateException, SystemException {}
+				@Override public int getStatus() throws SystemException { return 0; }
+				@Override public void setTransactionTimeout(int i) throws SystemException { transactionTimeouts.add(i); }
+			}
+		);
+
+		TestController testController = new DummyTestControllerWithTimeouts();
+		Whitebox.setInternalState(testController, "sessionContext", sc);
+
+		TestRunOptions options = new TestRunOptions();
+		options.setDefaultTimeoutMs(100);
+
+		final Map<String, Description> results = new ConcurrentHashMap<>();
+
+		long start = System.currentTimeMillis();
+		testController.run(
+			null,
+			createListenerMap(
+				"timeoutListener",
+				new Listener() {
+					@Override public void testRunStart() {}
+					@Override public void testRunEnd() {}
+					@Override public void testStart(Description description) {}
+					@Override public void testEnd(Description description) {}
+
+					@Override
+					public void fail(Description description) {
+						results.put(description.getSimpleName(), description);
+					}
+
+					@Override
+					public void success(Description description) {
+						results.put(description.getSimpleName(), description);
+					}
+				}
+			),
+			null,
+			options
+		);
+
+		assertTrue("The hanging tests should be interrupted", System.currentTimeMillis() - start < 5000);
+		assertFalse("The watchdog should not leave the thread interrupted", Thread.currentThread().isInterrupted());
+
+		assertFalse(results.get("hanging").isPassed());
+		assertTrue(results.get("hanging").getMessage().contains("timeout of 50ms"));
+		assertEquals("true", results.get("hanging").getData().get("timedOut"));
+		assertEquals("The transaction of a test that exceeded its timeout should not be committed", 0, commits.get());
+
+		assertFalse("The default timeout should apply to the tests without timeout", results.get("hangingWithDefaultTimeout").isPassed());
+		assertTrue(results.get("hangingWithDefaultTimeout").getMessage().contains("timeout of 100ms"));
+
+		assertTrue(results.get("fast").isPassed());
+		assertNull(results.get("fast").getData().get("timedOut"));
+
+		// The timeout of each main transaction is set in seconds then reset, the tests run in a random order
+		List<Integer> mainTransactionTimeouts = new ArrayList<>();
+		for (int i = 0; i < transactionTimeouts.size(); i += 2) {
+			mainTransactionTimeouts.add(transactionTimeouts.get(i));
+			assertEquals("The timeout should be reset after the start of the transaction", Integer.valueOf(0), transactionTimeouts.get(i + 1));
+		}
+		Collections.sort(mainTransactionTimeouts);
+		assertEquals(Arrays.asList(1, 1, 5), mainTransactionTimeouts);
+	}
+
+	@Test
+	@ProbeTest(key = "2b6f0e8d3a94")
+	public void theStatementsOfEachTestShouldBeCountedAndCheckedAgainstItsMaximum() throws Exception {
+		SessionContext sc = mock(SessionContext.class);
+		when(sc.getUserTransaction()).thenReturn(new CountingUserTransaction());
+
+		Connection connection = mock(Connection.class);
+		when(connection.createStatement()).thenReturn(mock(Statement.class));
+		DataSource dataSource = mock(DataSource.class);
+		when(dataSource.getConnection()).thenReturn(connection);
+
+		DummyTestControllerWithSql testController = new DummyTestControllerWithSql();
+		testController.testGroup.dataSource = new InstrumentedDataSource(dataSource);
+		Whitebox.setInternalState(testController, "sessionContext", sc);
+
+		final Map<String, Description> results = new ConcurrentHashMap<>();
+
+		testController.run(
+			null,
+			createListenerMap(
+				"sqlListener",
+				new Listener() {
+					@Override public void testRunStart() {}
+					@Override public void testRunEnd() {}
+					@Override public void testStart(Description description) {}
+					@Override public void testEnd(Description description) {}
+
+					@Override
+					public void fail(Description description) {
+						results.put(description.getSimpleName(), description);
+					}
+
+					@Override
+					public void success(Description description) {
+						results.put(description.getSimpleName(), description);
+					}
+				}
+			),
+			null
+		);
+
+		Description overBudget = results.get("overBudget");
+		assertFalse("The test should fail when it exceeds its maximum of queries", overBudget.isPassed());
+		assertTrue(overBudget.getMessage().contains("3 statements"));
+		assertEquals("3", overBudget.getData().get("sql.statements"));
+
+		Description repeated = results.get("repeated");
+		assertTrue(repeated.isPassed());
+		assertEquals(6, repeated.getSqlStatistics().getStatements());
+		assertEquals("The repeated statement should be reported", "1", repeated.getData().get("sql.repeated"));
+
+		assertNull("The recording should stop with the test", SqlRecorder.current());
+	}
+
 	private class DummyTestControllerWithoutAnnotation extends AbstractTestController {
 		@EJB
 		public TestGroup testGroup = ItfTestHelper.createDefaultTestGroup();
@@ -408,6 +1348,21 @@ public class TestControllerTest {
 		private TestGroup testGroup = ItfTestHelper.createDefaultTestGroup();
 	}
 	
+	/**
+	 * User transaction that counts the transactions in a thread safe way
+	 */
+	private static class CountingUserTransaction implements UserTransaction {
+		private AtomicInteger begun = new AtomicInteger();
+		private AtomicInteger completed = new AtomicInteger();
+
+		@Override public void begin() throws NotSupportedException, SystemException { begun.incrementAndGet(); }
+		@Override public void commit() throws RollbackException, HeuristicMixedException, HeuristicRollbackException, SecurityException, IllegalStateException, SystemException { completed.incrementAndGet(); }
+		@Override public void rollback() throws IllegalStateException, SecurityException, SystemException { completed.incrementAndGet(); }
+		@Override public void setRollbackOnly() throws IllegalStateException, SystemException {}
+		@Override public int getStatus() throws SystemException { return 0; }
+		@Override public void setTransactionTimeout(int i) throws SystemException {}
+	}
+	
 	private Map<String, Listener> createListenerMap(String name, Listener l) {
 		Map<String, Listener> map = new HashMap<String, Listener>();
 		
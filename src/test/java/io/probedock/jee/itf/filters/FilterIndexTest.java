@@ -0,0 +1,99 @@
+package io.probedock.jee.itf.filters;
+
+import io.probedock.jee.itf.TestGroup;
+import io.probedock.jee.itf.model.Description;
+import io.probedock.jee.itf.model.TestGroupDefinition;
+import io.probedock.jee.itf.rest.FilterDefinitionTO;
+import io.probedock.client.annotations.ProbeTest;
+import io.probedock.client.annotations.ProbeTestClass;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for {@link FilterIndex}
+ * 
+ * @author Laurent Prevost <laurent.prevost@probedock.io>
+ */
+@ProbeTestClass(tags = "filter-index")
+public class FilterIndexTest {
+	private Description description;
+
+	@Before
+	public void createDescription() {
+		description = new TestGroupDefinition(new AnnotatedTestGroup(), new Random()).getTestMethods().get(0);
+	}
+
+	@Test
+	@ProbeTest(key = "8d1e7b05c3fa")
+	public void theKeyTagAndTicketFiltersShouldMatchTheProbeDockAnnotations() {
+		assertTrue("The key should match", index("key", "abcdef123456").matches(description));
+		assertTrue("The tag of the method should match", index("tag", "method-tag").matches(description));
+		assertTrue("The tag of the class should match", index("tag", "class-tag").matches(description));
+		assertTrue("The ticket should match", index("ticket", "ISSUE-42").matches(description));
+		assertFalse("Another key should not match", index("key", "123456abcdef").matches(description));
+		assertFalse("A key should not be matched as a tag", index("tag", "abcdef123456").matches(description));
+	}
+
+	@Test
+	@ProbeTest(key = "41b9c0e27d6a")
+	public void theFingerprintFilterShouldMatchTheSha1OfTheTestName() {
+		String fingerprint = description.getProbeMetadata().getFingerprint();
+
+		assertEquals("The fingerprint should be a SHA-1", 40, fingerprint.length());
+		assertTrue("The fingerprint should match", index("fingerprint", fingerprint).matches(description));
+	}
+
+	@Test
+	@ProbeTest(key = "f2a6d83e915b")
+	public void theNameFiltersShouldBeSearchedInTheMethodName() {
+		assertTrue("Part of the name should match", index("name", "Annotated").matches(description));
+		assertTrue("A filter without type should be a name filter", index(null, "Method").matches(description));
+		assertTrue("An unknown type should be a name filter", index("unknown", "anAnnotated").matches(description));
+		assertFalse("The tag should not be matched as a name", index("name", "method-tag").matches(description));
+
+		FilterIndex overlapping = new FilterIndex(Arrays.asList(
+			new FilterDefinitionTO("name", "anAnnotatedX"),
+			new FilterDefinitionTO("name", "notedMethod"),
+			new FilterDefinitionTO("name", "Meth0d")
+		));
+		assertFalse("No overlapping pattern should match", overlapping.matches(description));
+
+		overlapping = new FilterIndex(Arrays.asList(
+			new FilterDefinitionTO("name", "anAnnotatedX"),
+			new FilterDefinitionTO("name", "tatedMe")
+		));
+		assertTrue("The pattern should be found after a failed partial match", overlapping.matches(description));
+	}
+
+	@Test
+	@ProbeTest(key = "0c57e4a1b8d3")
+	public void theAnyFilterShouldMatchEveryType() {
+		assertTrue("The key should match", index("*", "abcdef123456").matches(description));
+		assertTrue("The tag should match", index("*", "class-tag").matches(description));
+		assertTrue("The name should match", index("*", "Annotated").matches(description));
+		assertFalse("Nothing should match", index("*", "nothing").matches(description));
+	}
+
+	private FilterIndex index(String type, String text) {
+		return new FilterIndex(Arrays.asList(new FilterDefinitionTO(type, text)));
+	}
+
+	@ProbeTestClass(tags = "class-tag")
+	public static class AnnotatedTestGroup implements TestGroup {
+		@io.probedock.jee.itf.annotations.Test
+		@ProbeTest(key = "abcdef123456", tags = "method-tag", tickets = "ISSUE-42")
+		public Description anAnnotatedMethod(Description description) {
+			return description.pass();
+		}
+
+		@Override
+		public TestGroup getTestGroup() {
+			return this;
+		}
+	}
+}
@@ -0,0 +1,93 @@
+package io.probedock.jee.itf.invokers;
+
+import io.probedock.jee.itf.model.Description;
+import io.probedock.jee.itf.test.utils.ItfTestHelper;
+import io.probedock.client.annotations.ProbeTest;
+import io.probedock.client.annotations.ProbeTestClass;
+import java.lang.reflect.InvocationTargetException;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for {@link MethodHandleInvoker} and {@link ReflectionInvoker}
+ * 
+ * @author Laurent Prevost <laurent.prevost@probedock.io>
+ */
+@ProbeTestClass(tags = "invoker")
+public class InvokerTest {
+	@Test
+	@ProbeTest(key = "0b6e2f9d8c41")
+	public void setupMethodShouldBeInvokedThroughMethodHandle() throws Exception {
+		DummyTarget target = new DummyTarget();
+		Invocation invocation = new MethodHandleInvoker().bind(DummyTarget.class.getMethod("setup"));
+
+		assertNull("A setup method should return null", invocation.invoke(target, null));
+		assertEquals("The setup method should be invoked once", 1, target.setupCount);
+	}
+
+	@Test
+	@ProbeTest(key = "7f3a1c5e2d90")
+	public void testMethodShouldReceiveAndReturnTheDescriptionThroughMethodHandle() throws Exception {
+		Description description = ItfTestHelper.createDefaultDescription();
+		Invocation invocation = new MethodHandleInvoker().bind(DummyTarget.class.getMethod("test", Description.class));
+
+		assertSame("The test method should return the description", description, invocation.invoke(new DummyTarget(), description));
+		assertTrue("The test method should pass the description", description.isPassed());
+	}
+
+	@Test
+	@ProbeTest(key = "c2d85e0a7b16")
+	public void exceptionsShouldBeWrappedLikeTheReflectionDoes() throws Exception {
+		Invoker[] invokers = { new MethodHandleInvoker(), new ReflectionInvoker() };
+
+		for (Invoker invoker : invokers) {
+			Invocation invocation = invoker.bind(DummyTarget.class.getMethod("failingSetup"));
+
+			try {
+				invocation.invoke(new DummyTarget(), null);
+				fail("An exception should be thrown by " + invoker.getClass().getSimpleName());
+			}
+			catch (InvocationTargetException ite) {
+				assertTrue("The cause should be the exception thrown by the method", ite.getCause() instanceof IllegalStateException);
+			}
+		}
+	}
+
+	@Test
+	@ProbeTest(key = "5a9e04d1f37c")
+	public void invocationShouldBeBoundAgainOnlyWhenTheInvokerChanges() throws Exception {
+		InvocationBinding binding = new InvocationBinding(DummyTarget.class.getMethod("setup"));
+
+		Invocation first = binding.get(new MethodHandleInvoker());
+
+		assertSame("The invocation should be reused for an equal invoker", first, binding.get(new MethodHandleInvoker()));
+		assertNotSame("The invocation should be bound again for another invoker", first, binding.get(new ReflectionInvoker()));
+	}
+
+	@Test
+	@ProbeTest(key = "e41b7d6c9028")
+	public void overheadShouldBeMeasuredOncePerInvoker() {
+		long overhead = InvocationOverhead.of(new MethodHandleInvoker());
+
+		assertTrue("The overhead cannot be negative", overhead >= 0);
+		assertEquals("The overhead should be measured once", overhead, InvocationOverhead.of(new MethodHandleInvoker()));
+	}
+
+	public static class DummyTarget {
+		private int setupCount;
+
+		public void setup() {
+			setupCount++;
+		}
+
+		public void failingSetup() {
+			throw new IllegalStateException("Failure");
+		}
+
+		public Description test(Description description) {
+			return description.pass();
+		}
+	}
+}
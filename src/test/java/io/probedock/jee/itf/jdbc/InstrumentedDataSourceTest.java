@@ -0,0 +1,106 @@
+package io.probedock.jee.itf.jdbc;
+
+import io.probedock.client.annotations.ProbeTest;
+import io.probedock.client.annotations.ProbeTestClass;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import javax.sql.DataSource;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for {@link InstrumentedDataSource}
+ *
+ * @author Laurent Prevost <laurent.prevost@probedock.io>
+ */
+@ProbeTestClass(tags = "instrumented-data-source")
+public class InstrumentedDataSourceTest {
+	private static final String SELECT = "select name from item where order_id = ?";
+
+	private DataSource dataSource;
+	private Statement statement;
+
+	@Before
+	public void setUp() throws SQLException {
+		Connection connection = mock(Connection.class);
+		PreparedStatement preparedStatement = mock(PreparedStatement.class);
+		statement = mock(Statement.class);
+
+		when(connection.prepareStatement(SELECT)).thenReturn(preparedStatement);
+		when(connection.createStatement()).thenReturn(statement);
+		when(preparedStatement.executeQuery()).thenAnswer(new Answer<ResultSet>() {
+			@Override
+			public ResultSet answer(InvocationOnMock invocation) throws Throwable {
+				ResultSet resultSet = mock(ResultSet.class);
+				when(resultSet.next()).thenReturn(true, true, false);
+				return resultSet;
+			}
+		});
+
+		DataSource wrapped = mock(DataSource.class);
+		when(wrapped.getConnection()).thenReturn(connection);
+
+		dataSource = new InstrumentedDataSource(wrapped);
+	}
+
+	@After
+	public void tearDown() {
+		SqlRecorder.stop();
+	}
+
+	@Test
+	@ProbeTest(key = "8a2f6d0e1c37")
+	public void theStatementsAndTheRowsShouldBeRecordedByTheThreadThatRunsTheTest() throws SQLException {
+		SqlStatistics statistics = SqlRecorder.start();
+
+		Connection connection = dataSource.getConnection();
+		for (int i = 0; i < SqlStatistics.REPEATED_STATEMENT_THRESHOLD; i++) {
+			PreparedStatement preparedStatement = connection.prepareStatement(SELECT);
+			preparedStatement.setLong(1, i);
+
+			ResultSet resultSet = preparedStatement.executeQuery();
+			while (resultSet.next()) {
+				resultSet.getString(1);
+			}
+		}
+
+		connection.createStatement().executeUpdate("delete from item");
+
+		assertSame(statistics, SqlRecorder.stop());
+		assertEquals(SqlStatistics.REPEATED_STATEMENT_THRESHOLD + 1, statistics.getStatements());
+		assertEquals(2 * SqlStatistics.REPEATED_STATEMENT_THRESHOLD, statistics.getRows());
+		assertTrue(statistics.getTime() > 0);
+		assertEquals(1, statistics.getExecutions("delete from item"));
+		assertEquals("The repeated statement should be reported", 1, statistics.getRepeatedStatements().size());
+		assertEquals(Integer.valueOf(SqlStatistics.REPEATED_STATEMENT_THRESHOLD), statistics.getRepeatedStatements().get(SELECT));
+		verify(statement).executeUpdate("delete from item");
+	}
+
+	@Test
+	@ProbeTest(key = "c91e4b7a05d2")
+	public void theStatementsShouldNotBeRecordedWhenTheThreadDoesNotRecord() throws SQLException {
+		Connection connection = dataSource.getConnection();
+		ResultSet resultSet = connection.prepareStatement(SELECT).executeQuery();
+
+		assertTrue(resultSet.next());
+		assertNull(SqlRecorder.current());
+	}
+
+	@Test(expected = SQLException.class)
+	@ProbeTest(key = "4d7b2c9f8e61")
+	public void theExceptionsOfTheDriverShouldBeThrownAsIs() throws SQLException {
+		when(statement.execute("drop table item")).thenThrow(new SQLException("Not allowed"));
+
+		SqlRecorder.start();
+		dataSource.getConnection().createStatement().execute("drop table item");
+	}
+}
@@ -0,0 +1,132 @@
+package io.probedock.jee.itf.jdbc;
+
+import io.probedock.client.annotations.ProbeTest;
+import io.probedock.client.annotations.ProbeTestClass;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.Arrays;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for {@link TableSnapshot}
+ *
+ * @author Laurent Prevost <laurent.prevost@probedock.io>
+ */
+@ProbeTestClass(tags = "table-snapshot")
+public class TableSnapshotTest {
+	private Connection connection;
+	private Statement statement;
+
+	@Before
+	public void setUp() throws SQLException {
+		connection = mock(Connection.class);
+		statement = mock(Statement.class);
+
+		when(connection.createStatement()).thenReturn(statement);
+		when(connection.getAutoCommit()).thenReturn(true);
+	}
+
+	@Test
+	@ProbeTest(key = "a4e81f5c2d96")
+	public void theTablesShouldBeEmptiedInReverseOrderThenFilledInOneBatchPerTable() throws SQLException {
+		ResultSet customers = resultSet(new String[] { "ID", "NAME" }, new int[] { Types.BIGINT, Types.VARCHAR }, new Object[] { 1L, "Alice" }, new Object[] { 2L, null });
+		ResultSet orders = resultSet(new String[] { "ID" }, new int[] { Types.BIGINT });
+		when(statement.executeQuery("SELECT * FROM customer")).thenReturn(customers);
+		when(statement.executeQuery("SELECT * FROM orders")).thenReturn(orders);
+
+		PreparedStatement insert = mock(PreparedStatement.class);
+		when(connection.prepareStatement("INSERT INTO customer (ID, NAME) VALUES (?, ?)")).thenReturn(insert);
+
+		TableSnapshot snapshot = TableSnapshot.capture(connection, "customer", "orders");
+
+		assertEquals(2, snapshot.getTableCount());
+		assertEquals(2, snapshot.getRowCount());
+		assertEquals(2, snapshot.restore(connection));
+
+		InOrder inOrder = inOrder(connection, statement, insert);
+		inOrder.verify(connection).setAutoCommit(false);
+		inOrder.verify(statement).executeUpdate("DELETE FROM orders");
+		inOrder.verify(statement).executeUpdate("DELETE FROM customer");
+		inOrder.verify(insert).setObject(1, 1L);
+		inOrder.verify(insert).setObject(2, "Alice");
+		inOrder.verify(insert).setNull(2, Types.VARCHAR);
+		inOrder.verify(insert).executeBatch();
+		inOrder.verify(connection).commit();
+		inOrder.verify(connection).setAutoCommit(true);
+
+		verify(insert, times(2)).addBatch();
+		verify(connection, never()).prepareStatement("INSERT INTO orders (ID) VALUES (?)");
+	}
+
+	@Test
+	@ProbeTest(key = "3b70c9d8e1f4")
+	public void theRestorationShouldBeRolledBackWhenATableCannotBeRestoredWithoutHidingTheError() throws SQLException {
+		ResultSet customers = resultSet(new String[] { "ID" }, new int[] { Types.BIGINT });
+		when(statement.executeQuery("SELECT * FROM customer")).thenReturn(customers);
+		when(statement.executeUpdate("DELETE FROM customer")).thenThrow(new SQLException("Locked"));
+		doThrow(new SQLException("Connection lost")).when(connection).rollback();
+
+		TableSnapshot snapshot = TableSnapshot.capture(connection, "customer");
+
+		try {
+			snapshot.restore(connection);
+			fail("The error of the restoration should be thrown");
+		} catch (SQLException e) {
+			assertEquals("Locked", e.getMessage());
+			assertEquals("The failure of the rollback should not hide the error", "Connection lost", e.getSuppressed()[0].getMessage());
+		}
+
+		verify(connection).rollback();
+		verify(connection, never()).commit();
+		verify(connection).setAutoCommit(true);
+	}
+
+	/**
+	 * Mock the result set of a table
+	 *
+	 * @param columns The column names
+	 * @param types The column types
+	 * @param rows The rows
+	 * @return The result set
+	 */
+	private static ResultSet resultSet(String[] columns, int[] types, Object[]... rows) throws SQLException {
+		ResultSetMetaData metaData = mock(ResultSetMetaData.class);
+		when(metaData.getColumnCount()).thenReturn(columns.length);
+		for (int i = 0; i < columns.length; i++) {
+			when(metaData.getColumnName(i + 1)).thenReturn(columns[i]);
+			when(metaData.getColumnType(i + 1)).thenReturn(types[i]);
+		}
+
+		ResultSet resultSet = mock(ResultSet.class);
+		when(resultSet.getMetaData()).thenReturn(metaData);
+
+		Boolean[] next = new Boolean[rows.length];
+		for (int i = 0; i < rows.length; i++) {
+			next[i] = i < rows.length - 1;
+		}
+		when(resultSet.next()).thenReturn(rows.length > 0, next);
+
+		for (int i = 0; i < columns.length; i++) {
+			Object[] values = new Object[rows.length];
+			for (int j = 0; j < rows.length; j++) {
+				values[j] = rows[j][i];
+			}
+
+			if (rows.length > 0) {
+				when(resultSet.getObject(i + 1)).thenReturn(values[0], Arrays.copyOfRange(values, 1, values.length));
+			}
+		}
+
+		return resultSet;
+	}
+}
@@ -0,0 +1,101 @@
+package io.probedock.jee.itf.jmx;
+
+import io.probedock.client.annotations.ProbeTest;
+import io.probedock.client.annotations.ProbeTestClass;
+import io.probedock.jee.itf.model.Description;
+import io.probedock.jee.itf.model.TestPhase;
+import io.probedock.jee.itf.test.utils.ItfTestHelper;
+
+import java.lang.management.ManagementFactory;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for {@link TestRunMetrics}
+ *
+ * @author Laurent Prevost <laurent.prevost@probedock.io>
+ */
+@ProbeTestClass(tags = "jmx")
+public class TestRunMetricsTest {
+	@Test
+	@ProbeTest(key = "7e2a05c9d1b8")
+	public void theMetricsShouldBeRegisteredWhileARunIsInProgress() throws Exception {
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		ObjectName objectName = new ObjectName("io.probedock.jee.itf:type=TestRunMetrics,controller=registration");
+
+		TestRunMetrics first = TestRunMetrics.acquire(objectName);
+		TestRunMetrics second = TestRunMetrics.acquire(objectName);
+
+		assertSame("The runs should share the same metrics", first, second);
+		assertTrue("The metrics should be registered", server.isRegistered(objectName));
+		assertEquals("The metrics should be readable through JMX", Boolean.TRUE, server.getAttribute(objectName, "Running"));
+
+		first.release();
+		assertTrue("The metrics should stay registered while a run is in progress", server.isRegistered(objectName));
+
+		second.release();
+		assertFalse("The metrics should be unregistered once the runs are done", server.isRegistered(objectName));
+	}
+
+	@Test
+	@ProbeTest(key = "b15f9c3e6a20")
+	public void theTestsShouldBeCounted() throws Exception {
+		TestRunMetrics metrics = TestRunMetrics.acquire(new ObjectName("io.probedock.jee.itf:type=TestRunMetrics,controller=counters"));
+
+		try {
+			Description description = ItfTestHelper.createDefaultDescription();
+			metrics.testGroupStart("group");
+			metrics.testStart(description);
+			metrics.transactionBegin();
+			metrics.transactionEnd();
+			metrics.success();
+			metrics.testEnd(description);
+			metrics.testStart(description);
+			metrics.transactionBegin();
+
+			assertEquals(2, metrics.getTestsStarted());
+			assertEquals(1, metrics.getTestsPassed());
+			assertEquals(0, metrics.getTestsFailed());
+			assertEquals(1, metrics.getOpenTransactions());
+			assertEquals("group", metrics.getCurrentTestGroup());
+			assertEquals(description.getName(), metrics.getCurrentTest());
+			assertTrue("The throughput should be computed from the tests done", metrics.getThroughput() > 0);
+		} finally {
+			metrics.release();
+		}
+	}
+
+	@Test
+	@ProbeTest(key = "40d8b6f2e97c")
+	public void theLatencyPercentilesShouldBeComputedFromTheRecentTests() throws Exception {
+		TestRunMetrics metrics = TestRunMetrics.acquire(new ObjectName("io.probedock.jee.itf:type=TestRunMetrics,controller=latency"));
+
+		try {
+			assertEquals("No latency should be known before the first test", 0, metrics.getLatencyP50(), 0);
+
+			Description description = ItfTestHelper.createDefaultDescription();
+			for (int i = 1; i <= 100; i++) {
+				description.setPhaseDuration(TestPhase.TEST, i * 1000000L);
+				metrics.testEnd(description);
+			}
+
+			assertEquals(50, metrics.getLatencyP50(), 0);
+			assertEquals(95, metrics.getLatencyP95(), 0);
+			assertEquals(99, metrics.getLatencyP99(), 0);
+
+			// Only the recent tests are kept
+			description.setPhaseDuration(TestPhase.TEST, 1000000L);
+			for (int i = 0; i < TestRunMetrics.LATENCY_WINDOW; i++) {
+				metrics.testEnd(description);
+			}
+
+			assertEquals(1, metrics.getLatencyP99(), 0);
+		} finally {
+			metrics.release();
+		}
+	}
+}
@@ -0,0 +1,72 @@
+package io.probedock.jee.itf.jmx;
+
+import io.probedock.client.annotations.ProbeTest;
+import io.probedock.client.annotations.ProbeTestClass;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.*;
+
+/**
+ * Test class for {@link ThreadResources}
+ *
+ * @author Laurent Prevost <laurent.prevost@probedock.io>
+ */
+@ProbeTestClass(tags = "thread-resources")
+public class ThreadResourcesTest {
+	private static volatile Object sink;
+
+	@Test
+	@ProbeTest(key = "0c5e7b29f4a8")
+	public void theMemoryAllocatedByTheCurrentThreadShouldBeMeasured() {
+		assumeTrue(ThreadResources.isAllocationEnabled());
+
+		long before = ThreadResources.getAllocatedBytes();
+		sink = new byte[1024 * 1024];
+		long allocated = ThreadResources.getAllocatedBytes() - before;
+
+		assertTrue("The allocation of the array should be measured but was " + allocated, allocated >= 1024 * 1024);
+	}
+
+	@Test
+	@ProbeTest(key = "d4b18e63a70f")
+	public void theCpuTimeOfTheCurrentThreadShouldBeMeasured() {
+		assumeTrue(ThreadResources.isCpuTimeEnabled());
+
+		long before = ThreadResources.getCpuTime();
+
+		long hash = 0;
+		long end = System.nanoTime() + 20000000;
+		while (System.nanoTime() < end) {
+			hash = hash * 31 + end;
+		}
+		sink = hash;
+
+		assertTrue(ThreadResources.getCpuTime() > before);
+	}
+
+	@Test
+	@ProbeTest(key = "6e93a1f0c2d5")
+	public void theUnsupportedMeasuresShouldBeReportedAsSuch() {
+		if (!ThreadResources.isCpuTimeEnabled()) {
+			assertEquals(ThreadResources.UNSUPPORTED, ThreadResources.getCpuTime());
+		} else {
+			assertTrue(ThreadResources.getCpuTime() >= 0);
+		}
+
+		if (!ThreadResources.isAllocationEnabled()) {
+			assertEquals(ThreadResources.UNSUPPORTED, ThreadResources.getAllocatedBytes());
+		} else {
+			assertTrue(ThreadResources.getAllocatedBytes() >= 0);
+		}
+	}
+
+	@Test
+	@ProbeTest(key = "b83f0d6a1e27")
+	public void theSupportedMeasuresShouldBeEnabledOnRequest() {
+		ThreadResources.enable();
+
+		assertEquals(ThreadResources.isCpuTimeSupported(), ThreadResources.isCpuTimeEnabled());
+		assertEquals(ThreadResources.isAllocationSupported(), ThreadResources.isAllocationEnabled());
+	}
+}
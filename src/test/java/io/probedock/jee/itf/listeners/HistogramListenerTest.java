@@ -0,0 +1,49 @@
+package io.probedock.jee.itf.listeners;
+
+import io.probedock.client.annotations.ProbeTest;
+import io.probedock.client.annotations.ProbeTestClass;
+import io.probedock.jee.itf.model.Description;
+import io.probedock.jee.itf.model.TestPhase;
+import io.probedock.jee.itf.test.utils.ItfTestHelper;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for {@link HistogramListener}
+ *
+ * @author Laurent Prevost <laurent.prevost@probedock.io>
+ */
+@ProbeTestClass(tags = "histogram-listener")
+public class HistogramListenerTest {
+	@Test
+	@ProbeTest(key = "47c1be92a0d3")
+	public void thePhasesOfTheTestsShouldBeRecordedByTestGroup() {
+		HistogramListener listener = new HistogramListener("histograms");
+		listener.testRunStart();
+
+		for (int i = 1; i <= 10; i++) {
+			Description description = ItfTestHelper.createDefaultDescription();
+			description.setPhaseDuration(TestPhase.BEGIN, 1000);
+			description.setPhaseDuration(TestPhase.TEST, i * 1000000);
+			listener.testPhases(description);
+		}
+
+		assertNull(listener.getTestHistogram("unknown"));
+		assertEquals(10, listener.getTestHistogram("groupName").getCount());
+		assertEquals(10001000, listener.getTestHistogram("groupName").getMax());
+		assertEquals(10000000, listener.getPhaseHistogram("groupName", TestPhase.TEST).getMax());
+		assertEquals(1000, listener.getPhaseHistogram("groupName", TestPhase.BEGIN).getValueAtPercentile(50));
+		assertEquals(0, listener.getPhaseHistogram("groupName", TestPhase.COMPLETION).getMax());
+
+		String report = listener.report();
+		assertTrue(report.contains("groupName (10 tests)"));
+		assertTrue(report.contains("All test groups (10 tests)"));
+		assertTrue(report.contains("p99.9"));
+		assertTrue(report.contains("AFTER_OUT_MAIN_TX"));
+
+		listener.testRunStart();
+
+		assertNull(listener.getTestHistogram("groupName"));
+	}
+}
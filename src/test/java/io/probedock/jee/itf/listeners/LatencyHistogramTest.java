@@ -0,0 +1,96 @@
+package io.probedock.jee.itf.listeners;
+
+import io.probedock.client.annotations.ProbeTest;
+import io.probedock.client.annotations.ProbeTestClass;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for {@link LatencyHistogram}
+ *
+ * @author Laurent Prevost <laurent.prevost@probedock.io>
+ */
+@ProbeTestClass(tags = "latency-histogram")
+public class LatencyHistogramTest {
+	@Test
+	@ProbeTest(key = "5d0c2a81e3f4")
+	public void theBucketsShouldKeepTheValuesWithinTheirPrecision() {
+		for (long value = 0; value < 1L << 40; value = value * 3 / 2 + 1) {
+			long highest = LatencyHistogram.highestValueOf(LatencyHistogram.indexOf(value));
+
+			assertTrue("The value " + value + " should be in its bucket", highest >= value);
+			assertTrue("The bucket of " + value + " should be precise", highest - value <= value / LatencyHistogram.SUB_BUCKET_COUNT);
+		}
+
+		assertEquals(LatencyHistogram.indexOf(1L << LatencyHistogram.MAX_EXPONENT + 1), LatencyHistogram.indexOf(Long.MAX_VALUE));
+	}
+
+	@Test
+	@ProbeTest(key = "9b47e6d0c152")
+	public void thePercentilesShouldBeComputedFromTheRecordedLatencies() {
+		LatencyHistogram histogram = new LatencyHistogram();
+
+		assertEquals(0, histogram.getValueAtPercentile(50));
+
+		for (long i = 1; i <= 1000; i++) {
+			histogram.record(i * 1000);
+		}
+
+		assertEquals(1000, histogram.getCount());
+		assertEquals(1000000, histogram.getMax());
+		assertEquals(500500, histogram.getMean(), 0.001);
+		assertWithinPrecision(500000, histogram.getValueAtPercentile(50));
+		assertWithinPrecision(990000, histogram.getValueAtPercentile(99));
+		assertEquals(1000000, histogram.getValueAtPercentile(100));
+
+		histogram.reset();
+
+		assertEquals(0, histogram.getCount());
+		assertEquals(0, histogram.getMax());
+	}
+
+	@Test
+	@ProbeTest(key = "e2a93f7c8d06")
+	public void theHistogramsRecordedByConcurrentThreadsShouldBeMerged() throws Exception {
+		final LatencyHistogram shared = new LatencyHistogram();
+		LatencyHistogram merged = new LatencyHistogram();
+
+		List<Thread> threads = new ArrayList<>();
+		for (int t = 0; t < 4; t++) {
+			final long offset = t * 1000;
+
+			threads.add(new Thread(new Runnable() {
+				@Override
+				public void run() {
+					for (long i = 1; i <= 1000; i++) {
+						shared.record(offset + i);
+					}
+				}
+			}));
+		}
+
+		for (Thread thread : threads) {
+			thread.start();
+		}
+
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		merged.add(shared);
+		merged.add(shared);
+
+		assertEquals(4000, shared.getCount());
+		assertEquals(4000, shared.getMax());
+		assertWithinPrecision(2000, shared.getValueAtPercentile(50));
+		assertEquals(8000, merged.getCount());
+		assertEquals(shared.getValueAtPercentile(90), merged.getValueAtPercentile(90));
+	}
+
+	private static void assertWithinPrecision(long expected, long actual) {
+		assertTrue("Expected " + expected + " but was " + actual, actual >= expected && actual - expected <= expected / LatencyHistogram.SUB_BUCKET_COUNT);
+	}
+}
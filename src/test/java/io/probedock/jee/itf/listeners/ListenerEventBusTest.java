@@ -0,0 +1,177 @@
+package io.probedock.jee.itf.listeners;
+
+import io.probedock.jee.itf.model.Description;
+import io.probedock.jee.itf.test.utils.ItfTestHelper;
+import io.probedock.client.annotations.ProbeTest;
+import io.probedock.client.annotations.ProbeTestClass;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for {@link ListenerEventBus}
+ * 
+ * @author Laurent Prevost <laurent.prevost@probedock.io>
+ */
+@ProbeTestClass(tags = "listener-event-bus")
+public class ListenerEventBusTest {
+	@Test
+	@ProbeTest(key = "2c8e5a1f7b04")
+	public void theEventsShouldBeReceivedInOrderAndFlushedAtTheEndOfTheRun() {
+		RecordingListener listener = new RecordingListener(null);
+		ListenerEventBus bus = createBus(listener, 2, BackpressurePolicy.BLOCK);
+
+		publishTests(bus, 50);
+
+		assertEquals("Every event should be received", 152, listener.events.size());
+		assertEquals("The test run start should be the first event", "testRunStart", listener.events.get(0));
+		assertEquals("The events should be received in order", "testStart", listener.events.get(1));
+		assertEquals("The events should be received in order", "success", listener.events.get(3));
+		assertEquals("The test run end should be the last event", "testRunEnd", listener.events.get(151));
+		assertNotSame("The listener should be notified from its own thread", Thread.currentThread(), listener.thread);
+	}
+
+	@Test
+	@ProbeTest(key = "d9f14b62e07a")
+	public void theEventsShouldBeDroppedWhenTheBufferOfASlowListenerIsFull() {
+		CountDownLatch latch = new CountDownLatch(1);
+		RecordingListener listener = new RecordingListener(latch);
+		ListenerEventBus bus = createBus(listener, 2, BackpressurePolicy.DROP);
+
+		bus.testRunStart();
+		publishTests(bus, 10, latch);
+
+		assertTrue("Some events should be dropped", listener.events.size() < 32);
+		assertEquals("The test run start should never be dropped", "testRunStart", listener.events.get(0));
+		assertEquals("The test run end should never be dropped", "testRunEnd", listener.events.get(listener.events.size() - 1));
+	}
+
+	@Test
+	@ProbeTest(key = "6a03e8c5b1d9")
+	public void theEventsShouldBeSpilledInOrderWhenTheBufferOfASlowListenerIsFull() {
+		CountDownLatch latch = new CountDownLatch(1);
+		RecordingListener listener = new RecordingListener(latch);
+		ListenerEventBus bus = createBus(listener, 2, BackpressurePolicy.SPILL);
+
+		bus.testRunStart();
+		publishTests(bus, 10, latch);
+
+		assertEquals("No event should be lost", 32, listener.events.size());
+		assertEquals("The spilled events should keep the order", "testEnd", listener.events.get(29));
+		assertEquals("The test run end should be the last event", "testRunEnd", listener.events.get(31));
+	}
+
+	@Test
+	@ProbeTest(key = "f5b70d2a9c3e")
+	public void aFailingListenerShouldNotStopTheOthers() {
+		RecordingListener listener = new RecordingListener(null);
+		List<Listener> listeners = new ArrayList<>();
+		listeners.add(new DefaultListener("failing") {
+			@Override
+			public void testStart(Description description) {
+				throw new IllegalStateException("Failing listener");
+			}
+		});
+		listeners.add(listener);
+
+		ListenerEventBus bus = new ListenerEventBus(listeners, 4, BackpressurePolicy.BLOCK, Executors.defaultThreadFactory());
+		publishTests(bus, 3);
+
+		assertEquals("Every event should be received by the other listener", 11, listener.events.size());
+	}
+
+	@Test
+	@ProbeTest(key = "8b3d6f0e2a71")
+	public void thePhasesShouldOnlyBePublishedToThePhaseListeners() {
+		RecordingListener listener = new RecordingListener(null);
+		RecordingListener phaseListener = new RecordingPhaseListener();
+		List<Listener> listeners = new ArrayList<>();
+		listeners.add(listener);
+		listeners.add(phaseListener);
+
+		ListenerEventBus bus = new ListenerEventBus(listeners, 4, BackpressurePolicy.BLOCK, Executors.defaultThreadFactory());
+		bus.testRunStart();
+		bus.testPhases(ItfTestHelper.createDefaultDescription());
+		bus.testRunEnd();
+
+		assertEquals("The listener should not receive the phases", Arrays.asList("testRunStart", "testRunEnd"), listener.events);
+		assertEquals("The phase listener should receive the phases", "testPhases", phaseListener.events.get(1));
+	}
+
+	private ListenerEventBus createBus(Listener listener, int bufferSize, BackpressurePolicy policy) {
+		return new ListenerEventBus(Collections.singletonList(listener), bufferSize, policy, Executors.defaultThreadFactory());
+	}
+
+	private void publishTests(ListenerEventBus bus, int count) {
+		bus.testRunStart();
+		publishTests(bus, count, null);
+	}
+
+	private void publishTests(ListenerEventBus bus, int count, CountDownLatch latch) {
+		for (int i = 0; i < count; i++) {
+			Description description = ItfTestHelper.createDefaultDescription();
+			bus.testStart(description);
+			bus.testEnd(description);
+			bus.success(description);
+		}
+
+		if (latch != null) {
+			latch.countDown();
+		}
+
+		bus.testRunEnd();
+	}
+
+	/**
+	 * Listener that records the events, blocked on its first event until the latch is released
+	 */
+	private static class RecordingListener implements Listener {
+		private final List<String> events = Collections.synchronizedList(new ArrayList<String>());
+		private final CountDownLatch latch;
+		private volatile Thread thread;
+
+		private RecordingListener(CountDownLatch latch) {
+			this.latch = latch;
+		}
+
+		private void record(String event) {
+			thread = Thread.currentThread();
+
+			if (latch != null) {
+				try {
+					latch.await();
+				}
+				catch (InterruptedException ie) {
+					Thread.currentThread().interrupt();
+				}
+			}
+
+			events.add(event);
+		}
+
+		@Override public void testRunStart() { record("testRunStart"); }
+		@Override public void testRunEnd() { record("testRunEnd"); }
+		@Override public void testStart(Description description) { record("testStart"); }
+		@Override public void testEnd(Description description) { record("testEnd"); }
+		@Override public void fail(Description description) { record("fail"); }
+		@Override public void success(Description description) { record("success"); }
+	}
+
+	/**
+	 * Listener that also records the phases
+	 */
+	private static class RecordingPhaseListener extends RecordingListener implements PhaseListener {
+		private RecordingPhaseListener() {
+			super(null);
+		}
+
+		@Override public void testPhases(Description description) { super.record("testPhases"); }
+	}
+}
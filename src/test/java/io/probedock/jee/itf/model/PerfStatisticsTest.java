@@ -0,0 +1,50 @@
+package io.probedock.jee.itf.model;
+
+import io.probedock.client.annotations.ProbeTest;
+import io.probedock.client.annotations.ProbeTestClass;
+import io.probedock.jee.itf.test.utils.ItfTestHelper;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for {@link PerfStatistics}
+ *
+ * @author Laurent Prevost <laurent.prevost@probedock.io>
+ */
+@ProbeTestClass(tags = "perf-statistics")
+public class PerfStatisticsTest {
+	@Test
+	@ProbeTest(key = "2f8d61c0b9e4")
+	public void theStatisticsShouldBeComputedAndAddedToTheDataInMilliseconds() {
+		long[] latencies = new long[100];
+		for (int i = 0; i < latencies.length; i++) {
+			latencies[i] = (100 - i) * 1000000L;
+		}
+
+		PerfStatistics statistics = new PerfStatistics(latencies);
+
+		assertEquals(100, statistics.getCount());
+		assertEquals(1000000, statistics.getMin());
+		assertEquals(100000000, statistics.getMax());
+		assertEquals(50500000, statistics.getMean(), 0.001);
+		assertEquals(50000000, statistics.getPercentile(50));
+		assertEquals(99000000, statistics.getPercentile(99));
+		assertEquals("The latencies given should not be sorted", 100000000, latencies[0]);
+
+		Description description = ItfTestHelper.createDefaultDescription();
+		statistics.addTo(description);
+
+		assertEquals("100", description.getData().get("perf.iterations"));
+		assertEquals("1.000", description.getData().get("perf.min"));
+		assertEquals("50.500", description.getData().get("perf.mean"));
+		assertEquals("90.000", description.getData().get("perf.p90"));
+		assertEquals("100.000", description.getData().get("perf.max"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	@ProbeTest(key = "a73c05e9d1f8")
+	public void statisticsWithoutLatencyShouldBeRefused() {
+		new PerfStatistics(new long[0]);
+	}
+}
@@ -0,0 +1,104 @@
+package io.probedock.jee.itf.model;
+
+import io.probedock.jee.itf.TestGroup;
+import io.probedock.jee.itf.annotations.TestSetupType;
+import io.probedock.jee.itf.model.TestGroupDefinition.SetupMethod;
+import io.probedock.jee.itf.test.utils.ItfTestHelper;
+import io.probedock.jee.itf.test.utils.controllers.DummyTestControllerWithSnapshot;
+import io.probedock.jee.itf.test.utils.groups.DummyTestGroup;
+import io.probedock.jee.itf.test.utils.groups.DummyTestGroupWithRefKeys;
+import io.probedock.client.annotations.ProbeTest;
+import io.probedock.client.annotations.ProbeTestClass;
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for {@link TestGroupMetadata}
+ * 
+ * @author Laurent Prevost <laurent.prevost@probedock.io>
+ */
+@ProbeTestClass(tags = "test-group-metadata")
+public class TestGroupMetadataTest {
+	@Test
+	@ProbeTest(key = "5d0c7be3f1a2")
+	public void theMetadataShouldBeDiscoveredOnlyOncePerClass() {
+		assertSame("The metadata should be cached by class", TestGroupMetadata.of(DummyTestGroup.class), TestGroupMetadata.of(DummyTestGroup.class));
+	}
+
+	@Test
+	@ProbeTest(key = "e86a4f1c02b9")
+	public void twoDefinitionsOfTheSameGroupShouldShareTheSetupMethods() {
+		TestGroup testGroup = ItfTestHelper.createDefaultTestGroup();
+		TestGroupDefinition first = new TestGroupDefinition(testGroup, new Random(1));
+		TestGroupDefinition second = new TestGroupDefinition(testGroup, new Random(2));
+
+		assertSame("The before all methods should be shared", first.getBeforeAll(), second.getBeforeAll());
+		assertSame("The before in main tx methods should be shared", first.getBeforeInMainTx(), second.getBeforeInMainTx());
+	}
+
+	@Test
+	@ProbeTest(key = "3a97c5e20d4f")
+	public void twoDefinitionsOfTheSameGroupShouldHaveTheirOwnDescriptions() {
+		TestGroup testGroup = ItfTestHelper.createDefaultTestGroup();
+		TestGroupDefinition first = new TestGroupDefinition(testGroup, new Random(1));
+		TestGroupDefinition second = new TestGroupDefinition(testGroup, new Random(1));
+
+		assertEquals("The same seed should give the same order", first.getTestMethods().get(0).getName(), second.getTestMethods().get(0).getName());
+		assertNotSame("The descriptions should not be shared between runs", first.getTestMethods().get(0), second.getTestMethods().get(0));
+	}
+
+	@Test
+	@ProbeTest(key = "c4f81b6e9a37")
+	public void theSetupMethodsShouldBeDiscoveredByType() {
+		TestGroupMetadata metadata = TestGroupMetadata.of(DummyTestGroup.class);
+
+		assertEquals("Two test methods should be discovered", 2, metadata.getTestMethods().size());
+		assertEquals("One before all method should be discovered", 1, metadata.getSetupMethods(TestSetupType.BEFORE_ALL).size());
+		assertEquals("One after in main tx method should be discovered", 1, metadata.getSetupMethodsByKey(TestSetupType.AFTER_IN_MAIN_TX).size());
+	}
+
+	@Test
+	@ProbeTest(key = "9be20c4d71a5")
+	public void theExecutionPlanOfATestShouldBeCompiledOnceWithItsReferencedSetupMethods() {
+		TestGroupDefinition definition = new TestGroupDefinition(new DummyTestGroupWithRefKeys(), new Random());
+
+		for (Description description : definition.getTestMethods()) {
+			ExecutionPlan plan = description.getExecutionPlan();
+
+			assertNotNull("The plan should be compiled at discovery", plan);
+			assertSame("The plan should be shared between the runs", plan, new TestGroupDefinition(new DummyTestGroupWithRefKeys(), new Random()).getExecutionPlan(description));
+			assertEquals("One before out main tx method should apply to each test", 1, plan.getMethods(TestSetupType.BEFORE_OUT_MAIN_TX).length);
+			assertEquals("The each phases should be part of the test plan", 1, plan.getMethods(TestSetupType.BEFORE_EACH_IN_MAIN_TX).length);
+			assertArrayEquals(
+				"The before each out main tx methods should run first when merged",
+				new SetupMethod[] { plan.getMethods(TestSetupType.BEFORE_EACH_OUT_MAIN_TX)[0], plan.getMethods(TestSetupType.BEFORE_OUT_MAIN_TX)[0] },
+				plan.getMergedBeforeOutOfMainTx()
+			);
+			assertArrayEquals(
+				"The after each out main tx methods should run last when merged",
+				new SetupMethod[] { plan.getMethods(TestSetupType.AFTER_OUT_MAIN_TX)[0], plan.getMethods(TestSetupType.AFTER_EACH_OUT_MAIN_TX)[0] },
+				plan.getMergedAfterOutOfMainTx()
+			);
+		}
+	}
+
+	@Test
+	@ProbeTest(key = "06d3fa8e2b1c")
+	public void theExecutionPlanOfTheGroupShouldContainOnlyTheGroupPhases() {
+		ExecutionPlan plan = TestGroupMetadata.of(DummyTestGroupWithRefKeys.class).getExecutionPlan();
+
+		assertEquals("One before all method should be planned", 1, plan.getMethods(TestSetupType.BEFORE_ALL).length);
+		assertEquals("One after each out main tx method should be planned", 1, plan.getMethods(TestSetupType.AFTER_EACH_OUT_MAIN_TX).length);
+		assertEquals("No test specific method should be planned", 0, plan.getMethods(TestSetupType.AFTER_IN_MAIN_TX).length);
+	}
+
+	@Test
+	@ProbeTest(key = "a27d5c0e8f16")
+	public void theGroupsThatRestoreTheirTablesShouldBeSequential() {
+		assertFalse("A group without annotation should not be sequential", TestGroupMetadata.of(DummyTestGroup.class).isSequential());
+		assertTrue("A snapshot group should be sequential", TestGroupMetadata.of(DummyTestControllerWithSnapshot.DummyTestGroup.class).isSequential());
+	}
+}
@@ -0,0 +1,67 @@
+package io.probedock.jee.itf.rest;
+
+import io.probedock.jee.itf.rest.TestRunEventBuffer.Event;
+import io.probedock.client.annotations.ProbeTest;
+import io.probedock.client.annotations.ProbeTestClass;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for {@link TestRunEventBuffer} and {@link TestRunEventStream}
+ *
+ * @author Laurent Prevost <laurent.prevost@probedock.io>
+ */
+@ProbeTestClass(tags = "test-run-events")
+public class TestRunEventBufferTest {
+	@Test
+	@ProbeTest(key = "e4a90b6c1d27")
+	public void theEventsShouldBeReadFromTheLastSequence() throws Exception {
+		TestRunEventBuffer buffer = new TestRunEventBuffer(4);
+		buffer.append("first", "a");
+		buffer.append("second", "b");
+
+		List<Event> events = buffer.await(1, 0);
+
+		assertEquals("Only the events after the last sequence should be read", 1, events.size());
+		assertEquals("The second event should be read", "second", events.get(0).getType());
+	}
+
+	@Test
+	@ProbeTest(key = "58c3f2d0a9be")
+	public void theOldestEventsShouldBeOverwrittenWhenTheBufferIsFull() throws Exception {
+		TestRunEventBuffer buffer = new TestRunEventBuffer(2);
+		buffer.append("first", "a");
+		buffer.append("second", "b");
+		buffer.append("third", "c");
+
+		List<Event> events = buffer.await(0, 0);
+
+		assertEquals("Only the capacity should be kept", 2, events.size());
+		assertEquals("The oldest event should be dropped", 2, events.get(0).getSequence());
+	}
+
+	@Test
+	@ProbeTest(key = "1f7be26d40ca")
+	public void theStreamShouldReportTheDroppedEventsAndEndWithTheRun() throws Exception {
+		TestRunEventBuffer buffer = new TestRunEventBuffer(2);
+		buffer.append("first", "a");
+		buffer.append("second", "b");
+		buffer.append("third", "c");
+		buffer.close();
+
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		new TestRunEventStream(buffer, 0).write(output);
+
+		assertEquals(
+			"The stream should contain the dropped count and the kept events",
+			"event: dropped\ndata: {\"count\":1}\n\n" +
+			"id: 2\nevent: second\ndata: \"b\"\n\n" +
+			"id: 3\nevent: third\ndata: \"c\"\n\n",
+			output.toString("UTF-8"));
+	}
+}
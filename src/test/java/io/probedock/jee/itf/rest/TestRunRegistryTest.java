@@ -0,0 +1,55 @@
+package io.probedock.jee.itf.rest;
+
+import io.probedock.client.annotations.ProbeTest;
+import io.probedock.client.annotations.ProbeTestClass;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for {@link TestRunRegistry}
+ *
+ * @author Laurent Prevost <laurent.prevost@probedock.io>
+ */
+@ProbeTestClass(tags = "test-run-registry")
+public class TestRunRegistryTest {
+	@Test
+	@ProbeTest(key = "a61e0d93c5b7")
+	public void aCreatedRunShouldBeRetrievedFromItsIdentifier() {
+		TestRunRegistry registry = new TestRunRegistry(2);
+		TestRun run = registry.create(new LaunchConfigurationTO());
+
+		assertSame("The run should be registered", run, registry.get(run.getId()));
+		assertEquals("The run should be queued", TestRun.State.QUEUED, run.getState());
+	}
+
+	@Test
+	@ProbeTest(key = "f03b8c27e41d")
+	public void theOldestFinishedRunShouldBeEvictedWhenTheRegistryIsFull() {
+		TestRunRegistry registry = new TestRunRegistry(2);
+		TestRun first = registry.create(new LaunchConfigurationTO());
+		TestRun second = registry.create(new LaunchConfigurationTO());
+
+		first.done(1L);
+		second.done(2L);
+
+		TestRun third = registry.create(new LaunchConfigurationTO());
+
+		assertNull("The oldest run should be evicted", registry.get(first.getId()));
+		assertNotNull("The second run should be kept", registry.get(second.getId()));
+		assertNotNull("The new run should be registered", registry.get(third.getId()));
+		assertEquals("The registry should stay bounded", 2, registry.size());
+	}
+
+	@Test
+	@ProbeTest(key = "7c92d5a0b36e")
+	public void aNewRunShouldBeRefusedWhenTheRegistryIsFullOfRunsInProgress() {
+		TestRunRegistry registry = new TestRunRegistry(1);
+		TestRun run = registry.create(new LaunchConfigurationTO());
+		run.testRunStart();
+
+		assertNull("The run should be refused", registry.create(new LaunchConfigurationTO()));
+		assertNotNull("The run in progress should never be evicted", registry.get(run.getId()));
+	}
+}
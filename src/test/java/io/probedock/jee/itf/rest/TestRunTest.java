@@ -0,0 +1,34 @@
+package io.probedock.jee.itf.rest;
+
+import io.probedock.client.annotations.ProbeTest;
+import io.probedock.client.annotations.ProbeTestClass;
+import io.probedock.jee.itf.model.Description;
+import io.probedock.jee.itf.test.utils.ItfTestHelper;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for {@link TestRun}
+ *
+ * @author Laurent Prevost <laurent.prevost@probedock.io>
+ */
+@ProbeTestClass(tags = "test-run")
+public class TestRunTest {
+	@Test
+	@ProbeTest(key = "e4a7c1f90b36")
+	public void onlyTheFirstFailedTestsShouldBeKept() {
+		TestRun run = new TestRun("run", new LaunchConfigurationTO());
+
+		for (int i = 0; i < TestRun.MAX_FAILURES + 10; i++) {
+			Description description = ItfTestHelper.createDefaultDescription();
+			run.success(description);
+			run.fail(description);
+		}
+
+		assertEquals("Every passed test should be counted", TestRun.MAX_FAILURES + 10, run.getPassed());
+		assertEquals("Every failed test should be counted", TestRun.MAX_FAILURES + 10, run.getFailed());
+		assertEquals("Only the first failed tests should be kept", TestRun.MAX_FAILURES, run.getFailures().size());
+	}
+}
@@ -0,0 +1,81 @@
+package io.probedock.jee.itf.scheduling;
+
+import io.probedock.client.annotations.ProbeTest;
+import io.probedock.client.annotations.ProbeTestClass;
+import io.probedock.jee.itf.model.Description;
+import io.probedock.jee.itf.model.TestGroupDefinition;
+import io.probedock.jee.itf.test.utils.ItfTestHelper;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for {@link DurationHistory}
+ *
+ * @author Laurent Prevost <laurent.prevost@probedock.io>
+ */
+@ProbeTestClass(tags = "scheduling")
+public class DurationHistoryTest {
+	@Test
+	@ProbeTest(key = "5a90c3e7d214")
+	public void aNewDurationShouldBeSmoothedWithThePreviousOne() {
+		DurationHistory history = new DurationHistory(0.5);
+		Description description = ItfTestHelper.createDefaultDescription();
+
+		assertEquals(DurationHistory.UNKNOWN, history.estimate(description));
+
+		record(history, description, 100);
+		assertEquals(100, history.estimate(description));
+
+		record(history, description, 300);
+		assertEquals(200, history.estimate(description));
+	}
+
+	@Test
+	@ProbeTest(key = "b3e61f08ac97")
+	public void theGroupShouldBeEstimatedFromItsOverheadAndItsTests() {
+		DurationHistory history = new DurationHistory(1);
+		TestGroupDefinition testGroupDefinition = new TestGroupDefinition(ItfTestHelper.createDefaultTestGroup(), new Random(1));
+
+		assertEquals(DurationHistory.UNKNOWN, history.estimate(testGroupDefinition));
+
+		long testsDuration = 0;
+		for (Description description : testGroupDefinition.getTestMethods()) {
+			record(history, description, 20);
+			testsDuration += 20;
+		}
+
+		history.record(testGroupDefinition, testsDuration + 50);
+
+		assertEquals(50, history.getGroupOverhead(testGroupDefinition.getName()));
+		assertEquals(testsDuration + 50, history.estimate(testGroupDefinition));
+	}
+
+	@Test
+	@ProbeTest(key = "f64d2a90e1c5")
+	public void theDurationsShouldBeLoadedFromTheStoredProperties() throws Exception {
+		DurationHistory history = new DurationHistory();
+		Description description = ItfTestHelper.createDefaultDescription();
+		record(history, description, 42);
+
+		StringWriter writer = new StringWriter();
+		history.store(writer);
+
+		DurationHistory loaded = new DurationHistory();
+		loaded.load(new StringReader(writer.toString()));
+
+		assertEquals(42, loaded.estimate(description));
+	}
+
+	private static void record(DurationHistory history, Description description, long duration) {
+		description.setStartDate(1);
+		description.setEndDate(1 + duration);
+		description.setDuration(duration);
+		history.record(description);
+	}
+}
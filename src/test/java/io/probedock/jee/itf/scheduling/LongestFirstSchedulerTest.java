@@ -0,0 +1,92 @@
+package io.probedock.jee.itf.scheduling;
+
+import io.probedock.client.annotations.ProbeTest;
+import io.probedock.client.annotations.ProbeTestClass;
+import io.probedock.jee.itf.model.Description;
+import io.probedock.jee.itf.test.utils.ItfTestHelper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for {@link LongestFirstScheduler}
+ *
+ * @author Laurent Prevost <laurent.prevost@probedock.io>
+ */
+@ProbeTestClass(tags = "scheduling")
+public class LongestFirstSchedulerTest {
+	@Test
+	@ProbeTest(key = "4be07d1c9a25")
+	public void theItemsShouldBeOrderedFromTheLongestToTheShortest() {
+		List<String> items = new ArrayList<>(Arrays.asList("short", "long", "medium"));
+
+		LongestFirstScheduler.order(items, new long[] { 10, 1000, 100 });
+
+		assertEquals(Arrays.asList("long", "medium", "short"), items);
+	}
+
+	@Test
+	@ProbeTest(key = "c7193ea05f48")
+	public void theItemsOfTheSameMagnitudeShouldKeepTheShuffledOrder() {
+		List<String> items = new ArrayList<>(Arrays.asList("first", "second", "longest", "third"));
+
+		LongestFirstScheduler.order(items, new long[] { 70, 100, 5000, 65 });
+
+		assertEquals(Arrays.asList("longest", "first", "second", "third"), items);
+	}
+
+	@Test
+	@ProbeTest(key = "19ad6f2b08e3")
+	public void theItemsNeverMeasuredShouldBePlacedWithTheAverageItems() {
+		List<String> items = new ArrayList<>(Arrays.asList("unknown", "short", "long"));
+
+		LongestFirstScheduler.order(items, new long[] { DurationHistory.UNKNOWN, 1, 1000 });
+
+		assertEquals(Arrays.asList("long", "unknown", "short"), items);
+	}
+
+	@Test
+	@ProbeTest(key = "e2f85a371bc6")
+	public void theShuffledOrderShouldBeKeptWhenNothingIsMeasured() {
+		Description first = createDescription("first");
+		Description second = createDescription("second");
+		List<Description> descriptions = new ArrayList<>(Arrays.asList(first, second));
+
+		new LongestFirstScheduler(new DurationHistory()).orderTests(descriptions);
+
+		assertEquals(Arrays.asList(first, second), descriptions);
+	}
+
+	@Test
+	@ProbeTest(key = "8d3c1f69e70a")
+	public void theTestsShouldBeOrderedFromTheDurationsOfThePreviousRuns() {
+		Description fast = createDescription("fast");
+		Description slow = createDescription("slow");
+
+		DurationHistory history = new DurationHistory();
+		record(history, fast, 5);
+		record(history, slow, 500);
+
+		List<Description> descriptions = new ArrayList<>(Arrays.asList(fast, slow));
+		new LongestFirstScheduler(history).orderTests(descriptions);
+
+		assertEquals(Arrays.asList(slow, fast), descriptions);
+	}
+
+	private static Description createDescription(String groupName) {
+		Description template = ItfTestHelper.createDefaultDescription();
+		return new Description(groupName, template.getTestAnnotation(), template.getTestClass(), template.getMethod());
+	}
+
+	private static void record(DurationHistory history, Description description, long duration) {
+		description.setStartDate(1);
+		description.setEndDate(1 + duration);
+		description.setDuration(duration);
+		history.record(description);
+	}
+}
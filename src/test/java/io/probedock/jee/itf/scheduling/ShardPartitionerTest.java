@@ -0,0 +1,122 @@
+package io.probedock.jee.itf.scheduling;
+
+import io.probedock.client.annotations.ProbeTest;
+import io.probedock.client.annotations.ProbeTestClass;
+import io.probedock.jee.itf.model.Description;
+import io.probedock.jee.itf.test.utils.ItfTestHelper;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for {@link ShardPartitioner}
+ *
+ * @author Laurent Prevost <laurent.prevost@probedock.io>
+ */
+@ProbeTestClass(tags = "scheduling")
+public class ShardPartitionerTest {
+	@Test
+	@ProbeTest(key = "0c8e4b7a2f61")
+	public void theTestsShouldBeSpreadOverAllTheShardsByHash() {
+		List<Description> descriptions = createDescriptions(200);
+
+		int[] shards = new ShardPartitioner(8, ShardStrategy.HASH, null).assign(descriptions);
+
+		int[] counts = new int[8];
+		for (int shard : shards) {
+			counts[shard]++;
+		}
+
+		for (int count : counts) {
+			assertTrue("Each shard should get a part of the tests", count > 0);
+		}
+	}
+
+	@Test
+	@ProbeTest(key = "d571a0e38bc2")
+	public void theHashAssignmentShouldNotDependOnTheOrderOfTheTests() {
+		List<Description> descriptions = createDescriptions(20);
+		int[] shards = new ShardPartitioner(4, ShardStrategy.HASH, null).assign(descriptions);
+
+		List<Description> reversed = new ArrayList<>();
+		for (int i = descriptions.size() - 1; i >= 0; i--) {
+			reversed.add(descriptions.get(i));
+		}
+		int[] reversedShards = new ShardPartitioner(4, ShardStrategy.HASH, null).assign(reversed);
+
+		for (int i = 0; i < shards.length; i++) {
+			assertEquals("The shard of a test should only depend on its key", shards[i], reversedShards[shards.length - 1 - i]);
+		}
+	}
+
+	@Test
+	@ProbeTest(key = "6a2f93d0e74b")
+	public void theTestsShouldBeBalancedByDuration() {
+		List<Description> descriptions = createDescriptions(6);
+
+		DurationHistory history = new DurationHistory();
+		long[] durations = { 600, 100, 300, 300, 200, 500 };
+		for (int i = 0; i < durations.length; i++) {
+			Description description = descriptions.get(i);
+			description.setEndDate(durations[i]);
+			description.setDuration(durations[i]);
+			history.record(description);
+		}
+
+		int[] shards = new ShardPartitioner(2, ShardStrategy.DURATION, history).assign(descriptions);
+
+		long[] loads = new long[2];
+		for (int i = 0; i < shards.length; i++) {
+			loads[shards[i]] += durations[i];
+		}
+
+		assertEquals("The shards should have the same total duration", loads[0], loads[1]);
+	}
+
+	@Test
+	@ProbeTest(key = "e93b7c1f05d8")
+	public void everyTestShouldBeInTheSingleShard() {
+		for (int shard : new ShardPartitioner(1, ShardStrategy.DURATION, null).assign(createDescriptions(5))) {
+			assertEquals(0, shard);
+		}
+	}
+
+	@Test
+	@ProbeTest(key = "3f17b8e6c0a9")
+	public void theTestsWithTheSameKeyShouldBeInTheSameShard() {
+		Description template = ItfTestHelper.createDefaultDescription();
+		List<Description> descriptions = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			descriptions.add(new Description("group" + i, template.getTestAnnotation(), template.getTestClass(), template.getMethod()));
+		}
+
+		int[] shards = new ShardPartitioner(4, ShardStrategy.HASH, null).assign(descriptions);
+
+		for (int shard : shards) {
+			assertEquals("The shard should be computed from the Probe Dock key", shards[0], shard);
+		}
+	}
+
+	/**
+	 * Create descriptions of tests without Probe Dock key, their names are used to assign them
+	 */
+	private static List<Description> createDescriptions(int count) {
+		try {
+			Method method = Object.class.getMethod("toString");
+
+			List<Description> descriptions = new ArrayList<>();
+			for (int i = 0; i < count; i++) {
+				descriptions.add(new Description("group" + i, null, Object.class, method));
+			}
+
+			return descriptions;
+		} catch (NoSuchMethodException nsme) {
+			throw new IllegalStateException(nsme);
+		}
+	}
+}
@@ -11,6 +11,8 @@ import io.probedock.jee.itf.test.utils.groups.DummyTestGroupWithRefKeys;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Method utilities to test the Integration Test Framework
@@ -18,6 +20,20 @@ import java.lang.reflect.Modifier;
  * @author Laurent Prevost <laurent.prevost@probedock.io>
  */
 public class ItfTestHelper {
+	/**
+	 * Executor shared by the dummy test controllers that run in parallel. It lives here as the
+	 * controllers are session beans and must not hold static state.
+	 */
+	private static final ExecutorService EXECUTOR_SERVICE = Executors.newFixedThreadPool(4);
+
+	/**
+	 * Get the executor to run the test groups and the tests in parallel
+	 * @return The shared executor service
+	 */
+	public static ExecutorService getExecutorService() {
+		return EXECUTOR_SERVICE;
+	}
+	
 	/**
 	 * Create a default test group
 	 * @return The test group created
@@ -0,0 +1,51 @@
+package io.probedock.jee.itf.test.utils.controllers;
+
+import io.probedock.jee.itf.AbstractTestController;
+import io.probedock.jee.itf.TestGroup;
+import io.probedock.jee.itf.annotations.Test;
+import io.probedock.jee.itf.invokers.Invocation;
+import io.probedock.jee.itf.invokers.Invoker;
+import io.probedock.jee.itf.model.Description;
+import java.lang.reflect.Method;
+
+import javax.ejb.EJB;
+import javax.ejb.TransactionManagement;
+import javax.ejb.TransactionManagementType;
+
+/**
+ * Dummy test controller with an invoker that cannot access the methods to use in the unit tests
+ * 
+ * @author Laurent Prevost <laurent.prevost@probedock.io>
+ */
+@TransactionManagement(TransactionManagementType.BEAN)
+public class DummyTestControllerWithFailingInvoker extends AbstractTestController {
+	@EJB
+	public TestGroup testGroup = new DummyTestGroup();
+
+	@Override
+	protected Invoker getInvoker() {
+		return new Invoker() {
+			@Override
+			public Invocation bind(Method method) {
+				return new Invocation() {
+					@Override
+					public Object invoke(Object target, Description description) throws IllegalAccessException {
+						throw new IllegalAccessException("Access denied");
+					}
+				};
+			}
+		};
+	}
+
+	public class DummyTestGroup implements TestGroup {
+		@Test
+		public Description testMethod(Description description) {
+			return description.pass();
+		}
+
+		@Override
+		public TestGroup getTestGroup() {
+			return this;
+		}
+	}
+}
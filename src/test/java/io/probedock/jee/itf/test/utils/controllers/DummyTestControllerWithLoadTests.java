@@ -0,0 +1,73 @@
+package io.probedock.jee.itf.test.utils.controllers;
+
+import io.probedock.jee.itf.AbstractTestController;
+import io.probedock.jee.itf.TestGroup;
+import io.probedock.jee.itf.annotations.LoadTest;
+import io.probedock.jee.itf.annotations.Test;
+import io.probedock.jee.itf.annotations.TestSetup;
+import io.probedock.jee.itf.annotations.TestSetupType;
+import io.probedock.jee.itf.model.Description;
+import io.probedock.jee.itf.test.utils.ItfTestHelper;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.ejb.EJB;
+import javax.ejb.TransactionManagement;
+import javax.ejb.TransactionManagementType;
+
+/**
+ * Dummy test controller with load tests to use in the unit tests
+ * 
+ * @author Laurent Prevost <laurent.prevost@probedock.io>
+ */
+@TransactionManagement(TransactionManagementType.BEAN)
+public class DummyTestControllerWithLoadTests extends AbstractTestController {
+	@EJB
+	public DummyTestGroup testGroup = new DummyTestGroup();
+
+	@Override
+	protected ExecutorService getExecutorService() {
+		return ItfTestHelper.getExecutorService();
+	}
+
+	public class DummyTestGroup implements TestGroup {
+		public final Set<Thread> callers = Collections.newSetFromMap(new ConcurrentHashMap<Thread, Boolean>());
+		public final AtomicInteger invocations = new AtomicInteger();
+		public final AtomicInteger unreliableInvocations = new AtomicInteger();
+		public final AtomicInteger fixtures = new AtomicInteger();
+
+		@TestSetup(TestSetupType.BEFORE_EACH_IN_MAIN_TX)
+		public void insertFixtures() {
+			fixtures.incrementAndGet();
+		}
+
+		@Test
+		@LoadTest(threads = 4, durationMs = 200, rampUpMs = 50)
+		public Description reliable(Description description) throws InterruptedException {
+			callers.add(Thread.currentThread());
+			invocations.incrementAndGet();
+			Thread.sleep(1);
+			return description.pass();
+		}
+
+		@Test
+		@LoadTest(threads = 2, durationMs = 100, maxErrorRate = 0.1)
+		public Description unreliable(Description description) throws InterruptedException {
+			Thread.sleep(1);
+
+			if (unreliableInvocations.incrementAndGet() % 2 == 0) {
+				throw new IllegalStateException("Every other invocation fails");
+			}
+
+			return description.pass();
+		}
+
+		@Override
+		public TestGroup getTestGroup() {
+			return this;
+		}
+	}
+}
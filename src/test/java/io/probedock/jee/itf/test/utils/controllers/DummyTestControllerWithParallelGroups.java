@@ -0,0 +1,107 @@
+package io.probedock.jee.itf.test.utils.controllers;
+
+import io.probedock.jee.itf.AbstractTestController;
+import io.probedock.jee.itf.TestGroup;
+import io.probedock.jee.itf.annotations.Sequential;
+import io.probedock.jee.itf.annotations.Test;
+import io.probedock.jee.itf.annotations.TestSetup;
+import io.probedock.jee.itf.annotations.TestSetupType;
+import io.probedock.jee.itf.model.Description;
+import io.probedock.jee.itf.test.utils.ItfTestHelper;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.ejb.EJB;
+import javax.ejb.TransactionManagement;
+import javax.ejb.TransactionManagementType;
+
+/**
+ * Dummy test controller to use in the unit tests
+ * 
+ * @author Laurent Prevost <laurent.prevost@probedock.io>
+ */
+@TransactionManagement(TransactionManagementType.BEAN)
+public class DummyTestControllerWithParallelGroups extends AbstractTestController {
+	/**
+	 * Number of groups running at the same time
+	 */
+	private final AtomicInteger runningGroups = new AtomicInteger();
+
+	/**
+	 * Set to true when the sequential group runs at the same time than another group
+	 */
+	private volatile boolean sequentialGroupOverlapped = false;
+
+	@EJB
+	public TestGroup firstTestGroup = new DummyTestGroup();
+
+	@EJB
+	public TestGroup secondTestGroup = new DummyTestGroup();
+
+	@EJB
+	public TestGroup thirdTestGroup = new DummyTestGroup();
+
+	@EJB
+	public TestGroup sequentialTestGroup = new DummySequentialTestGroup();
+
+	public boolean isSequentialGroupOverlapped() {
+		return sequentialGroupOverlapped;
+	}
+
+	@Override
+	protected ExecutorService getExecutorService() {
+		return ItfTestHelper.getExecutorService();
+	}
+
+	public class DummyTestGroup implements TestGroup {
+		@TestSetup(TestSetupType.BEFORE_ALL)
+		public void beforeAll() {
+			runningGroups.incrementAndGet();
+		}
+		
+		@TestSetup(TestSetupType.AFTER_ALL)
+		public void afterAll() {
+			runningGroups.decrementAndGet();
+		}
+		
+		@Test
+		public Description testMethodOne(Description description) {
+			return description.pass();
+		}
+
+		@Test
+		public Description testMethodTwo(Description description) {
+			return description.pass();
+		}
+
+		@Override
+		public TestGroup getTestGroup() {
+			return this;
+		}
+	}
+
+	@Sequential
+	public class DummySequentialTestGroup implements TestGroup {
+		@TestSetup(TestSetupType.BEFORE_ALL)
+		public void beforeAll() {
+			if (runningGroups.incrementAndGet() > 1) {
+				sequentialGroupOverlapped = true;
+			}
+		}
+
+		@TestSetup(TestSetupType.AFTER_ALL)
+		public void afterAll() {
+			runningGroups.decrementAndGet();
+		}
+
+		@Test
+		public Description testMethod(Description description) {
+			return description.pass();
+		}
+
+		@Override
+		public TestGroup getTestGroup() {
+			return this;
+		}
+	}
+}
@@ -0,0 +1,100 @@
+package io.probedock.jee.itf.test.utils.controllers;
+
+import io.probedock.jee.itf.AbstractTestController;
+import io.probedock.jee.itf.TestGroup;
+import io.probedock.jee.itf.annotations.Test;
+import io.probedock.jee.itf.annotations.TestSetup;
+import io.probedock.jee.itf.annotations.TestSetupType;
+import io.probedock.jee.itf.model.Description;
+import io.probedock.jee.itf.test.utils.ItfTestHelper;
+
+import java.util.concurrent.ExecutorService;
+import javax.ejb.EJB;
+import javax.ejb.TransactionManagement;
+import javax.ejb.TransactionManagementType;
+import javax.management.ObjectName;
+
+/**
+ * Dummy test controller to use in the unit tests. The tests pass only when
+ * their setup methods ran in the same thread.
+ * 
+ * @author Laurent Prevost <laurent.prevost@probedock.io>
+ */
+@TransactionManagement(TransactionManagementType.BEAN)
+public class DummyTestControllerWithParallelTests extends AbstractTestController {
+	@EJB
+	public TestGroup testGroup = new DummyTestGroup();
+
+	@Override
+	protected ExecutorService getExecutorService() {
+		return ItfTestHelper.getExecutorService();
+	}
+
+	@Override
+	protected ObjectName getMetricsObjectName() {
+		return createMetricsObjectName();
+	}
+
+	public class DummyTestGroup implements TestGroup {
+		private ThreadLocal<Integer> setupCount = new ThreadLocal<>();
+
+		@TestSetup(TestSetupType.BEFORE_EACH_OUT_MAIN_TX)
+		public void beforeEachOutTx() {
+			setupCount.set(1);
+		}
+
+		@TestSetup(TestSetupType.BEFORE_EACH_IN_MAIN_TX)
+		public void beforeEachInTx() {
+			setupCount.set(setupCount.get() + 1);
+		}
+
+		@TestSetup(TestSetupType.AFTER_EACH_OUT_MAIN_TX)
+		public void afterEachOutTx() {
+			setupCount.remove();
+		}
+
+		@Test
+		public Description testMethodOne(Description description) {
+			return check(description);
+		}
+
+		@Test
+		public Description testMethodTwo(Description description) {
+			return check(description);
+		}
+
+		@Test
+		public Description testMethodThree(Description description) {
+			return check(description);
+		}
+
+		@Test
+		public Description testMethodFour(Description description) {
+			return check(description);
+		}
+
+		@Test
+		public Description testMethodFive(Description description) {
+			return check(description);
+		}
+
+		@Test
+		public Description testMethodSix(Description description) {
+			return check(description);
+		}
+
+		private Description check(Description description) {
+			if (setupCount.get() != null && setupCount.get() == 2) {
+				return description.pass();
+			}
+			else {
+				return description.fail("The setup methods did not run in the test thread");
+			}
+		}
+
+		@Override
+		public TestGroup getTestGroup() {
+			return this;
+		}
+	}
+}
@@ -0,0 +1,73 @@
+package io.probedock.jee.itf.test.utils.controllers;
+
+import io.probedock.jee.itf.AbstractTestController;
+import io.probedock.jee.itf.TestGroup;
+import io.probedock.jee.itf.annotations.PerfTest;
+import io.probedock.jee.itf.annotations.Test;
+import io.probedock.jee.itf.annotations.TestSetup;
+import io.probedock.jee.itf.annotations.TestSetupType;
+import io.probedock.jee.itf.model.Description;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.ejb.EJB;
+import javax.ejb.TransactionManagement;
+import javax.ejb.TransactionManagementType;
+
+/**
+ * Dummy test controller with performance tests to use in the unit tests
+ * 
+ * @author Laurent Prevost <laurent.prevost@probedock.io>
+ */
+@TransactionManagement(TransactionManagementType.BEAN)
+public class DummyTestControllerWithPerfTests extends AbstractTestController {
+	@EJB
+	public DummyTestGroup testGroup = new DummyTestGroup();
+
+	public class DummyTestGroup implements TestGroup {
+		public final AtomicInteger sharedTxInvocations = new AtomicInteger();
+		public final AtomicInteger txPerIterationInvocations = new AtomicInteger();
+		public final AtomicInteger txPerIterationSetups = new AtomicInteger();
+		public final AtomicInteger failingInvocations = new AtomicInteger();
+
+		@TestSetup(value = TestSetupType.BEFORE_IN_MAIN_TX, refSetupKey = "txPerIteration")
+		public void beforeInTx() {
+			txPerIterationSetups.incrementAndGet();
+		}
+
+		@Test
+		@PerfTest(iterations = 20, warmup = 5)
+		public Description sharedTx(Description description) {
+			sharedTxInvocations.incrementAndGet();
+			return description.pass();
+		}
+
+		@Test
+		@PerfTest(iterations = 10, warmup = 2, transactionPerIteration = true)
+		public Description txPerIteration(Description description) {
+			txPerIterationInvocations.incrementAndGet();
+			return description.pass();
+		}
+
+		@Test
+		@PerfTest(iterations = 10, warmup = 2)
+		public Description failing(Description description) {
+			if (failingInvocations.incrementAndGet() == 4) {
+				return description.fail("Fourth invocation");
+			}
+
+			return description.pass();
+		}
+
+		@Test
+		@PerfTest(iterations = 3, warmup = 0, maxP99 = 1)
+		public Description slow(Description description) throws InterruptedException {
+			Thread.sleep(5);
+			return description.pass();
+		}
+
+		@Override
+		public TestGroup getTestGroup() {
+			return this;
+		}
+	}
+}
@@ -0,0 +1,69 @@
+package io.probedock.jee.itf.test.utils.controllers;
+
+import io.probedock.jee.itf.AbstractTestController;
+import io.probedock.jee.itf.SavepointTestGroup;
+import io.probedock.jee.itf.TestGroup;
+import io.probedock.jee.itf.annotations.NoRollback;
+import io.probedock.jee.itf.annotations.Test;
+import io.probedock.jee.itf.annotations.TestSetup;
+import io.probedock.jee.itf.annotations.TestSetupType;
+import io.probedock.jee.itf.model.Description;
+import java.sql.Connection;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.ejb.EJB;
+import javax.ejb.TransactionManagement;
+import javax.ejb.TransactionManagementType;
+
+/**
+ * Dummy test controller with a test group isolated by savepoints to use in the unit tests
+ * 
+ * @author Laurent Prevost <laurent.prevost@probedock.io>
+ */
+@TransactionManagement(TransactionManagementType.BEAN)
+public class DummyTestControllerWithSavepoints extends AbstractTestController {
+	@EJB
+	public DummyTestGroup testGroup = new DummyTestGroup();
+
+	public class DummyTestGroup implements SavepointTestGroup {
+		public Connection connection;
+		public final AtomicInteger fixtures = new AtomicInteger();
+		public final AtomicInteger teardowns = new AtomicInteger();
+
+		@TestSetup(TestSetupType.BEFORE_EACH_IN_MAIN_TX)
+		public void insertFixtures() {
+			fixtures.incrementAndGet();
+		}
+
+		@TestSetup(TestSetupType.AFTER_EACH_IN_MAIN_TX)
+		public void deleteFixtures() {
+			teardowns.incrementAndGet();
+		}
+
+		@Test
+		public Description testMethodOne(Description description) {
+			return description.pass();
+		}
+
+		@Test
+		public Description testMethodTwo(Description description) {
+			return description.pass();
+		}
+
+		@Test
+		@NoRollback
+		public Description testMethodThree(Description description) {
+			return description.pass();
+		}
+
+		@Override
+		public Connection getSavepointConnection() {
+			return connection;
+		}
+
+		@Override
+		public TestGroup getTestGroup() {
+			return this;
+		}
+	}
+}
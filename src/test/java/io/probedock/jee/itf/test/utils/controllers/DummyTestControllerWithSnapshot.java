@@ -0,0 +1,49 @@
+package io.probedock.jee.itf.test.utils.controllers;
+
+import io.probedock.jee.itf.AbstractTestController;
+import io.probedock.jee.itf.SnapshotTestGroup;
+import io.probedock.jee.itf.TestGroup;
+import io.probedock.jee.itf.annotations.NoRollback;
+import io.probedock.jee.itf.annotations.Test;
+import io.probedock.jee.itf.model.Description;
+import javax.sql.DataSource;
+
+import javax.ejb.EJB;
+import javax.ejb.TransactionManagement;
+import javax.ejb.TransactionManagementType;
+
+/**
+ * Dummy test controller with a test group that restores its tables to use in the unit tests
+ * 
+ * @author Laurent Prevost <laurent.prevost@probedock.io>
+ */
+@TransactionManagement(TransactionManagementType.BEAN)
+public class DummyTestControllerWithSnapshot extends AbstractTestController {
+	@EJB
+	public DummyTestGroup testGroup = new DummyTestGroup();
+
+	public class DummyTestGroup implements SnapshotTestGroup {
+		public DataSource dataSource;
+
+		@Test
+		@NoRollback
+		public Description committed(Description description) {
+			return description.pass();
+		}
+
+		@Override
+		public DataSource getSnapshotDataSource() {
+			return dataSource;
+		}
+
+		@Override
+		public String[] getSnapshotTables() {
+			return new String[] { "item" };
+		}
+
+		@Override
+		public TestGroup getTestGroup() {
+			return this;
+		}
+	}
+}
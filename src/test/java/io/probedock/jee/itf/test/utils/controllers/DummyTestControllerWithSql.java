@@ -0,0 +1,56 @@
+package io.probedock.jee.itf.test.utils.controllers;
+
+import io.probedock.jee.itf.AbstractTestController;
+import io.probedock.jee.itf.TestGroup;
+import io.probedock.jee.itf.annotations.Test;
+import io.probedock.jee.itf.model.Description;
+import java.sql.Connection;
+import java.sql.SQLException;
+import javax.sql.DataSource;
+
+import javax.ejb.EJB;
+import javax.ejb.TransactionManagement;
+import javax.ejb.TransactionManagementType;
+
+/**
+ * Dummy test controller with tests that execute statements to use in the unit tests
+ * 
+ * @author Laurent Prevost <laurent.prevost@probedock.io>
+ */
+@TransactionManagement(TransactionManagementType.BEAN)
+public class DummyTestControllerWithSql extends AbstractTestController {
+	@EJB
+	public DummyTestGroup testGroup = new DummyTestGroup();
+
+	@Override
+	protected boolean isSqlRecorded() {
+		return true;
+	}
+
+	public class DummyTestGroup implements TestGroup {
+		public DataSource dataSource;
+
+		@Test(maxQueries = 2)
+		public Description overBudget(Description description) throws SQLException {
+			return execute(description, 3);
+		}
+
+		@Test(maxQueries = 10)
+		public Description repeated(Description description) throws SQLException {
+			return execute(description, 6);
+		}
+
+		private Description execute(Description description, int statements) throws SQLException {
+			Connection connection = dataSource.getConnection();
+			for (int i = 0; i < statements; i++) {
+				connection.createStatement().execute("select 1");
+			}
+			return description.pass();
+		}
+
+		@Override
+		public TestGroup getTestGroup() {
+			return this;
+		}
+	}
+}
@@ -0,0 +1,47 @@
+package io.probedock.jee.itf.test.utils.controllers;
+
+import io.probedock.jee.itf.AbstractTestController;
+import io.probedock.jee.itf.TestGroup;
+import io.probedock.jee.itf.annotations.NoRollback;
+import io.probedock.jee.itf.annotations.Test;
+import io.probedock.jee.itf.model.Description;
+
+import javax.ejb.EJB;
+import javax.ejb.TransactionManagement;
+import javax.ejb.TransactionManagementType;
+
+/**
+ * Dummy test controller with tests that exceed their timeout to use in the unit tests
+ * 
+ * @author Laurent Prevost <laurent.prevost@probedock.io>
+ */
+@TransactionManagement(TransactionManagementType.BEAN)
+public class DummyTestControllerWithTimeouts extends AbstractTestController {
+	@EJB
+	public TestGroup testGroup = new DummyTestGroup();
+
+	public class DummyTestGroup implements TestGroup {
+		@Test(timeoutMs = 50)
+		@NoRollback
+		public Description hanging(Description description) throws InterruptedException {
+			Thread.sleep(10000);
+			return description.pass();
+		}
+
+		@Test
+		public Description hangingWithDefaultTimeout(Description description) throws InterruptedException {
+			Thread.sleep(10000);
+			return description.pass();
+		}
+
+		@Test(timeoutMs = 5000)
+		public Description fast(Description description) {
+			return description.pass();
+		}
+
+		@Override
+		public TestGroup getTestGroup() {
+			return this;
+		}
+	}
+}
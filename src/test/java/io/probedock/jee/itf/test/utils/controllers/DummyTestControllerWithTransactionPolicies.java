@@ -0,0 +1,56 @@
+package io.probedock.jee.itf.test.utils.controllers;
+
+import io.probedock.jee.itf.AbstractTestController;
+import io.probedock.jee.itf.TestGroup;
+import io.probedock.jee.itf.annotations.NoRollback;
+import io.probedock.jee.itf.annotations.Test;
+import io.probedock.jee.itf.annotations.TestSetup;
+import io.probedock.jee.itf.annotations.TestSetupType;
+import io.probedock.jee.itf.annotations.TestTransaction;
+import io.probedock.jee.itf.annotations.TransactionPolicy;
+import io.probedock.jee.itf.model.Description;
+
+import javax.ejb.EJB;
+import javax.ejb.TransactionManagement;
+import javax.ejb.TransactionManagementType;
+
+/**
+ * Dummy test controller with tests that override the transaction policy of their group to use in the unit tests
+ * 
+ * @author Laurent Prevost <laurent.prevost@probedock.io>
+ */
+@TransactionManagement(TransactionManagementType.BEAN)
+public class DummyTestControllerWithTransactionPolicies extends AbstractTestController {
+	@EJB
+	public TestGroup testGroup = new DummyTestGroup();
+
+	@TestTransaction(TransactionPolicy.NONE)
+	public class DummyTestGroup implements TestGroup {
+		@TestSetup(TestSetupType.BEFORE_EACH_IN_MAIN_TX)
+		public void beforeEachInTx() {}
+
+		@Test
+		public Description withoutTransaction(Description description) {
+			return description.pass();
+		}
+
+		@Test
+		@NoRollback
+		@TestTransaction(TransactionPolicy.READ_ONLY)
+		public Description readOnly(Description description) {
+			return description.pass();
+		}
+
+		@Test
+		@NoRollback
+		@TestTransaction(TransactionPolicy.REQUIRED)
+		public Description required(Description description) {
+			return description.pass();
+		}
+
+		@Override
+		public TestGroup getTestGroup() {
+			return this;
+		}
+	}
+}